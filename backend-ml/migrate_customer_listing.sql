@@ -0,0 +1,21 @@
+-- Upgrade an existing database for the keyset-paginated customer listing.
+-- schema.sql drops and recreates every table; this only brings an existing
+-- customers table in line with it, and is safe to run more than once.
+
+BEGIN;
+
+-- A NULL sort key would come first under DESC and break the page cursor
+UPDATE customers SET risk_percentage = 0 WHERE risk_percentage IS NULL;
+ALTER TABLE customers ALTER COLUMN risk_percentage SET DEFAULT 0;
+ALTER TABLE customers ALTER COLUMN risk_percentage SET NOT NULL;
+
+-- Customer listing: keyset pagination on (risk_percentage, user_id), highest risk first
+CREATE INDEX IF NOT EXISTS idx_customers_risk_user ON customers(risk_percentage DESC, user_id DESC);
+CREATE INDEX IF NOT EXISTS idx_customers_status_risk_user ON customers(status, risk_percentage DESC, user_id DESC);
+
+-- Customer listing: substring search on name / id (ILIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_customers_name_trgm ON customers USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_user_id_trgm ON customers USING gin (user_id gin_trgm_ops);
+
+COMMIT;
@@ -26,7 +26,7 @@ CREATE TABLE customers (
     monthly_income DECIMAL(15,2),
     monthly_expenses DECIMAL(15,2),
     risk_score VARCHAR(20),
-    risk_percentage INTEGER,
+    risk_percentage INTEGER NOT NULL DEFAULT 0,
     stress_level VARCHAR(50),
     date_joined DATE,
     last_updated TIMESTAMP,
@@ -42,6 +42,7 @@ CREATE TABLE transactions (
     amount DECIMAL(15,2),
     type VARCHAR(20),
     category VARCHAR(100),
+    risk_flag VARCHAR(20),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -115,4 +116,14 @@ CREATE INDEX idx_credit_history_customer ON credit_score_history(customer_user_i
 CREATE INDEX idx_payment_history_customer ON payment_history(customer_user_id);
 CREATE INDEX idx_spending_customer ON spending_categories(customer_user_id);
 CREATE INDEX idx_alerts_customer ON alerts(customer_user_id);
-CREATE INDEX idx_liquidity_customer ON liquidity_data(customer_user_id);
\ No newline at end of file
+CREATE INDEX idx_liquidity_customer ON liquidity_data(customer_user_id);
+
+-- Customer listing: keyset pagination on (risk_percentage, user_id), highest risk first
+-- (existing databases: run migrate_customer_listing.sql)
+CREATE INDEX idx_customers_risk_user ON customers(risk_percentage DESC, user_id DESC);
+CREATE INDEX idx_customers_status_risk_user ON customers(status, risk_percentage DESC, user_id DESC);
+
+-- Customer listing: substring search on name / id (ILIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_customers_name_trgm ON customers USING gin (name gin_trgm_ops);
+CREATE INDEX idx_customers_user_id_trgm ON customers USING gin (user_id gin_trgm_ops);
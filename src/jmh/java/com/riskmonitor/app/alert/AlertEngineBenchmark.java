@@ -0,0 +1,84 @@
+package com.riskmonitor.app.alert;
+
+import com.riskmonitor.app.model.Alert;
+import com.riskmonitor.app.repository.TransactionRepository;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Events per second through the engine for a book of customers, one
+ * 100-event batch per operation. Every customer is seeded before
+ * measurement and alerts are discarded, so this is rule evaluation and
+ * stripe locking only; run with -t N to see how it scales across threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class AlertEngineBenchmark {
+
+    private static final int BATCH = 100;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] DESCRIPTIONS = {
+            "Grocery Store", "ATM Withdrawal", "Salary Credit", "EMI Payment - Home Loan", "Restaurant" };
+
+    @Param({ "10000" })
+    public int customers;
+
+    private AlertEngine engine;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AlertRules rules = new AlertRules(TransactionFlagger.defaults(), 24, 5, 3, 10000, 0.4, 0.75);
+        AlertWriter discard = new AlertWriter(null, null, Integer.MAX_VALUE) {
+            @Override
+            public void enqueue(Collection<Alert> alerts) {
+            }
+        };
+        engine = new AlertEngine(rules, discard, Mockito.mock(TransactionRepository.class), 0, 1440);
+        List<CustomerEvent> warm = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            warm.add(new CustomerEvent.Balance(customerId(i), START, new BigDecimal("100000")));
+        }
+        engine.process(warm);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int process() {
+        List<CustomerEvent> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long n = sequence.incrementAndGet();
+            String customerId = customerId((int) (n * 7919 % customers));
+            // A simulated minute per event keeps every customer's windows sliding
+            LocalDateTime at = START.plusMinutes(n);
+            batch.add(switch ((int) (n % 10)) {
+                case 0 -> new CustomerEvent.Balance(customerId, at, BigDecimal.valueOf(50000 + n % 50000));
+                case 1 -> new CustomerEvent.Payment(customerId, at, "EMI", n % 7 == 0 ? "LATE" : "ON_TIME",
+                        BigDecimal.valueOf(9000));
+                default -> {
+                    String description = DESCRIPTIONS[(int) (n % DESCRIPTIONS.length)];
+                    yield new CustomerEvent.Transaction(customerId, at, description, BigDecimal.valueOf(-(n % 5000)),
+                            "debit", description.startsWith("ATM") ? "Cash" : "Shopping");
+                }
+            });
+        }
+        return engine.process(batch);
+    }
+
+    private static String customerId(int i) {
+        return String.format("USR-%06d", i);
+    }
+}
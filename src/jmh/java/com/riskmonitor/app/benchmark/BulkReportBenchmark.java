@@ -0,0 +1,56 @@
+package com.riskmonitor.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.riskmonitor.app.service.BulkReportService;
+import com.riskmonitor.app.service.ChartImageCache;
+import com.riskmonitor.app.service.ChartRenderer;
+import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detailed bulk report render time by section-rendering thread count.
+ * Speedup for N threads is score(threads=1) / score(threads=N).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class BulkReportBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    private int threads;
+
+    @Param({ "100" })
+    private int customers;
+
+    private BulkReportService bulkReportService;
+    private List<String> customerIds;
+    private Map<String, JsonNode> customerData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bulkReportService = new BulkReportService(new ReportService(new ChartImageCache(256), new ChartRenderer(true),
+                TransactionFlagger.defaults(), true), threads);
+        customerData = DatasetFixtures.customers(customers);
+        customerIds = List.copyOf(customerData.keySet());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bulkReportService.shutdown();
+    }
+
+    @Benchmark
+    public void detailedBulkReport() throws Exception {
+        bulkReportService.writeBulkReport(customerIds, "Critical Customers Weekly Report", "benchmark",
+                customerData, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,42 @@
+package com.riskmonitor.app.benchmark;
+
+import com.riskmonitor.app.service.ChartImageCache;
+import com.riskmonitor.app.service.ChartRenderer;
+import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overview-only bulk report (ReportService.generateBulkReport) by number
+ * of customers selected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BulkSummaryBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int customers;
+
+    private ReportService reportService;
+    private List<String> customerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reportService = new ReportService(new ChartImageCache(256), new ChartRenderer(true),
+                TransactionFlagger.defaults(), true);
+        customerIds = new ArrayList<>(DatasetFixtures.customers(customers).keySet());
+    }
+
+    @Benchmark
+    public byte[] generateBulkReport() throws Exception {
+        return reportService.generateBulkReport(customerIds, "Critical Customers Weekly Report", "benchmark");
+    }
+}
@@ -0,0 +1,54 @@
+package com.riskmonitor.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.riskmonitor.app.service.ChartImageCache;
+import com.riskmonitor.app.service.ChartRenderer;
+import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single customer report over the sample customers, with charts drawn
+ * server-side from the payload or embedded from posted PNG captures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CustomerReportBenchmark {
+
+    @Param({ "server", "images" })
+    private String charts;
+
+    private ReportService reportService;
+    private List<String> ids;
+    private List<JsonNode> customers;
+    private List<Map<String, String>> chartImages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean serverSide = "server".equals(charts);
+        reportService = new ReportService(new ChartImageCache(256), new ChartRenderer(serverSide),
+                TransactionFlagger.defaults(), true);
+        ids = new ArrayList<>(DatasetFixtures.profiles().keySet());
+        customers = new ArrayList<>(DatasetFixtures.profiles().values());
+        chartImages = new ArrayList<>();
+        for (JsonNode customer : customers) {
+            chartImages.add(serverSide ? null : DatasetFixtures.chartImages(customer));
+        }
+    }
+
+    @Benchmark
+    public byte[] generateCustomerReport() throws Exception {
+        int i = next++ % customers.size();
+        return reportService.generateCustomerReport(ids.get(i), customers.get(i), chartImages.get(i));
+    }
+}
@@ -0,0 +1,170 @@
+package com.riskmonitor.app.benchmark;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Customer payloads built from the sample data shipped with the project:
+ * the hand-written profiles in src/data/usersData.js, with their recent
+ * transactions replaced by the fuller history in backend-ml/data.
+ *
+ * Paths resolve against {@code -Dbenchmark.data.root} (default: the working
+ * directory, which is the project root under {@code mvn -Pjmh exec:exec}).
+ */
+public final class DatasetFixtures {
+
+    private static final JsonMapper LENIENT = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+            .build();
+
+    private static final int CHART_WIDTH = 1000;
+    private static final int CHART_HEIGHT = 440;
+
+    private static final Map<String, JsonNode> PROFILES = load();
+
+    private DatasetFixtures() {
+    }
+
+    /** The distinct customers in the sample data, keyed by id. */
+    public static Map<String, JsonNode> profiles() {
+        return PROFILES;
+    }
+
+    /**
+     * {@code count} customers cycling through the sample profiles, each
+     * re-keyed to its own id so reports and cache keys stay distinct.
+     */
+    public static Map<String, JsonNode> customers(int count) {
+        List<JsonNode> base = new ArrayList<>(PROFILES.values());
+        Map<String, JsonNode> customers = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String id = String.format("USR-%04d", i + 1);
+            ObjectNode customer = base.get(i % base.size()).deepCopy();
+            ((ObjectNode) customer.get("profile")).put("id", id);
+            customers.put(id, customer);
+        }
+        return customers;
+    }
+
+    /** Every transaction description in the sample data. */
+    public static List<String> transactionDescriptions() {
+        List<String> descriptions = new ArrayList<>();
+        for (JsonNode customer : PROFILES.values()) {
+            for (JsonNode tx : customer.path("recentTransactions")) {
+                descriptions.add(tx.get("description").asText());
+            }
+        }
+        return descriptions;
+    }
+
+    /**
+     * PNG data URLs like the html2canvas captures the frontend used to post,
+     * drawn from one profile's chart series at the same 2x scale.
+     */
+    public static Map<String, String> chartImages(JsonNode customer) {
+        Map<String, String> charts = new LinkedHashMap<>();
+        charts.put("cashFlow", barChart(customer.path("cashFlowData"), "expenses"));
+        charts.put("creditScore", barChart(customer.path("creditScoreHistory"), "score"));
+        charts.put("paymentHistory", barChart(customer.path("paymentHistory"), "onTime"));
+        charts.put("liquidity", barChart(customer.path("liquidityData"), "amount"));
+        return charts;
+    }
+
+    private static String barChart(JsonNode series, String field) {
+        BufferedImage image = new BufferedImage(CHART_WIDTH, CHART_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(new java.awt.Color(8, 11, 17));
+        g.fillRect(0, 0, CHART_WIDTH, CHART_HEIGHT);
+
+        double max = 1;
+        for (JsonNode point : series) {
+            max = Math.max(max, point.path(field).asDouble());
+        }
+        int slot = CHART_WIDTH / Math.max(1, series.size());
+        int i = 0;
+        for (JsonNode point : series) {
+            int height = (int) ((CHART_HEIGHT - 80) * point.path(field).asDouble() / max);
+            g.setColor(new java.awt.Color(0, 174, 239));
+            g.fillRect(i * slot + slot / 4, CHART_HEIGHT - 40 - height, slot / 2, height);
+            g.setColor(java.awt.Color.LIGHT_GRAY);
+            g.drawString(point.path("month").asText(), i * slot + slot / 2 - 10, CHART_HEIGHT - 15);
+            i++;
+        }
+        g.dispose();
+
+        try (ByteArrayOutputStream png = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", png);
+            return "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, JsonNode> load() {
+        Path root = Paths.get(System.getProperty("benchmark.data.root", "."));
+        try {
+            Map<String, JsonNode> profiles = parseUsersData(root.resolve("src/data/usersData.js"));
+            mergeTransactions(profiles, root.resolve("backend-ml/data/transactions.csv"));
+            return profiles;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load benchmark data from " + root.toAbsolutePath(), e);
+        }
+    }
+
+    // ALL_USERS_DATA is a plain object literal; everything after it is code
+    private static Map<String, JsonNode> parseUsersData(Path file) throws IOException {
+        String source = Files.readString(file);
+        int start = source.indexOf('{', source.indexOf("ALL_USERS_DATA"));
+        int end = source.indexOf("\n};", start);
+        JsonNode users = LENIENT.readTree(source.substring(start, end + 2));
+
+        Map<String, JsonNode> profiles = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = users.fields(); it.hasNext();) {
+            Map.Entry<String, JsonNode> user = it.next();
+            profiles.put(user.getKey(), user.getValue());
+        }
+        return profiles;
+    }
+
+    // customer_user_id,transaction_date,description,amount,type,category
+    private static void mergeTransactions(Map<String, JsonNode> profiles, Path csv) throws IOException {
+        Map<String, ArrayNode> transactions = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(csv);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] cols = line.split(",");
+            if (cols.length < 5 || !profiles.containsKey(cols[0])) {
+                continue;
+            }
+            ObjectNode tx = transactions.computeIfAbsent(cols[0], id -> LENIENT.createArrayNode()).addObject();
+            tx.put("date", cols[1]);
+            tx.put("description", cols[2]);
+            tx.put("amount", Integer.parseInt(cols[3]));
+            tx.put("type", cols[4]);
+        }
+        transactions.forEach((id, txs) -> ((ObjectNode) profiles.get(id)).set("recentTransactions", txs));
+    }
+}
@@ -0,0 +1,44 @@
+package com.riskmonitor.app.benchmark;
+
+import com.riskmonitor.app.security.JwtUtil;
+import com.riskmonitor.app.security.TokenClaims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and subject extraction on every authenticated request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil("riskmonitor-secret-key-must-be-long-enough-2024-barclays", 86400000L);
+        token = jwtUtil.generateToken("analyst@riskmonitor.com", "ANALYST");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("analyst@riskmonitor.com", "ANALYST");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    /** What JwtFilter does per request: one verified parse. */
+    @Benchmark
+    public TokenClaims validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,47 @@
+package com.riskmonitor.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.riskmonitor.app.service.ChartImageCache;
+import com.riskmonitor.app.service.ChartRenderer;
+import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single customer report with static blocks stamped from precomputed
+ * templates versus laid out per request. Run with {@code -prof gc} to
+ * compare allocation per report as well as latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReportTemplateBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean templates;
+
+    private ReportService reportService;
+    private String customerId;
+    private JsonNode customer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reportService = new ReportService(new ChartImageCache(256), new ChartRenderer(true),
+                TransactionFlagger.defaults(), templates);
+        Map.Entry<String, JsonNode> first = DatasetFixtures.profiles().entrySet().iterator().next();
+        customerId = first.getKey();
+        customer = first.getValue();
+    }
+
+    @Benchmark
+    public void customerReport() throws Exception {
+        reportService.writeCustomerReport(customerId, customer, null, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,161 @@
+package com.riskmonitor.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.security.JwtUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop HTTP load against a running server, for comparing the
+ * platform-thread and virtual-thread modes on the same machine and data:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:java@loadtest -Dloadtest.args="concurrency=400 seconds=30"
+ * </pre>
+ *
+ * Each of {@code concurrency} clients sends a request from the mix, waits
+ * for the whole response and sends the next. {@code {customer}} in a path
+ * is replaced by a random id from the first page of /api/customers. The
+ * token is minted with the server's default JWT secret (override with
+ * {@code secret=} or pass {@code token=}).
+ *
+ * Options: url, concurrency, seconds, warmup (seconds, not measured),
+ * requests (comma-separated "METHOD /path", or just "/path" for a GET),
+ * secret, token.
+ */
+public final class WebLoadTest {
+
+    private static final String DEFAULT_REQUESTS = "GET /api/customers/{customer},GET /api/customers?size=20,"
+            + "GET /api/portfolio/summary,POST /api/reports/generate/{customer}";
+
+    private static final int[] STATUS_BUCKETS = { 200, 503 }; // everything else counts as "other"
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        List<String[]> requests = new ArrayList<>();
+        for (String request : options.getOrDefault("requests", DEFAULT_REQUESTS).split(",")) {
+            String[] parts = request.trim().split(" ", 2);
+            requests.add(parts.length == 2 ? parts : new String[] { "GET", parts[0] });
+        }
+        String token = options.containsKey("token") ? options.get("token")
+                : new JwtUtil(options.getOrDefault("secret",
+                        "riskmonitor-secret-key-must-be-long-enough-2024-barclays"), 3_600_000L)
+                        .generateToken("loadtest@riskmonitor.com", "ANALYST");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<String> customerIds = customerIds(client, url, token);
+
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLongArray statuses = new AtomicLongArray(STATUS_BUCKETS.length + 2); // ..., other, I/O error
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long[][] own = { new long[1024] };
+            int[] count = { 0 };
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    String[] request = requests.get(random.nextInt(requests.size()));
+                    String path = request[1].replace("{customer}", customerIds.get(random.nextInt(customerIds.size())));
+                    HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(url + path))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(60))
+                            .method(request[0], HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long started = System.nanoTime();
+                    int bucket;
+                    try {
+                        int status = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        int index = Arrays.binarySearch(STATUS_BUCKETS, status);
+                        bucket = index >= 0 ? index : STATUS_BUCKETS.length;
+                    } catch (IOException e) {
+                        bucket = STATUS_BUCKETS.length + 1;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (measuring.get()) {
+                        statuses.incrementAndGet(bucket);
+                        if (count[0] == own[0].length) {
+                            own[0] = Arrays.copyOf(own[0], own[0].length * 2);
+                        }
+                        own[0][count[0]++] = System.nanoTime() - started;
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.add(Arrays.copyOf(own[0], count[0]));
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            clients.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(warmup * 1000L);
+        measuring.set(true);
+        long started = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        measuring.set(false);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        running.set(false);
+        for (Thread thread : clients) {
+            thread.join(70_000);
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s  concurrency=%d  %.0fs%n", url, concurrency, elapsed);
+        System.out.printf("  requests: %d (%.1f/s)%n", all.length, all.length / elapsed);
+        System.out.printf("  status:   200=%d  503=%d  other=%d  io-errors=%d%n",
+                statuses.get(0), statuses.get(1), statuses.get(2), statuses.get(3));
+        if (all.length > 0) {
+            System.out.printf("  latency:  p50=%.1fms  p90=%.1fms  p99=%.1fms  max=%.1fms%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static List<String> customerIds(HttpClient client, String url, String token)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/api/customers?size=100"))
+                .header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/customers returned " + response.statusCode());
+        }
+        List<String> ids = new ArrayList<>();
+        for (JsonNode customer : new ObjectMapper().readTree(response.body()).path("customers")) {
+            ids.add(customer.path("id").asText());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No customers to request");
+        }
+        return ids;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+}
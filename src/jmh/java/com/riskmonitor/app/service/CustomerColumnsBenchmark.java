@@ -0,0 +1,51 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.PortfolioStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Portfolio aggregates over a synthetic book held in CustomerColumns: the
+ * whole book (running totals) and a status + risk filter (full column scan).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class CustomerColumnsBenchmark {
+
+    @Param({ "1000000" })
+    public int customers;
+
+    private CustomerColumns columns;
+    private int atRisk;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        columns = new CustomerColumns(customers);
+        for (int i = 0; i < customers; i++) {
+            int risk = random.nextInt(101);
+            columns.append(new CustomerColumns.Row("USR-" + i, 550 + random.nextInt(300), risk,
+                    random.nextLong(2_000_000, 50_000_000), random.nextLong(1_000_000, 40_000_000),
+                    random.nextLong(-10_000_000, 500_000_000),
+                    CustomerColumns.statusCode(RiskAggregates.band(risk))));
+        }
+        columns.publish();
+        atRisk = 1 << CustomerColumns.STATUSES.indexOf("High") | 1 << CustomerColumns.STATUSES.indexOf("Critical");
+    }
+
+    @Benchmark
+    public PortfolioStats wholeBook() {
+        return columns.summarize(CustomerColumns.ALL_STATUSES, 0, 100);
+    }
+
+    @Benchmark
+    public PortfolioStats highAndCriticalAbove70() {
+        return columns.summarize(atRisk, 70, 100);
+    }
+}
@@ -0,0 +1,65 @@
+package com.riskmonitor.app.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.riskmonitor.app.benchmark.DatasetFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportService's per-element helpers. Lives in the service package so it
+ * can reach the package-private methods directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class ReportHelpersBenchmark {
+
+    private ReportService reportService;
+    private List<String> chartImages;
+    private List<String> descriptions;
+    private Document document;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reportService = new ReportService(new ChartImageCache(256), new ChartRenderer(false),
+                TransactionFlagger.defaults(), true);
+        chartImages = new ArrayList<>(
+                DatasetFixtures.chartImages(DatasetFixtures.profiles().values().iterator().next()).values());
+        descriptions = DatasetFixtures.transactionDescriptions();
+    }
+
+    @Setup(Level.Iteration)
+    public void openDocument() {
+        document = new Document(new PdfDocument(new PdfWriter(OutputStream.nullOutputStream())));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDocument() {
+        document.close();
+    }
+
+    /** One posted chart capture added to an open document (decode cache warm after the first). */
+    @Benchmark
+    public void addChartImage() {
+        reportService.addChartImage(document, chartImages.get(next++ % chartImages.size()));
+    }
+
+    /** Flags every transaction description in the sample data. */
+    @Benchmark
+    public void getRiskFlag(Blackhole bh) {
+        for (String description : descriptions) {
+            bh.consume(reportService.getRiskFlag(description));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.benchmark.DatasetFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifying every sample transaction description: the compiled automaton
+ * against the sequential lower-case-and-contains chain it replaced, as the
+ * rule set grows. Extra keywords are made-up words that never match, so both
+ * sides always scan everything.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class TransactionFlaggerBenchmark {
+
+    private static final String[][] BUILT_IN = {
+            { "missed", "failed" }, { "late", "delayed" }, { "loan", "lending" }, { "atm", "withdrawal" } };
+
+    @Param({ "2", "8", "32" })
+    public int keywordsPerLevel;
+
+    private List<String> descriptions;
+    private String[][] keywords;
+    private TransactionFlagger flagger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        descriptions = DatasetFixtures.transactionDescriptions();
+        keywords = new String[BUILT_IN.length][];
+        for (int level = 0; level < BUILT_IN.length; level++) {
+            List<String> words = new ArrayList<>(List.of(BUILT_IN[level]));
+            for (int i = words.size(); i < keywordsPerLevel; i++) {
+                words.add("zq" + level + "x" + i + "kw");
+            }
+            keywords[level] = words.toArray(String[]::new);
+        }
+        flagger = new TransactionFlagger(keywords[0], keywords[1], keywords[2], keywords[3]);
+    }
+
+    @Benchmark
+    public void automaton(Blackhole bh) {
+        for (String description : descriptions) {
+            bh.consume(flagger.flag(description));
+        }
+    }
+
+    @Benchmark
+    public void sequentialContains(Blackhole bh) {
+        for (String description : descriptions) {
+            bh.consume(containsChain(description));
+        }
+    }
+
+    private String containsChain(String description) {
+        String lower = description.toLowerCase();
+        for (int level = 0; level < keywords.length; level++) {
+            for (String keyword : keywords[level]) {
+                if (lower.contains(keyword)) {
+                    return TransactionFlagger.LEVELS.get(level);
+                }
+            }
+        }
+        return TransactionFlagger.NORMAL;
+    }
+}
@@ -0,0 +1,159 @@
+package com.riskmonitor.app.alert;
+
+import com.riskmonitor.app.model.Alert;
+import com.riskmonitor.app.model.Transaction;
+import com.riskmonitor.app.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Evaluates incoming {@link CustomerEvent}s against per-customer rolling
+ * windows ({@link AlertRules}) and hands the resulting alerts to the
+ * {@link AlertWriter}.
+ *
+ * Customer state is split across a power-of-two number of stripes, each a
+ * plain HashMap guarded by its own lock, so threads working on different
+ * customers rarely contend and one customer's events are always evaluated
+ * one at a time.
+ *
+ * A customer seen for the first time is seeded by replaying their recent
+ * stored transactions through the rules (alerts from the replay are
+ * discarded), so windows and baselines do not start empty after a restart.
+ * The database read happens outside the stripe lock. State untouched for
+ * the idle period is evicted by a periodic sweep.
+ */
+@Service
+public class AlertEngine {
+
+    // Long enough for the salary history and the cash baseline
+    private static final int SEED_DAYS = 190;
+
+    private final AlertRules rules;
+    private final AlertWriter writer;
+    private final TransactionRepository transactionRepository;
+    private final long idleMillis;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public AlertEngine(AlertRules rules, AlertWriter writer, TransactionRepository transactionRepository,
+            @Value("${alerts.engine.stripes:0}") int stripes,
+            @Value("${alerts.engine.idle-minutes:1440}") long idleMinutes) {
+        this.rules = rules;
+        this.writer = writer;
+        this.transactionRepository = transactionRepository;
+        this.idleMillis = idleMinutes * 60_000;
+
+        int requested = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 4;
+        int size = Integer.highestOneBit(Math.max(requested - 1, 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Evaluates the events in order and queues any alerts they raise.
+     * Returns the number of alerts raised.
+     */
+    public int process(List<? extends CustomerEvent> events) {
+        List<Alert> alerts = new ArrayList<>();
+        for (CustomerEvent event : events) {
+            evaluate(event, alerts);
+        }
+        writer.enqueue(alerts);
+        return alerts.size();
+    }
+
+    /** Customers currently holding state. */
+    public int trackedCustomers() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.states.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.engine.sweep-ms:600000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.states.values().removeIf(state -> state.touchedMillis < cutoff);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void evaluate(CustomerEvent event, List<Alert> alerts) {
+        Stripe stripe = stripe(event.customerId());
+        ReentrantLock lock = stripe.lock;
+
+        lock.lock();
+        try {
+            CustomerAlertState state = stripe.states.get(event.customerId());
+            if (state != null) {
+                apply(event, state, alerts);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        CustomerAlertState seeded = seed(event.customerId(), event.at());
+        lock.lock();
+        try {
+            CustomerAlertState raced = stripe.states.putIfAbsent(event.customerId(), seeded);
+            apply(event, raced != null ? raced : seeded, alerts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(CustomerEvent event, CustomerAlertState state, List<Alert> alerts) {
+        state.touchedMillis = System.currentTimeMillis();
+        rules.evaluate(event, state, alerts);
+    }
+
+    private CustomerAlertState seed(String customerId, LocalDateTime before) {
+        CustomerAlertState state = new CustomerAlertState();
+        List<Alert> discarded = new ArrayList<>();
+        for (Transaction tx : transactionRepository
+                .findByCustomerUserIdAndTransactionDateGreaterThanEqualOrderByTransactionDateAscIdAsc(
+                        customerId, before.toLocalDate().minusDays(SEED_DAYS))) {
+            LocalDateTime at = tx.getTransactionDate().atStartOfDay();
+            if (at.isBefore(before)) {
+                rules.evaluate(new CustomerEvent.Transaction(customerId, at, tx.getDescription(), tx.getAmount(),
+                        tx.getType(), tx.getCategory()), state, discarded);
+            }
+        }
+        return state;
+    }
+
+    private Stripe stripe(String customerId) {
+        int h = customerId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    // One stripe's customers; the map is only touched while holding the lock
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, CustomerAlertState> states = new HashMap<>();
+    }
+}
@@ -0,0 +1,14 @@
+package com.riskmonitor.app.alert;
+
+/**
+ * What a rule detected. Each kind fires at most once per customer per
+ * cooldown period.
+ */
+enum AlertKind {
+    MISSED_PAYMENT,
+    LATE_PAYMENTS,
+    FAILED_DEBIT,
+    SALARY_DELAY,
+    CASH_SPIKE,
+    LIQUIDITY_DROP
+}
@@ -0,0 +1,234 @@
+package com.riskmonitor.app.alert;
+
+import com.riskmonitor.app.model.Alert;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * The windowed rules, evaluated against one customer's state per event:
+ *
+ * - missed payments (critical) and repeated late or missed payments
+ * - debits the transaction flagger rates Critical (failed or missed)
+ * - salary credited well after the customer's usual day, twice running
+ *   escalating to critical
+ * - a week of cash withdrawals far above the customer's weekly baseline
+ * - the liquid balance falling steeply from its 30-day peak
+ *
+ * Each kind of alert fires at most once per customer per cooldown.
+ */
+@Component
+public class AlertRules {
+
+    static final String CRITICAL = "critical";
+    static final String WARNING = "warning";
+
+    private static final int LATE_PAYMENT_DAYS = 90;
+    private static final int LATE_PAYMENT_COUNT = 2;
+    private static final int CASH_WEEK_DAYS = 7;
+    private static final int CASH_BASELINE_WEEKS = 8;
+    private static final int CASH_MIN_HISTORY_DAYS = 28;
+    private static final int BALANCE_DAYS = 30;
+
+    private static final int CRITICAL_FLAG = TransactionFlagger.LEVELS.indexOf("Critical");
+    private static final int WATCH_FLAG = TransactionFlagger.LEVELS.indexOf("Watch");
+
+    private final TransactionFlagger transactionFlagger;
+    private final Duration cooldown;
+    private final int salaryDelayDays;
+    private final double cashMultiplier;
+    private final double cashMinAmount;
+    private final double liquidityDrop;
+    private final double liquidityCriticalDrop;
+
+    public AlertRules(TransactionFlagger transactionFlagger,
+            @Value("${alerts.cooldown-hours:24}") int cooldownHours,
+            @Value("${alerts.salary.delay-days:5}") int salaryDelayDays,
+            @Value("${alerts.cash.multiplier:3}") double cashMultiplier,
+            @Value("${alerts.cash.min-amount:10000}") double cashMinAmount,
+            @Value("${alerts.liquidity.drop:0.4}") double liquidityDrop,
+            @Value("${alerts.liquidity.critical-drop:0.75}") double liquidityCriticalDrop) {
+        this.transactionFlagger = transactionFlagger;
+        this.cooldown = Duration.ofHours(cooldownHours);
+        this.salaryDelayDays = salaryDelayDays;
+        this.cashMultiplier = cashMultiplier;
+        this.cashMinAmount = cashMinAmount;
+        this.liquidityDrop = liquidityDrop;
+        this.liquidityCriticalDrop = liquidityCriticalDrop;
+    }
+
+    void evaluate(CustomerEvent event, CustomerAlertState state, List<Alert> out) {
+        state.seen(event.at());
+        if (event instanceof CustomerEvent.Transaction tx) {
+            onTransaction(tx, state, out);
+        } else if (event instanceof CustomerEvent.Payment payment) {
+            onPayment(payment, state, out);
+        } else if (event instanceof CustomerEvent.Balance balance) {
+            onBalance(balance, state, out);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // TRANSACTIONS
+    // ═══════════════════════════════════════════════════════════
+
+    private void onTransaction(CustomerEvent.Transaction tx, CustomerAlertState state, List<Alert> out) {
+        double amount = tx.amount() != null ? tx.amount().doubleValue() : 0;
+        boolean credit = "credit".equalsIgnoreCase(tx.type()) || (tx.type() == null && amount > 0);
+        int flag = transactionFlagger.severity(tx.description());
+
+        if (credit) {
+            if ("salary".equalsIgnoreCase(tx.category())) {
+                onSalary(tx, state, out);
+            }
+            return;
+        }
+        if (flag == CRITICAL_FLAG) {
+            fire(AlertKind.FAILED_DEBIT, CRITICAL, "Failed or missed debit: " + tx.description(), tx, state, out);
+        }
+        if (flag == WATCH_FLAG || "cash".equalsIgnoreCase(tx.category())) {
+            onCashWithdrawal(tx, Math.abs(amount), state, out);
+        }
+    }
+
+    private void onSalary(CustomerEvent.Transaction tx, CustomerAlertState state, List<Alert> out) {
+        LocalDate date = tx.at().toLocalDate();
+        LocalDate previous = state.salaryDates.peekLast();
+        if (previous != null && previous.getYear() == date.getYear() && previous.getMonth() == date.getMonth()) {
+            return; // a second credit in the same month (bonus, arrears) says nothing about timing
+        }
+
+        if (state.salaryDates.size() >= 2) {
+            int usualDay = usualDay(state);
+            long late = daysAfterUsual(date, usualDay);
+            boolean isLate = late >= salaryDelayDays;
+            if (isLate) {
+                String message = state.lastSalaryLate
+                        ? "Salary delayed again: credited " + late + " days after the usual day " + usualDay
+                        : "Salary credited " + late + " days late (usually around day " + usualDay + ")";
+                fire(AlertKind.SALARY_DELAY, state.lastSalaryLate ? CRITICAL : WARNING, message, tx, state, out);
+            }
+            state.lastSalaryLate = isLate;
+        }
+        state.addSalary(date);
+    }
+
+    private void onCashWithdrawal(CustomerEvent.Transaction tx, double amount, CustomerAlertState state,
+            List<Alert> out) {
+        LocalDateTime at = tx.at();
+        LocalDateTime weekStart = at.minusDays(CASH_WEEK_DAYS);
+        LocalDateTime baselineStart = weekStart.minusWeeks(CASH_BASELINE_WEEKS);
+        state.withdrawals.addLast(new CustomerAlertState.Point(at, amount));
+        CustomerAlertState.evictBefore(state.withdrawals, baselineStart);
+
+        if (state.firstSeen.isAfter(at.minusDays(CASH_MIN_HISTORY_DAYS))) {
+            return; // too little history for a baseline
+        }
+        double week = 0;
+        double before = 0;
+        for (CustomerAlertState.Point withdrawal : state.withdrawals) {
+            if (withdrawal.at().isAfter(weekStart)) {
+                week += withdrawal.value();
+            } else {
+                before += withdrawal.value();
+            }
+        }
+        LocalDateTime historyStart = state.firstSeen.isAfter(baselineStart) ? state.firstSeen : baselineStart;
+        double weeks = Math.max(1, ChronoUnit.DAYS.between(historyStart, weekStart) / 7.0);
+        double baseline = before / weeks;
+
+        if (week >= cashMinAmount && week >= cashMultiplier * baseline) {
+            fire(AlertKind.CASH_SPIKE, WARNING, "Cash withdrawals of " + rupees(week) + " in 7 days against a usual "
+                    + rupees(baseline) + " a week", tx, state, out);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // PAYMENTS AND BALANCES
+    // ═══════════════════════════════════════════════════════════
+
+    private void onPayment(CustomerEvent.Payment payment, CustomerAlertState state, List<Alert> out) {
+        String status = payment.status() != null ? payment.status().toUpperCase() : "";
+        String kind = payment.kind() != null ? payment.kind() : "scheduled";
+        if (status.equals("MISSED")) {
+            fire(AlertKind.MISSED_PAYMENT, CRITICAL, "Missed " + kind + " payment"
+                    + (payment.amount() != null ? " of " + rupees(payment.amount().doubleValue()) : ""),
+                    payment, state, out);
+        }
+        if (status.equals("MISSED") || status.equals("LATE")) {
+            state.latePayments.addLast(payment.at());
+            LocalDateTime cutoff = payment.at().minusDays(LATE_PAYMENT_DAYS);
+            while (!state.latePayments.isEmpty() && state.latePayments.peekFirst().isBefore(cutoff)) {
+                state.latePayments.removeFirst();
+            }
+            if (state.latePayments.size() >= LATE_PAYMENT_COUNT) {
+                fire(AlertKind.LATE_PAYMENTS, WARNING, state.latePayments.size()
+                        + " late or missed payments in the last " + LATE_PAYMENT_DAYS + " days", payment, state, out);
+            }
+        }
+    }
+
+    private void onBalance(CustomerEvent.Balance event, CustomerAlertState state, List<Alert> out) {
+        if (event.balance() == null) {
+            return;
+        }
+        double balance = event.balance().doubleValue();
+        state.balances.addLast(new CustomerAlertState.Point(event.at(), balance));
+        CustomerAlertState.evictBefore(state.balances, event.at().minusDays(BALANCE_DAYS));
+
+        double peak = state.balances.stream().mapToDouble(CustomerAlertState.Point::value).max().orElse(balance);
+        if (peak <= 0) {
+            return;
+        }
+        double drop = 1 - balance / peak;
+        if (drop >= liquidityDrop) {
+            fire(AlertKind.LIQUIDITY_DROP, drop >= liquidityCriticalDrop ? CRITICAL : WARNING,
+                    "Liquid balance down " + Math.round(drop * 100) + "% in " + BALANCE_DAYS + " days, from "
+                            + rupees(peak) + " to " + rupees(balance), event, state, out);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // HELPER METHODS
+    // ═══════════════════════════════════════════════════════════
+
+    private void fire(AlertKind kind, String type, String message, CustomerEvent event, CustomerAlertState state,
+            List<Alert> out) {
+        LocalDateTime last = state.lastFired.get(kind);
+        if (last != null && event.at().isBefore(last.plus(cooldown))) {
+            return;
+        }
+        state.lastFired.put(kind, event.at());
+        out.add(new Alert(null, event.customerId(), type, message, event.at()));
+    }
+
+    private static int usualDay(CustomerAlertState state) {
+        int[] days = state.salaryDates.stream().mapToInt(LocalDate::getDayOfMonth).sorted().toArray();
+        return days[days.length / 2];
+    }
+
+    // Signed distance to the nearest occurrence of the usual day, so a salary
+    // that lands on the 30th for a usual day of 1 counts as early, not late.
+    private static long daysAfterUsual(LocalDate date, int usualDay) {
+        long nearest = Long.MAX_VALUE;
+        for (int shift = -1; shift <= 1; shift++) {
+            LocalDate month = date.plusMonths(shift);
+            LocalDate usual = month.withDayOfMonth(Math.min(usualDay, month.lengthOfMonth()));
+            long days = ChronoUnit.DAYS.between(usual, date);
+            if (Math.abs(days) < Math.abs(nearest)) {
+                nearest = days;
+            }
+        }
+        return nearest;
+    }
+
+    private static String rupees(double amount) {
+        return String.format("₹%,.0f", amount);
+    }
+}
@@ -0,0 +1,139 @@
+package com.riskmonitor.app.alert;
+
+import com.riskmonitor.app.model.Alert;
+import com.riskmonitor.app.push.PushBroadcaster;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes generated alerts to the alerts table in JDBC batches instead of
+ * one INSERT per alert.
+ *
+ * Alerts queue up in memory and are flushed on a short fixed delay, or
+ * straight away by whichever caller pushes the queue past a full batch.
+ * Alerts for customers not in the customers table are skipped by the
+ * INSERT itself, so one unknown id cannot fail the batch it is in. Alerts
+ * that were stored are then pushed to open dashboards.
+ */
+@Component
+public class AlertWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertWriter.class);
+
+    private static final String INSERT = "INSERT INTO alerts (customer_user_id, type, message, created_at) "
+            + "SELECT ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM customers WHERE user_id = ?)";
+
+    private final DataSource dataSource;
+    private final PushBroadcaster pushBroadcaster;
+    private final int batchSize;
+
+    private final Queue<Alert> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock flushing = new ReentrantLock();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public AlertWriter(DataSource dataSource, PushBroadcaster pushBroadcaster,
+            @Value("${alerts.writer.batch-size:500}") int batchSize) {
+        this.dataSource = dataSource;
+        this.pushBroadcaster = pushBroadcaster;
+        this.batchSize = batchSize;
+    }
+
+    public void enqueue(Collection<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        pending.addAll(alerts);
+        // A full batch is written by the caller that filled it, unless a flush is already running
+        if (queued.addAndGet(alerts.size()) >= batchSize && flushing.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushing.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${alerts.writer.flush-ms:250}")
+    public void flush() {
+        flushing.lock();
+        try {
+            drain();
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    /** Alerts inserted so far. */
+    public long written() {
+        return written.get();
+    }
+
+    /** Alerts dropped because their batch failed to insert. */
+    public long failed() {
+        return failed.get();
+    }
+
+    private void drain() {
+        List<Alert> batch = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        Alert alert;
+        while ((alert = pending.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(alert);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Alert> batch) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (Alert alert : batch) {
+                ps.setString(1, alert.getCustomerUserId());
+                ps.setString(2, alert.getType());
+                ps.setString(3, alert.getMessage());
+                ps.setTimestamp(4, Timestamp.valueOf(alert.getCreatedAt()));
+                ps.setString(5, alert.getCustomerUserId());
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            List<Alert> stored = new ArrayList<>(batch.size());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    stored.add(batch.get(i));
+                }
+            }
+            written.addAndGet(stored.size());
+            pushBroadcaster.publishAlerts(stored);
+        } catch (SQLException e) {
+            // Dropped rather than retried, so a broken database cannot grow the queue without bound
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} alerts", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.riskmonitor.app.alert;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One customer's rolling windows, oldest entries first. Only ever touched
+ * under the customer's stripe lock in {@link AlertEngine}.
+ */
+final class CustomerAlertState {
+
+    record Point(LocalDateTime at, double value) {
+    }
+
+    static final int SALARY_HISTORY = 6;
+
+    final Deque<LocalDate> salaryDates = new ArrayDeque<>();
+    boolean lastSalaryLate;
+
+    final Deque<Point> withdrawals = new ArrayDeque<>();
+    final Deque<LocalDateTime> latePayments = new ArrayDeque<>();
+    final Deque<Point> balances = new ArrayDeque<>();
+
+    final Map<AlertKind, LocalDateTime> lastFired = new EnumMap<>(AlertKind.class);
+
+    LocalDateTime firstSeen;
+    LocalDateTime lastSeen;
+    long touchedMillis; // wall clock, for idle eviction
+
+    void seen(LocalDateTime at) {
+        if (firstSeen == null || at.isBefore(firstSeen)) {
+            firstSeen = at;
+        }
+        if (lastSeen == null || at.isAfter(lastSeen)) {
+            lastSeen = at;
+        }
+    }
+
+    void addSalary(LocalDate date) {
+        salaryDates.addLast(date);
+        while (salaryDates.size() > SALARY_HISTORY) {
+            salaryDates.removeFirst();
+        }
+    }
+
+    static void evictBefore(Deque<Point> window, LocalDateTime cutoff) {
+        while (!window.isEmpty() && window.peekFirst().at().isBefore(cutoff)) {
+            window.removeFirst();
+        }
+    }
+}
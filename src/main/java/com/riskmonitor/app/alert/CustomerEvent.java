@@ -0,0 +1,29 @@
+package com.riskmonitor.app.alert;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Something that happened to a customer's account, fed to the
+ * {@link AlertEngine} as it happens rather than loaded later from CSV.
+ */
+public sealed interface CustomerEvent {
+
+    String customerId();
+
+    LocalDateTime at();
+
+    /** A posted transaction; debits may be negative or typed "debit", as in transactions.csv. */
+    record Transaction(String customerId, LocalDateTime at, String description, BigDecimal amount, String type,
+            String category) implements CustomerEvent {
+    }
+
+    /** A scheduled repayment (EMI, card bill...) and how it went: ON_TIME, LATE or MISSED. */
+    record Payment(String customerId, LocalDateTime at, String kind, String status, BigDecimal amount)
+            implements CustomerEvent {
+    }
+
+    /** Liquid balance observed at a point in time. */
+    record Balance(String customerId, LocalDateTime at, BigDecimal balance) implements CustomerEvent {
+    }
+}
@@ -5,10 +5,13 @@ import com.riskmonitor.app.dto.AuthResponse;
 import com.riskmonitor.app.dto.RegisterRequest;
 import com.riskmonitor.app.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -26,6 +29,8 @@ public class AuthController {
         try {
             String message = authService.register(request);
             return ResponseEntity.ok(Map.of("message", message));
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -38,10 +43,30 @@ public class AuthController {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            if (isPasswordPoolSaturated(e)) {
+                return busy();
+            }
             return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
         }
     }
 
+    // Password hashing pool full: shed load rather than tie up request threads
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Too many sign-in attempts right now, please retry shortly"));
+    }
+
+    // The authentication manager may wrap the rejection
+    private static boolean isPasswordPoolSaturated(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // ── GET /api/auth/test ── (quick health check)
     @GetMapping("/test")
     public ResponseEntity<?> test() {
@@ -0,0 +1,50 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.dto.CustomerFilter;
+import com.riskmonitor.app.service.CustomerListService;
+import com.riskmonitor.app.service.CustomerProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = { "http://localhost:3000", "https://financial-risk-analyzer-barclay.vercel.app" })
+public class CustomerController {
+
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private CustomerListService customerListService;
+
+    // ── GET /api/customers ── (keyset-paged listing, highest risk first)
+    @GetMapping
+    public ResponseEntity<?> listCustomers(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Integer minRisk,
+            @RequestParam(required = false) Integer maxRisk,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CustomerFilter filter = new CustomerFilter(status, minRisk, maxRisk, search);
+            return ResponseEntity.ok(customerListService.listCustomers(filter, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ── GET /api/customers/{id} ── (full profile, same shape as usersData.js)
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getCustomer(@PathVariable String id) {
+        return customerProfileService.getProfile(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Customer not found: " + id)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.alert.AlertEngine;
+import com.riskmonitor.app.alert.CustomerEvent;
+import com.riskmonitor.app.dto.EventBatch;
+import com.riskmonitor.app.service.RiskScoringEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private AlertEngine alertEngine;
+
+    @Autowired
+    private RiskScoringEngine riskScoringEngine;
+
+    // ── POST /api/events ── (transactions, payments and balance readings as they happen)
+    // Restricted to ADMIN and the EVENT_INGEST service role in SecurityConfig
+    @PostMapping
+    public ResponseEntity<?> ingest(@RequestBody EventBatch batch) {
+        List<CustomerEvent> events = new ArrayList<>();
+        if (batch.getTransactions() != null) events.addAll(batch.getTransactions());
+        if (batch.getPayments() != null) events.addAll(batch.getPayments());
+        if (batch.getBalances() != null) events.addAll(batch.getBalances());
+
+        for (CustomerEvent event : events) {
+            if (event == null || event.customerId() == null || event.customerId().isBlank() || event.at() == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Every event needs a customerId and an at timestamp"));
+            }
+        }
+        // Interleave the three lists by time; the windows expect events roughly in order
+        events.sort(Comparator.comparing(CustomerEvent::at));
+
+        int alerts = alertEngine.process(events);
+        int rescored = riskScoringEngine.onEvents(events).size();
+        return ResponseEntity.ok(Map.of("events", events.size(), "alerts", alerts, "riskChanges", rescored));
+    }
+}
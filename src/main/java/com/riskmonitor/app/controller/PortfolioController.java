@@ -0,0 +1,31 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.service.CustomerColumnStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/portfolio")
+@CrossOrigin(origins = { "http://localhost:3000", "https://financial-risk-analyzer-barclay.vercel.app" })
+public class PortfolioController {
+
+    @Autowired
+    private CustomerColumnStore customerColumnStore;
+
+    // ── GET /api/portfolio/summary ── (dashboard tiles over the in-memory column store)
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Integer minRisk,
+            @RequestParam(required = false) Integer maxRisk) {
+        try {
+            return ResponseEntity.ok(customerColumnStore.summarize(status, minRisk, maxRisk));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
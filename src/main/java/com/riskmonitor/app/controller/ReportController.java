@@ -1,44 +1,134 @@
 package com.riskmonitor.app.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.dto.CustomerProfile;
 import com.riskmonitor.app.dto.ReportGenerateRequest;
 import com.riskmonitor.app.dto.BulkReportRequest;
+import com.riskmonitor.app.dto.ReportCacheStats;
+import com.riskmonitor.app.dto.ReportJobResponse;
+import com.riskmonitor.app.service.BulkReportService;
+import com.riskmonitor.app.service.CustomerProfileService;
+import com.riskmonitor.app.service.RenderLimiter;
+import com.riskmonitor.app.service.ReportCacheService;
+import com.riskmonitor.app.service.ReportJob;
+import com.riskmonitor.app.service.ReportJobService;
+import com.riskmonitor.app.service.ReportMetrics;
 import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.ReportStore;
+import com.riskmonitor.app.service.ReportTrace;
+import com.riskmonitor.app.service.ReportTracer;
+import com.riskmonitor.app.service.ReportWriter;
+import com.riskmonitor.app.service.StoredReport;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = { "http://localhost:3000", "https://financial-risk-analyzer-barclay-degiwn5ek.vercel.app" })
 public class ReportController {
 
+    private static final String REPORT_ID_HEADER = "X-Report-Id";
+    private static final String TRACE_HEADER = "X-Report-Trace";
+    private static final String TRACE_ID_HEADER = "X-Report-Trace-Id";
+    private static final String REPORT_CACHE_HEADER = "X-Report-Cache";
+    private static final String CUSTOMER_REPORT_TYPE = "Customer Risk Report";
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private BulkReportService bulkReportService;
+
+    @Autowired
+    private ReportCacheService reportCacheService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportStore reportStore;
+
+    @Autowired
+    private RenderLimiter renderLimiter;
+
+    @Autowired
+    private ReportMetrics reportMetrics;
+
+    @Autowired
+    private ReportTracer reportTracer;
+
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Generate individual customer report with charts
      * Called from customer profile page
+     *
+     * The PDF is written straight to the response stream while it is laid out,
+     * so no full copy of the document is held on the heap. Freshly rendered
+     * reports are also saved to the report store; the id is returned in
+     * X-Report-Id for later download.
+     *
+     * With X-Report-Trace: true (or when sampled) the render is traced and
+     * the trace id returned in X-Report-Trace-Id; see /traces. A report served
+     * from the cache is not rendered, so it carries X-Report-Cache: hit and
+     * no trace id.
      */
     @PostMapping("/generate")
-    public ResponseEntity<byte[]> generateCustomerReport(@RequestBody ReportGenerateRequest request) {
+    public ResponseEntity<StreamingResponseBody> generateCustomerReport(@RequestBody ReportGenerateRequest request,
+            @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace, Principal principal) {
         try {
-            byte[] pdfBytes = reportService.generateCustomerReport(
+            String customerName = request.getCustomerData().get("profile").get("name").asText();
+            ReportWriter render = out -> reportService.writeCustomerReport(
                     request.getCustomerId(),
                     request.getCustomerData(),
-                    request.getCharts());
+                    request.getCharts(),
+                    out);
+            return customerReport(request.getCustomerId(), customerName, request.getCustomerData(),
+                    request.getCharts(), render, trace, principal);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData(
-                    "attachment",
-                    request.getCustomerData().get("profile").get("name").asText()
-                            .replace(" ", "-").toLowerCase() + "-report.pdf");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
+    /**
+     * Generate individual customer report from the database
+     * The customer aggregate is loaded server-side, so the client only sends
+     * the id; charts are always drawn from the stored series.
+     */
+    @PostMapping("/generate/{customerId}")
+    public ResponseEntity<StreamingResponseBody> generateCustomerReportById(@PathVariable String customerId,
+            @RequestHeader(value = TRACE_HEADER, defaultValue = "false") boolean trace, Principal principal) {
+        try {
+            Optional<CustomerProfile> customer = customerProfileService.getProfile(customerId);
+            if (customer.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            CustomerProfile profile = customer.get();
+            ReportWriter render = out -> reportService.writeCustomerReport(customerId, profile, null, out);
+            return customerReport(customerId, profile.getProfile().getName(), profile, null, render, trace,
+                    principal);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -46,58 +136,293 @@ public class ReportController {
         }
     }
 
+    /**
+     * Streams a customer report through the report store and, when enabled,
+     * the report cache. {@code cacheData} is what the cache key is hashed from.
+     */
+    private ResponseEntity<StreamingResponseBody> customerReport(String customerId, String customerName,
+            Object cacheData, Map<String, String> charts, ReportWriter render, boolean trace, Principal principal) {
+        String fileName = customerName.replace(" ", "-").toLowerCase() + "-report.pdf";
+
+        String cacheKey = null;
+        if (reportCacheService.isEnabled()) {
+            // Identical payloads share one render; a hit never touches iText, so there is nothing to trace
+            cacheKey = reportCacheService.keyFor(customerId, cacheData, charts);
+            byte[] cached = reportCacheService.get(cacheKey);
+            if (cached != null) {
+                HttpHeaders headers = pdfHeaders(fileName);
+                headers.setContentLength(cached.length);
+                headers.set(REPORT_CACHE_HEADER, "hit");
+                return ResponseEntity.ok()
+                        .headers(headers)
+                        .body(out -> out.write(cached));
+            }
+        }
+
+        Optional<String> traceId = reportTracer.select(trace);
+        ReportWriter traced = traceId.map(id -> reportTracer.traced(id, customerId, render)).orElse(render);
+
+        String reportId = UUID.randomUUID().toString();
+        ReportWriter renderAndStore = out -> reportStore.writeThrough(reportId, customerId,
+                CUSTOMER_REPORT_TYPE, generatedBy(principal), out, traced);
+
+        ReportWriter writer = renderAndStore;
+        if (cacheKey != null) {
+            String key = cacheKey;
+            writer = out -> reportCacheService.writeThrough(key, out, renderAndStore);
+        }
+
+        HttpHeaders headers = pdfHeaders(fileName);
+        headers.set(REPORT_ID_HEADER, reportId);
+        traceId.ifPresent(id -> headers.set(TRACE_ID_HEADER, id));
+        return rendering(headers, writer);
+    }
+
     /**
      * Generate bulk report for multiple customers
      * Called from reports page "Generate Report" button
      */
     @PostMapping("/bulk-generate")
-    public ResponseEntity<byte[]> generateBulkReport(@RequestBody BulkReportRequest request) {
+    public ResponseEntity<StreamingResponseBody> generateBulkReport(@RequestBody BulkReportRequest request,
+            Principal principal) {
+        String reportId = UUID.randomUUID().toString();
+        String generatedBy = generatedBy(principal);
+        ReportWriter writer = out -> reportStore.writeThrough(reportId, null, request.getReportType(),
+                generatedBy, out, sink -> bulkReportService.writeBulkReport(
+                        request.getCustomerIds(),
+                        request.getReportType(),
+                        generatedBy,
+                        request.getCustomerData(),
+                        sink));
+
+        HttpHeaders headers = pdfHeaders("critical-customers-report-" + System.currentTimeMillis() + ".pdf");
+        headers.set(REPORT_ID_HEADER, reportId);
+        // One turn for the request; sections rendered alongside it borrow more from the same limiter
+        return rendering(headers, writer);
+    }
+
+    /**
+     * Queue a bulk report for background rendering
+     * Returns immediately with a job id; poll /jobs/{reportId} and fetch the
+     * result from /download/{reportId} once it is COMPLETED
+     */
+    @PostMapping("/bulk-generate/jobs")
+    public ResponseEntity<?> submitBulkReport(@RequestBody BulkReportRequest request, Principal principal) {
         try {
-            byte[] pdfBytes = reportService.generateBulkReport(
+            ReportJob job = reportJobService.submitBulkReport(
                     request.getCustomerIds(),
                     request.getReportType(),
-                    request.getGeneratedBy());
+                    generatedBy(principal),
+                    request.getCustomerData());
+            return ResponseEntity.accepted().body(ReportJobResponse.from(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Report queue is full, please retry shortly"));
+        }
+    }
+
+    /**
+     * Poll status of a queued bulk report
+     */
+    @GetMapping("/jobs/{reportId}")
+    public ResponseEntity<ReportJobResponse> getJobStatus(@PathVariable String reportId) {
+        return reportJobService.getJob(reportId)
+                .map(job -> ResponseEntity.ok(ReportJobResponse.from(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData(
-                    "attachment",
-                    "critical-customers-report-" + System.currentTimeMillis() + ".pdf");
+    /**
+     * Customer report cache counters, for sizing report.cache.*
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ReportCacheStats> getCacheStats() {
+        return ResponseEntity.ok(reportCacheService.stats());
+    }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
+    /**
+     * Recent customer report traces, newest first (or slowest first with
+     * sort=slowest), optionally for one customer
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<ReportTrace>> getTraces(@RequestParam(required = false) String customerId,
+            @RequestParam(defaultValue = "recent") String sort,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(reportTracer.recent(customerId, "slowest".equals(sort), Math.max(limit, 0)));
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
-        }
+    /**
+     * One trace, by the id returned in X-Report-Trace-Id
+     */
+    @GetMapping("/traces/{traceId}")
+    public ResponseEntity<ReportTrace> getTrace(@PathVariable String traceId) {
+        return reportTracer.find(traceId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Download pre-generated report
      * Called from reports page table rows
+     *
+     * Stored reports support single byte ranges and If-None-Match, and are sent
+     * with Tomcat sendfile when available (FileChannel.transferTo otherwise).
      */
     @GetMapping("/download/{reportId}")
-    public ResponseEntity<byte[]> downloadReport(@PathVariable String reportId) {
+    public ResponseEntity<StreamingResponseBody> downloadReport(@PathVariable String reportId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest servletRequest) throws JsonProcessingException {
+        Optional<StoredReport> stored = reportStore.find(reportId);
+        if (stored.isPresent()) {
+            return serveStoredReport(stored.get(), range, ifNoneMatch, servletRequest);
+        }
+
+        Optional<ReportJob> job = reportJobService.getJob(reportId);
+        if (job.isPresent()) {
+            // Not ready (or failed) — hand back the status so the client can keep polling.
+            // Written by hand: the declared body type must stay StreamingResponseBody for the PDF paths
+            byte[] status = objectMapper.writeValueAsBytes(ReportJobResponse.from(job.get()));
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(status));
+        }
+
+        // Unknown id (e.g. the demo rows on the reports page) — return a placeholder
+        return rendering(pdfHeaders("report-" + reportId + ".pdf"),
+                out -> reportService.writeStoredReport(reportId, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> serveStoredReport(StoredReport report, String range, String ifNoneMatch,
+            HttpServletRequest servletRequest) {
+        HttpHeaders headers = pdfHeaders("report-" + report.getReportId() + ".pdf");
+        headers.setETag(report.getETag());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesETag(ifNoneMatch, report.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(report.getETag()).build();
+        }
+
+        long size = report.getSize();
+        long start = 0;
+        long length = size;
+        HttpStatus status = HttpStatus.OK;
+
+        List<HttpRange> ranges = parseRanges(range);
+        if (ranges.size() == 1) {
+            // Multi-range requests are answered with the whole report, which RFC 9110 allows
+            long end;
+            try {
+                start = ranges.get(0).getRangeStart(size);
+                end = Math.min(ranges.get(0).getRangeEnd(size), size - 1);
+            } catch (IllegalArgumentException e) {
+                start = size;
+                end = -1;
+            }
+            if (start >= size || start > end) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+            length = end - start + 1;
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        headers.setContentLength(length);
+
+        if (Boolean.TRUE.equals(servletRequest.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat streams the file region itself once the handler returns
+            long blobStart = report.getOffset() + start;
+            servletRequest.setAttribute("org.apache.tomcat.sendfile.filename", reportStore.getBlobPath(report).toString());
+            servletRequest.setAttribute("org.apache.tomcat.sendfile.start", blobStart);
+            servletRequest.setAttribute("org.apache.tomcat.sendfile.end", blobStart + length);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        long from = start;
+        long count = length;
+        StreamingResponseBody body = out -> reportStore.transferTo(report, from, count, Channels.newChannel(out));
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    private List<HttpRange> parseRanges(String range) {
+        if (range == null) {
+            return List.of();
+        }
         try {
-            // For now, return a placeholder
-            // In production, fetch from database or file storage
-            byte[] pdfBytes = reportService.getStoredReport(reportId);
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // Malformed Range headers are ignored and the full report is sent
+            return List.of();
+        }
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Streams a freshly rendered PDF once a render turn is free, or answers
+     * 503 if none frees up in time. The turn is returned when the body ends.
+     */
+    private ResponseEntity<StreamingResponseBody> rendering(HttpHeaders headers, ReportWriter writer) {
+        if (!renderLimiter.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        StreamingResponseBody body = streaming(writer);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> {
+                    try {
+                        body.writeTo(out);
+                    } finally {
+                        renderLimiter.release();
+                    }
+                });
+    }
+
+    private StreamingResponseBody streaming(ReportWriter writer) {
+        return out -> {
+            try {
+                writer.write(out);
+            } catch (Exception e) {
+                reportMetrics.failed();
+                throw new ReportStreamException(e);
+            }
+        };
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData(
-                    "attachment",
-                    "report-" + reportId + ".pdf");
+    // Reports are recorded as generated by the signed-in user, never by whatever name the client sends
+    private static String generatedBy(Principal principal) {
+        return principal != null ? principal.getName() : null;
+    }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
+    private HttpHeaders pdfHeaders(String fileName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", fileName);
+        return headers;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.notFound().build();
+    /**
+     * Raised from inside a streaming body once the response has been committed;
+     * the container aborts the connection so the client sees a truncated download
+     * instead of a corrupt but "successful" PDF.
+     */
+    private static class ReportStreamException extends RuntimeException {
+        ReportStreamException(Throwable cause) {
+            super("Report rendering failed while streaming", cause);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.service.RiskScoringEngine;
+import com.riskmonitor.app.service.TransactionFlagService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/risk")
+public class RiskAdminController {
+
+    @Autowired
+    private RiskScoringEngine riskScoringEngine;
+
+    @Autowired
+    private TransactionFlagService transactionFlagService;
+
+    // ── POST /api/admin/risk/rescore ── (recompute every customer's score)
+    @PostMapping("/rescore")
+    public ResponseEntity<?> rescoreAll() {
+        return ResponseEntity.ok(riskScoringEngine.rescoreAll());
+    }
+
+    // ── POST /api/admin/risk/rescore/{customerId} ──
+    @PostMapping("/rescore/{customerId}")
+    public ResponseEntity<?> rescore(@PathVariable String customerId) {
+        return riskScoringEngine.rescore(customerId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Customer not found: " + customerId)));
+    }
+
+    // ── POST /api/admin/risk/flags/reclassify ── (re-flag stored transactions after a keyword change)
+    @PostMapping("/flags/reclassify")
+    public ResponseEntity<?> reclassifyTransactions() throws SQLException {
+        return ResponseEntity.ok(transactionFlagService.reclassifyAll());
+    }
+}
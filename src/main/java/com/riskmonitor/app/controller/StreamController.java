@@ -0,0 +1,29 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.push.PushBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    @Autowired
+    private PushBroadcaster pushBroadcaster;
+
+    // ── GET /api/stream?customers=USR-001,USR-002 ── (server-sent alert / risk / refresh events)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribe(@RequestParam(required = false) Set<String> customers) {
+        return pushBroadcaster.subscribe(customers)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("error", "Too many open streams, retry later")));
+    }
+}
@@ -0,0 +1,46 @@
+package com.riskmonitor.app.controller;
+
+import com.riskmonitor.app.dto.RoleChangeRequest;
+import com.riskmonitor.app.dto.UserCacheStats;
+import com.riskmonitor.app.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserAdminController {
+
+    @Autowired
+    private AuthService authService;
+
+    // ── POST /api/admin/users/{username}/deactivate ──
+    @PostMapping("/{username}/deactivate")
+    public ResponseEntity<?> deactivate(@PathVariable String username) {
+        try {
+            authService.deactivateUser(username);
+            return ResponseEntity.ok(Map.of("message", "User deactivated"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ── PUT /api/admin/users/{username}/role ──
+    @PutMapping("/{username}/role")
+    public ResponseEntity<?> changeRole(@PathVariable String username, @RequestBody RoleChangeRequest request) {
+        try {
+            authService.changeRole(username, request.getRole());
+            return ResponseEntity.ok(Map.of("message", "Role updated"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ── GET /api/admin/users/cache/stats ──
+    @GetMapping("/cache/stats")
+    public ResponseEntity<UserCacheStats> getCacheStats() {
+        return ResponseEntity.ok(authService.userCacheStats());
+    }
+}
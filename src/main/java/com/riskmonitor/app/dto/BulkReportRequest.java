@@ -1,10 +1,12 @@
 package com.riskmonitor.app.dto;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -12,5 +14,6 @@ import java.util.List;
 public class BulkReportRequest {
     private List<String> customerIds;
     private String reportType;
-    private String generatedBy;
+    private String generatedBy; // Ignored: reports record the signed-in user
+    private Map<String, JsonNode> customerData; // Optional: customerId -> full customer data object for detailed sections
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Server-side filters for the customer listing; null or empty means "any".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerFilter {
+    private List<String> statuses;
+    private Integer minRisk;
+    private Integer maxRisk;
+    private String search;
+}
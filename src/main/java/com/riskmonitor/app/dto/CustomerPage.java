@@ -0,0 +1,17 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of the customer listing. {@code nextCursor} is passed back as
+ * {@code cursor} to fetch the following page, and is null on the last one.
+ */
+@Data
+@AllArgsConstructor
+public class CustomerPage {
+    private List<CustomerSummary> customers;
+    private String nextCursor;
+}
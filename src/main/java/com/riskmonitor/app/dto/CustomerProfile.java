@@ -0,0 +1,133 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Full customer profile in the shape of the frontend's usersData.js entries,
+ * which is also what ReportService reads from customerData.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerProfile {
+    private Profile profile;
+    private FinancialSummary financialSummary;
+    private RiskAssessment riskAssessment;
+    private List<CashFlowPoint> cashFlowData;
+    private List<LiquidityPoint> liquidityData;
+    private List<SpendingShare> spendingCategories;
+    private List<CreditScorePoint> creditScoreHistory;
+    private List<PaymentPoint> paymentHistory;
+    private List<TransactionItem> recentTransactions;
+    private List<AlertItem> alerts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Profile {
+        private String id;
+        private String name;
+        private Integer creditScore;
+        private String creditScoreStatus;
+        private String status;
+        private String accountNumber;
+        private String email;
+        private String phone;
+        private String dateJoined;
+        private String lastUpdated;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FinancialSummary {
+        private BigDecimal totalAssets;
+        private BigDecimal totalLiabilities;
+        private BigDecimal totalDebt;
+        private BigDecimal netWorth;
+        private BigDecimal monthlyIncome;
+        private BigDecimal monthlyExpenses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RiskAssessment {
+        private String riskScore;
+        private Integer riskPercentage;
+        private String stressLevel;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CashFlowPoint {
+        private String month;
+        private Integer year;
+        private BigDecimal income;
+        private BigDecimal expenses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LiquidityPoint {
+        private String month;
+        private Integer year;
+        private BigDecimal amount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpendingShare {
+        private String category;
+        private Integer value;
+        private BigDecimal amount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreditScorePoint {
+        private String month;
+        private Integer year;
+        private Integer score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PaymentPoint {
+        private String month;
+        private Integer year;
+        private Integer onTime;
+        private Integer late;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransactionItem {
+        private String date;
+        private String description;
+        private BigDecimal amount;
+        private String type;
+        private String category;
+        private String riskFlag;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AlertItem {
+        private String type;
+        private String message;
+        private String date;
+    }
+}
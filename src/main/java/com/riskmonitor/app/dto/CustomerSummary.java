@@ -0,0 +1,21 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the customer listing; only the columns the tables show.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummary {
+    private String id;
+    private String name;
+    private String status;
+    private String riskScore;
+    private Integer riskPercentage;
+    private Integer creditScore;
+    private String creditScoreStatus;
+}
@@ -0,0 +1,16 @@
+package com.riskmonitor.app.dto;
+
+import com.riskmonitor.app.alert.CustomerEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class EventBatch {
+    private List<CustomerEvent.Transaction> transactions = new ArrayList<>();
+    private List<CustomerEvent.Payment> payments = new ArrayList<>();
+    private List<CustomerEvent.Balance> balances = new ArrayList<>();
+}
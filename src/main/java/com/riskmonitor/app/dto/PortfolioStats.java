@@ -0,0 +1,27 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Book-wide figures for the dashboard tiles, over the customers matching a
+ * filter. Averages are rounded to one decimal; the credit score average
+ * skips customers without a score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioStats {
+    private long customers;
+    private double averageRiskPercentage;
+    private double averageCreditScore;
+    private BigDecimal totalMonthlyIncome;
+    private BigDecimal totalMonthlyExpenses;
+    private BigDecimal totalNetWorth;
+    private Map<String, Long> statusCounts;
+    private Map<String, Long> riskBandCounts;
+}
@@ -0,0 +1,12 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReclassifySummary {
+    private long transactions;
+    private long changed;
+    private long millis;
+}
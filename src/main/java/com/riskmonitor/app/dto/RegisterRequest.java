@@ -9,5 +9,4 @@ public class RegisterRequest {
     private String email;
     private String username;
     private String password;
-    private String role;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReportCacheStats {
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private int entries;
+    private long memoryBytes;
+    private long memoryMaxBytes;
+    private boolean diskTierEnabled;
+}
@@ -0,0 +1,32 @@
+package com.riskmonitor.app.dto;
+
+import com.riskmonitor.app.service.ReportJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class ReportJobResponse {
+    private String reportId;
+    private String status;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private long sizeBytes;
+    private String error;
+    private String downloadUrl;
+
+    public static ReportJobResponse from(ReportJob job) {
+        return new ReportJobResponse(
+                job.getReportId(),
+                job.getStatus().name(),
+                job.getSubmittedAt(),
+                job.getCompletedAt(),
+                job.getSizeBytes(),
+                job.getError(),
+                job.getStatus() == ReportJob.Status.COMPLETED
+                        ? "/api/reports/download/" + job.getReportId()
+                        : null);
+    }
+}
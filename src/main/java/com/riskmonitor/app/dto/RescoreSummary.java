@@ -0,0 +1,12 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RescoreSummary {
+    private long customers;
+    private long changed;
+    private long millis;
+}
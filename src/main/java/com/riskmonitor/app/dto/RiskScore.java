@@ -0,0 +1,18 @@
+package com.riskmonitor.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Computed values for customers.risk_percentage, risk_score and stress_level.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskScore {
+    private String customerId;
+    private int riskPercentage;
+    private String riskScore;
+    private String stressLevel;
+}
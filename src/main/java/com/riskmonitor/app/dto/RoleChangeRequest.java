@@ -0,0 +1,8 @@
+package com.riskmonitor.app.dto;
+
+import lombok.Data;
+
+@Data
+public class RoleChangeRequest {
+    private String role;
+}
@@ -0,0 +1,310 @@
+package com.riskmonitor.app.ingest;
+
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-loads the backend-ml/data CSVs with PostgreSQL COPY, streaming each
+ * file straight from disk into the server's CSV parser instead of issuing
+ * one INSERT per row.
+ *
+ * REPLACE runs as a single transaction on one connection: only the tables
+ * that have a file are truncated and reloaded, with COPY FREEZE so rows are
+ * written pre-frozen and need no later vacuum pass. Replacing customers
+ * would empty every table that references it, so the rows of child tables
+ * without a file (alerts, liquidity_data) are set aside first and put back
+ * for the customers that are still in the book; rows of customers that are
+ * gone have to be dropped. If any file fails to load the whole REPLACE rolls
+ * back and the previous data stays as it was.
+ *
+ * MERGE loads tables level by level (customers first, then every child table
+ * in parallel), each on its own connection and in its own transaction. Each
+ * file is copied into a temporary staging table, then customers are upserted
+ * on user_id and child rows replaced per customer, so a file with a subset
+ * of customers refreshes just those. A failure rolls back only that table;
+ * tables that already committed keep the merged rows.
+ *
+ * Transactions are classified on the way in: the CSV is streamed through a
+ * {@link RiskFlagReader}, which appends each row's risk_flag as COPY reads it.
+ *
+ * Once every table has committed, a {@link CustomerDataIngestedEvent} names
+ * the customers a MERGE touched (or the whole book after a REPLACE) so risk
+ * scores can be recomputed from the new rows.
+ */
+@Service
+public class CsvIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvIngestService.class);
+
+    private static final String STAGE = "ingest_stage";
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher events;
+    private final TransactionFlagger transactionFlagger;
+    private final int parallelism;
+
+    public CsvIngestService(DataSource dataSource, ApplicationEventPublisher events,
+            TransactionFlagger transactionFlagger, @Value("${ingest.parallelism:0}") int parallelism) {
+        this.dataSource = dataSource;
+        this.events = events;
+        this.transactionFlagger = transactionFlagger;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Loads every {@code <table>.csv} found in {@code dir}; missing files are
+     * skipped, and under REPLACE their tables keep their rows.
+     */
+    public List<TableLoad> ingest(Path dir, IngestMode mode) throws IOException, SQLException, InterruptedException {
+        List<IngestTable> present = Arrays.stream(IngestTable.values())
+                .filter(table -> {
+                    boolean found = Files.isRegularFile(dir.resolve(table.fileName()));
+                    if (!found) {
+                        log.info("Skipping {}: {} not found", table.tableName(), table.fileName());
+                    }
+                    return found;
+                })
+                .sorted(Comparator.comparingInt(IngestTable::level))
+                .toList();
+
+        Set<String> touched = ConcurrentHashMap.newKeySet();
+        List<TableLoad> loads = mode == IngestMode.REPLACE
+                ? replace(dir, present)
+                : merge(dir, present, touched);
+        if (!loads.isEmpty()) {
+            events.publishEvent(new CustomerDataIngestedEvent(mode == IngestMode.REPLACE, Set.copyOf(touched)));
+        }
+        return loads;
+    }
+
+    private List<TableLoad> replace(Path dir, List<IngestTable> present) throws IOException, SQLException {
+        if (present.isEmpty()) {
+            return List.of();
+        }
+        // Truncating customers must take every referencing table with it; keep the ones with no file
+        List<IngestTable> kept = present.contains(IngestTable.CUSTOMERS)
+                ? Arrays.stream(IngestTable.values())
+                        .filter(table -> table.level() > 0 && !present.contains(table))
+                        .toList()
+                : List.of();
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+                for (IngestTable table : kept) {
+                    stmt.execute("CREATE TEMP TABLE " + keepTable(table) + " ON COMMIT DROP AS SELECT * FROM "
+                            + table.tableName());
+                }
+                List<String> truncated = new ArrayList<>();
+                present.forEach(table -> truncated.add(table.tableName()));
+                kept.forEach(table -> truncated.add(table.tableName()));
+                stmt.execute("TRUNCATE " + String.join(", ", truncated));
+
+                List<TableLoad> loads = new ArrayList<>();
+                for (IngestTable table : present) {
+                    loads.add(load(stmt, copy, table, dir.resolve(table.fileName()), IngestMode.REPLACE, null));
+                }
+                for (IngestTable table : kept) {
+                    int restored = stmt.executeUpdate("INSERT INTO " + table.tableName() + " SELECT * FROM "
+                            + keepTable(table) + " WHERE " + table.keyColumn()
+                            + " IN (SELECT user_id FROM " + IngestTable.CUSTOMERS.tableName() + ")");
+                    try (ResultSet dropped = stmt.executeQuery("SELECT count(*) FROM " + keepTable(table))) {
+                        dropped.next();
+                        log.info("Kept {} rows of {} (no file); dropped {} for customers no longer present",
+                                restored, table.tableName(), dropped.getLong(1) - restored);
+                    }
+                    stmt.execute("ANALYZE " + table.tableName());
+                }
+                conn.commit();
+                return loads;
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private List<TableLoad> merge(Path dir, List<IngestTable> present, Set<String> touched)
+            throws IOException, SQLException, InterruptedException {
+        Map<Integer, List<IngestTable>> levels = present.stream()
+                .collect(Collectors.groupingBy(IngestTable::level, TreeMap::new, Collectors.toList()));
+
+        List<TableLoad> loads = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (List<IngestTable> level : levels.values()) {
+                List<Future<TableLoad>> running = new ArrayList<>();
+                for (IngestTable table : level) {
+                    running.add(pool.submit(() -> merge(table, dir.resolve(table.fileName()), touched)));
+                }
+                for (Future<TableLoad> load : running) {
+                    loads.add(await(load));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return loads;
+    }
+
+    TableLoad merge(IngestTable table, Path csv, Set<String> touched) throws IOException, SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                TableLoad load = load(stmt, conn.unwrap(PGConnection.class).getCopyAPI(), table, csv,
+                        IngestMode.MERGE, touched);
+                conn.commit();
+                return load;
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copies one file into its table within the caller's transaction. Under
+     * REPLACE the table must already have been truncated in that transaction.
+     */
+    private TableLoad load(Statement stmt, CopyManager copy, IngestTable table, Path csv, IngestMode mode,
+            Set<String> touched) throws IOException, SQLException {
+        List<String> columns = table.validate(readHeader(csv));
+        int descriptionField = -1;
+        if (table == IngestTable.TRANSACTIONS && !columns.contains("risk_flag") && columns.contains("description")) {
+            descriptionField = columns.indexOf("description");
+            columns = new ArrayList<>(columns);
+            columns.add("risk_flag");
+        }
+        String columnList = String.join(", ", columns);
+        long started = System.nanoTime();
+
+        long rows;
+        if (mode == IngestMode.REPLACE) {
+            rows = copyIn(copy, "COPY " + table.tableName() + " (" + columnList + ") FROM STDIN "
+                    + "WITH (FORMAT csv, HEADER true, ENCODING 'UTF8', FREEZE true)", csv, descriptionField);
+        } else {
+            stmt.execute("CREATE TEMP TABLE " + STAGE + " ON COMMIT DROP AS SELECT " + columnList
+                    + " FROM " + table.tableName() + " WITH NO DATA");
+            rows = copyIn(copy, "COPY " + STAGE + " (" + columnList + ") FROM STDIN "
+                    + "WITH (FORMAT csv, HEADER true, ENCODING 'UTF8')", csv, descriptionField);
+            merge(stmt, table, columns, columnList);
+            try (ResultSet keys = stmt.executeQuery("SELECT DISTINCT " + table.keyColumn() + " FROM " + STAGE)) {
+                while (keys.next()) {
+                    touched.add(keys.getString(1));
+                }
+            }
+        }
+        // Fresh statistics so the first queries after a load get sane plans
+        stmt.execute("ANALYZE " + table.tableName());
+
+        TableLoad load = new TableLoad(table.tableName(), rows, (System.nanoTime() - started) / 1_000_000);
+        log.info("Loaded {} rows into {} in {} ms ({} rows/s)",
+                load.rows(), load.table(), load.millis(), load.rowsPerSecond());
+        return load;
+    }
+
+    /**
+     * Streams the file into COPY: raw bytes, or decoded and passed through a
+     * {@link RiskFlagReader} when a flag column is being added.
+     */
+    private long copyIn(CopyManager copy, String sql, Path csv, int descriptionField) throws IOException, SQLException {
+        if (descriptionField < 0) {
+            try (InputStream in = Files.newInputStream(csv)) {
+                return copy.copyIn(sql, in, COPY_BUFFER_BYTES);
+            }
+        }
+        try (Reader in = new RiskFlagReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8), transactionFlagger,
+                descriptionField)) {
+            return copy.copyIn(sql, in, COPY_BUFFER_BYTES);
+        }
+    }
+
+    private void merge(Statement stmt, IngestTable table, List<String> columns, String columnList)
+            throws SQLException {
+        String key = table.keyColumn();
+        if (table.level() == 0) {
+            String updates = columns.stream()
+                    .filter(column -> !column.equals(key))
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+            stmt.execute("INSERT INTO " + table.tableName() + " (" + columnList + ") SELECT " + columnList
+                    + " FROM " + STAGE + " ON CONFLICT (" + key + ") DO "
+                    + (updates.isEmpty() ? "NOTHING" : "UPDATE SET " + updates));
+        } else {
+            stmt.execute("DELETE FROM " + table.tableName() + " WHERE " + key
+                    + " IN (SELECT DISTINCT " + key + " FROM " + STAGE + ")");
+            stmt.execute("INSERT INTO " + table.tableName() + " (" + columnList + ") SELECT " + columnList
+                    + " FROM " + STAGE);
+        }
+    }
+
+    private static String keepTable(IngestTable table) {
+        return "ingest_keep_" + table.tableName();
+    }
+
+    static List<String> readHeader(Path csv) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException(csv.getFileName() + " is empty");
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : header.replace("\uFEFF", "").split(",")) {
+                columns.add(column.trim().replace("\"", "").toLowerCase());
+            }
+            return columns;
+        }
+    }
+
+    private static TableLoad await(Future<TableLoad> load) throws IOException, SQLException, InterruptedException {
+        try {
+            return load.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
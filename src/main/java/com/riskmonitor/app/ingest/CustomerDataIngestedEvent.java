@@ -0,0 +1,11 @@
+package com.riskmonitor.app.ingest;
+
+import java.util.Set;
+
+/**
+ * Published once an ingestion run has committed. {@code fullBook} is set for
+ * REPLACE runs, where every customer's data was reloaded; otherwise
+ * {@code customerIds} names the customers whose rows were merged.
+ */
+public record CustomerDataIngestedEvent(boolean fullBook, Set<String> customerIds) {
+}
@@ -0,0 +1,69 @@
+package com.riskmonitor.app.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command-line entry point for {@link CsvIngestService}. Runs only when
+ * {@code ingest.dir} is set, loads the directory and exits:
+ *
+ * <pre>
+ * java -jar risk-monitor.jar --spring.main.web-application-type=none \
+ *      --ingest.dir=backend-ml/data [--ingest.mode=merge] [--ingest.parallelism=4]
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty("ingest.dir")
+public class IngestCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestCommand.class);
+
+    private final CsvIngestService ingestService;
+    private final ConfigurableApplicationContext context;
+    private final String dir;
+    private final String mode;
+
+    public IngestCommand(CsvIngestService ingestService, ConfigurableApplicationContext context,
+            @Value("${ingest.dir}") String dir, @Value("${ingest.mode:replace}") String mode) {
+        this.ingestService = ingestService;
+        this.context = context;
+        this.dir = dir;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            Path path = Paths.get(dir);
+            IngestMode ingestMode = IngestMode.valueOf(mode.toUpperCase(Locale.ROOT));
+            log.info("Ingesting {} ({})", path.toAbsolutePath(), ingestMode);
+
+            long started = System.nanoTime();
+            List<TableLoad> loads = ingestService.ingest(path, ingestMode);
+            long millis = (System.nanoTime() - started) / 1_000_000;
+            long rows = loads.stream().mapToLong(TableLoad::rows).sum();
+
+            log.info("Ingested {} rows from {} files in {} ms ({} rows/s)",
+                    rows, loads.size(), millis, new TableLoad("all", rows, millis).rowsPerSecond());
+        } catch (Exception e) {
+            log.error("Ingestion failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, (ExitCodeGenerator) () -> code));
+    }
+}
@@ -0,0 +1,8 @@
+package com.riskmonitor.app.ingest;
+
+public enum IngestMode {
+    /** Truncate the tables that have a file and load them as the complete data set, in one transaction. */
+    REPLACE,
+    /** Upsert customers and replace child rows only for the customers in the files. */
+    MERGE
+}
@@ -0,0 +1,81 @@
+package com.riskmonitor.app.ingest;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The tables loaded from backend-ml/data, with the columns a CSV header may
+ * name. Header columns are checked against these before they are spliced
+ * into COPY and merge statements.
+ *
+ * Tables in a lower {@link #level} are loaded first; everything else
+ * references customers(user_id), so customers is the only level-0 table.
+ */
+public enum IngestTable {
+
+    CUSTOMERS("customers", 0, "user_id", List.of(
+            "user_id", "name", "email", "phone", "account_number", "credit_score", "credit_score_status",
+            "status", "total_assets", "total_liabilities", "total_debt", "net_worth", "monthly_income",
+            "monthly_expenses", "risk_score", "risk_percentage", "stress_level", "date_joined", "last_updated")),
+    TRANSACTIONS("transactions", 1, "customer_user_id", List.of(
+            "customer_user_id", "transaction_date", "description", "amount", "type", "category", "risk_flag")),
+    CASH_FLOW_RECORDS("cash_flow_records", 1, "customer_user_id", List.of(
+            "customer_user_id", "month", "year", "total_income", "total_expenses")),
+    CREDIT_SCORE_HISTORY("credit_score_history", 1, "customer_user_id", List.of(
+            "customer_user_id", "month", "year", "score")),
+    PAYMENT_HISTORY("payment_history", 1, "customer_user_id", List.of(
+            "customer_user_id", "month", "year", "on_time_percentage", "late_percentage")),
+    SPENDING_CATEGORIES("spending_categories", 1, "customer_user_id", List.of(
+            "customer_user_id", "category", "percentage", "amount", "month")),
+    ALERTS("alerts", 1, "customer_user_id", List.of(
+            "customer_user_id", "type", "message", "created_at")),
+    LIQUIDITY_DATA("liquidity_data", 1, "customer_user_id", List.of(
+            "customer_user_id", "month", "year", "amount"));
+
+    private final String tableName;
+    private final int level;
+    private final String keyColumn;
+    private final Set<String> columns;
+
+    IngestTable(String tableName, int level, String keyColumn, List<String> columns) {
+        this.tableName = tableName;
+        this.level = level;
+        this.keyColumn = keyColumn;
+        this.columns = Set.copyOf(columns);
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String fileName() {
+        return tableName + ".csv";
+    }
+
+    public int level() {
+        return level;
+    }
+
+    /**
+     * customers: the unique user_id. Child tables: the owning customer, whose
+     * rows are replaced as a whole on merge (they have no natural key).
+     */
+    public String keyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the header names a column this table does not have
+     */
+    public List<String> validate(List<String> header) {
+        for (String column : header) {
+            if (!columns.contains(column)) {
+                throw new IllegalArgumentException(fileName() + ": unknown column '" + column + "'");
+            }
+        }
+        if (!header.contains(keyColumn)) {
+            throw new IllegalArgumentException(fileName() + ": missing key column '" + keyColumn + "'");
+        }
+        return header;
+    }
+}
@@ -0,0 +1,124 @@
+package com.riskmonitor.app.ingest;
+
+import com.riskmonitor.app.service.TransactionFlagger;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Passes a transactions CSV through unchanged except for one extra trailing
+ * column: {@code risk_flag} on the header line, and on every record the flag
+ * its description field classifies to.
+ *
+ * The description is fed to the flagger's automaton character by character
+ * as it streams past, so classifying adds no buffering, parsing or per-row
+ * allocation on top of the COPY. Quoting follows RFC 4180: commas and line
+ * breaks inside double quotes are data.
+ */
+class RiskFlagReader extends Reader {
+
+    private static final int BUFFER_CHARS = 1 << 14;
+
+    private final Reader in;
+    private final TransactionFlagger flagger;
+    private final int descriptionField;
+    private final String[] suffixes;   // ",<flag>" by level; the last one is Normal
+
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    // Text to emit before the next input character (the ",flag" suffix)
+    private String pending = "";
+    private int pendingPosition;
+
+    private boolean header = true;
+    private boolean recordOpen;
+    private boolean quoted;
+    private int field;
+    private int state = TransactionFlagger.START;
+    private int level = Integer.MAX_VALUE;
+
+    RiskFlagReader(Reader in, TransactionFlagger flagger, int descriptionField) {
+        this.in = in;
+        this.flagger = flagger;
+        this.descriptionField = descriptionField;
+        this.suffixes = new String[TransactionFlagger.LEVELS.size() + 1];
+        for (int level = 0; level < suffixes.length; level++) {
+            suffixes[level] = "," + flagger.flagOf(level);
+        }
+    }
+
+    @Override
+    public int read(char[] out, int offset, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            if (pendingPosition < pending.length()) {
+                out[offset + written++] = pending.charAt(pendingPosition++);
+                continue;
+            }
+            if (position == limit) {
+                if (eof || !fill()) {
+                    if (recordOpen) {
+                        endRecord();
+                        continue;
+                    }
+                    break;
+                }
+            }
+
+            char c = buffer[position];
+            if (!quoted && (c == '\n' || c == '\r') && recordOpen) {
+                endRecord(); // the line break itself is emitted after the suffix
+                continue;
+            }
+            position++;
+            out[offset + written++] = c;
+            accept(c);
+        }
+        return written == 0 && length > 0 ? -1 : written;
+    }
+
+    private void accept(char c) {
+        if ((c == '\n' || c == '\r') && !recordOpen) {
+            return; // between records
+        }
+        recordOpen = true;
+        if (c == '"') {
+            quoted = !quoted;
+        } else if (c == ',' && !quoted) {
+            field++;
+        } else if (field == descriptionField && !header) {
+            state = flagger.step(state, c);
+            level = Math.min(level, flagger.level(state));
+        }
+    }
+
+    private void endRecord() {
+        pending = header ? ",risk_flag" : suffixes[Math.min(level, suffixes.length - 1)];
+        pendingPosition = 0;
+        header = false;
+        recordOpen = false;
+        quoted = false;
+        field = 0;
+        state = TransactionFlagger.START;
+        level = Integer.MAX_VALUE;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
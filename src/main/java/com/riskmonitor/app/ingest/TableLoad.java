@@ -0,0 +1,11 @@
+package com.riskmonitor.app.ingest;
+
+/**
+ * Outcome of loading one CSV file.
+ */
+public record TableLoad(String table, long rows, long millis) {
+
+    public long rowsPerSecond() {
+        return millis > 0 ? rows * 1000 / millis : rows * 1000;
+    }
+}
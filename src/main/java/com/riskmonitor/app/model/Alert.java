@@ -0,0 +1,32 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Alert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 20)
+    private String type;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
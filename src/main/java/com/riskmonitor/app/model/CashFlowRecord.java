@@ -0,0 +1,38 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cash_flow_records")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 20)
+    private String month;
+
+    private Integer year;
+
+    @Column(name = "total_income", precision = 15, scale = 2)
+    private BigDecimal totalIncome;
+
+    @Column(name = "total_expenses", precision = 15, scale = 2)
+    private BigDecimal totalExpenses;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
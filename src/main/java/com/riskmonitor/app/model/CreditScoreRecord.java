@@ -0,0 +1,33 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "credit_score_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditScoreRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 20)
+    private String month;
+
+    private Integer year;
+
+    private Integer score;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
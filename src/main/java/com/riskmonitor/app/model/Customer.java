@@ -0,0 +1,81 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Customer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, unique = true, length = 50)
+    private String userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String email;
+
+    @Column(length = 20)
+    private String phone;
+
+    @Column(name = "account_number", length = 100)
+    private String accountNumber;
+
+    @Column(name = "credit_score")
+    private Integer creditScore;
+
+    @Column(name = "credit_score_status", length = 50)
+    private String creditScoreStatus;
+
+    @Column(length = 50)
+    private String status;
+
+    @Column(name = "total_assets", precision = 15, scale = 2)
+    private BigDecimal totalAssets;
+
+    @Column(name = "total_liabilities", precision = 15, scale = 2)
+    private BigDecimal totalLiabilities;
+
+    @Column(name = "total_debt", precision = 15, scale = 2)
+    private BigDecimal totalDebt;
+
+    @Column(name = "net_worth", precision = 15, scale = 2)
+    private BigDecimal netWorth;
+
+    @Column(name = "monthly_income", precision = 15, scale = 2)
+    private BigDecimal monthlyIncome;
+
+    @Column(name = "monthly_expenses", precision = 15, scale = 2)
+    private BigDecimal monthlyExpenses;
+
+    @Column(name = "risk_score", length = 20)
+    private String riskScore;
+
+    @Column(name = "risk_percentage", nullable = false)
+    private Integer riskPercentage;
+
+    @Column(name = "stress_level", length = 50)
+    private String stressLevel;
+
+    @Column(name = "date_joined")
+    private LocalDate dateJoined;
+
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
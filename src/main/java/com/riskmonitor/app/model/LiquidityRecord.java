@@ -0,0 +1,35 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "liquidity_data")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiquidityRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 20)
+    private String month;
+
+    private Integer year;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payment_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 20)
+    private String month;
+
+    private Integer year;
+
+    @Column(name = "on_time_percentage")
+    private Integer onTimePercentage;
+
+    @Column(name = "late_percentage")
+    private Integer latePercentage;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
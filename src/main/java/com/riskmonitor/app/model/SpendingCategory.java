@@ -0,0 +1,38 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "spending_categories")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(length = 100)
+    private String category;
+
+    private Integer percentage;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 20)
+    private String month;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
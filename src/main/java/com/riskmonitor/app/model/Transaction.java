@@ -0,0 +1,47 @@
+package com.riskmonitor.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "transactions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Transaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_user_id", length = 50)
+    private String customerUserId;
+
+    @Column(name = "transaction_date")
+    private LocalDate transactionDate;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 20)
+    private String type;
+
+    @Column(length = 100)
+    private String category;
+
+    // Keyword classification (TransactionFlagger) stored at ingest; null until classified
+    @Column(name = "risk_flag", length = 20)
+    private String riskFlag;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "users")
 @Data
@@ -36,4 +38,8 @@ public class User {
 
     @Column(name = "is_active")
     private boolean isActive = true;
+
+    // Tokens issued at or before this instant are rejected (set when the role changes)
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package com.riskmonitor.app.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.dto.RiskScore;
+import com.riskmonitor.app.model.Alert;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes new alerts and risk changes to open dashboard streams
+ * (server-sent events), so dashboards stop reloading everything to find
+ * out what changed.
+ *
+ * Each event is serialized to JSON once and the same frame is offered to
+ * every interested stream. Streams are servlet async requests, so an idle
+ * connection holds no thread. A stream with buffered frames is queued for
+ * a small fixed set of sender threads (push.senders, default one per CPU),
+ * which take turns writing a few frames to each ready stream, so thousands
+ * of dashboards never need more than that many threads.
+ *
+ * Every stream has a bounded buffer. A stream whose buffer overflows, or
+ * whose current send has taken longer than push.send-timeout-ms, is
+ * dropped rather than allowed to hold up or grow the others (EventSource
+ * clients reconnect by themselves). A sender stuck in such a send is
+ * written off and a replacement started, so the others keep the full set
+ * of senders; the stuck one completes the emitter and exits once its
+ * write returns (the container's write timeout bounds that). At most
+ * push.senders senders are written off at a time. Publishers never wait
+ * on a slow client.
+ *
+ * Event names: {@code alert}, {@code risk} (a customer's score changed) and
+ * {@code refresh} (the whole book was rescored; reload rather than patch).
+ */
+@Component
+public class PushBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(PushBroadcaster.class);
+
+    // Frames written to one stream per turn before the sender moves on to the next
+    private static final int FRAMES_PER_TURN = 16;
+
+    record AlertPush(String customerId, String type, String message, LocalDateTime createdAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int maxDeltas;
+    private final int senderCount;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Streams with frames to write, each queued at most once (Subscriber.draining)
+    private final BlockingQueue<Subscriber> ready = new LinkedBlockingQueue<>();
+    private final Set<Thread> senders = ConcurrentHashMap.newKeySet();
+    // Senders stuck on a dropped stream; each exits when its send returns
+    private final Set<Thread> writtenOff = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger senderIds = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public PushBroadcaster(ObjectMapper objectMapper,
+            @Value("${push.buffer-size:256}") int bufferSize,
+            @Value("${push.max-subscribers:5000}") int maxSubscribers,
+            @Value("${push.senders:0}") int senders,
+            @Value("${push.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${push.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.maxDeltas = Math.max(bufferSize / 4, 1);
+        this.senderCount = senders > 0 ? senders : Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < senderCount; i++) {
+            startSender();
+        }
+    }
+
+    /**
+     * Opens a stream of every event, or only those about the given
+     * customers (refresh events go to everyone). Empty when the subscriber
+     * limit is reached.
+     */
+    public Optional<SseEmitter> subscribe(Set<String> customerIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        return register(emitter, customerIds) ? Optional.of(emitter) : Optional.empty();
+    }
+
+    boolean register(SseEmitter emitter, Set<String> customerIds) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter, customerIds == null || customerIds.isEmpty()
+                ? null : Set.copyOf(customerIds), bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        return true;
+    }
+
+    public void publishAlerts(Collection<Alert> alerts) {
+        for (Alert alert : alerts) {
+            publish("alert", alert.getCustomerUserId(), new AlertPush(alert.getCustomerUserId(), alert.getType(),
+                    alert.getMessage(), alert.getCreatedAt()));
+        }
+    }
+
+    /**
+     * Publishes changed scores; a batch too large to be worth patching in
+     * (a bulk rescore) goes out as a single refresh instead.
+     */
+    public void publishRiskChanges(Collection<RiskScore> scores) {
+        if (scores.size() > maxDeltas) {
+            publishRefresh();
+            return;
+        }
+        for (RiskScore score : scores) {
+            publish("risk", score.getCustomerId(), score);
+        }
+    }
+
+    public void publishRefresh() {
+        publish("refresh", null, Map.of("at", LocalDateTime.now()));
+    }
+
+    public int subscribers() {
+        return subscriberCount.get();
+    }
+
+    /** Streams dropped because they fell a full buffer behind or a send timed out. */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /** Live sender threads, including any still stuck on a dropped stream. */
+    int senderThreads() {
+        return senders.size();
+    }
+
+    // Keeps idle connections from being closed by proxies, finds dead ones and drops stuck ones
+    @Scheduled(fixedDelayString = "${push.heartbeat-ms:20000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            Thread sender = subscriber.sender;
+            if (since != 0 && now - since > sendTimeoutNanos && remove(subscriber)) {
+                dropped.incrementAndGet();
+                if (sender != null && writtenOff.size() < senderCount && writtenOff.add(sender)) {
+                    startSender();
+                }
+            }
+        }
+        offer(new PushFrame(0, null, null, null));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            schedule(subscriber);
+        }
+        // Senders finish the queued completions, then exit
+        running = false;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // HELPER METHODS
+    // ═══════════════════════════════════════════════════════════
+
+    private void publish(String event, String customerId, Object payload) {
+        if (subscribers.isEmpty()) {
+            return; // nobody listening: skip the serialization too
+        }
+        try {
+            offer(new PushFrame(sequence.incrementAndGet(), event, customerId,
+                    objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event", event, e);
+        }
+    }
+
+    private void offer(PushFrame frame) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.wants(frame)) {
+                continue;
+            }
+            if (!subscriber.buffer.offer(frame) && remove(subscriber)) {
+                dropped.incrementAndGet();
+            }
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            ready.add(subscriber);
+        }
+    }
+
+    private void startSender() {
+        Thread sender = new Thread(this::send, "push-sender-" + senderIds.incrementAndGet());
+        sender.setDaemon(true);
+        senders.add(sender);
+        sender.start();
+    }
+
+    private void send() {
+        Thread self = Thread.currentThread();
+        try {
+            while (running || !ready.isEmpty()) {
+                Subscriber subscriber = ready.poll(1, TimeUnit.SECONDS);
+                if (subscriber != null) {
+                    drain(subscriber);
+                }
+                if (writtenOff.remove(self)) {
+                    return; // replaced while stuck on a dropped stream
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            senders.remove(self);
+        }
+    }
+
+    // One turn on a stream: a few frames, then back in the queue if it has more
+    private void drain(Subscriber subscriber) {
+        subscriber.sender = Thread.currentThread();
+        PushFrame frame;
+        for (int sent = 0; sent < FRAMES_PER_TURN && !subscriber.closed
+                && (frame = subscriber.buffer.poll()) != null; sent++) {
+            subscriber.sendingSince = System.nanoTime();
+            try {
+                subscriber.emitter.send(frame.data() == null
+                        ? SseEmitter.event().comment("keep-alive")
+                        : SseEmitter.event().id(Long.toString(frame.id())).name(frame.event()).data(frame.data()));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away (or the stream already completed)
+                remove(subscriber);
+            } finally {
+                subscriber.sendingSince = 0;
+            }
+        }
+        if (subscriber.closed && subscriber.completed.compareAndSet(false, true)) {
+            // Completed here, on a sender, never on a publisher's thread
+            subscriber.emitter.complete();
+        }
+        subscriber.sender = null;
+        subscriber.draining.set(false);
+        // Re-queue if frames remain, or a frame or drop arrived after the last look
+        if ((subscriber.closed ? !subscriber.completed.get() : !subscriber.buffer.isEmpty())
+                && subscriber.draining.compareAndSet(false, true)) {
+            ready.add(subscriber);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.riskmonitor.app.push;
+
+/**
+ * An event as it goes out on every stream: the SSE event name, the JSON
+ * payload (serialized once, shared by all subscribers) and the customer it
+ * concerns, or null when it concerns everyone. A null payload is a
+ * keep-alive comment.
+ */
+record PushFrame(long id, String event, String customerId, String data) {
+}
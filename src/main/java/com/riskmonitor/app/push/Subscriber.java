@@ -0,0 +1,39 @@
+package com.riskmonitor.app.push;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open stream: its emitter, the customers it asked for (null for
+ * everyone) and a bounded buffer of frames not yet written to it.
+ *
+ * {@link #draining} is set while the stream is queued for or held by a
+ * sender, so at most one sender writes to the emitter at a time;
+ * {@link #sender} is that thread and {@link #sendingSince} when its current
+ * send began (0 when idle), and {@link #completed} that the emitter is
+ * completed once.
+ */
+final class Subscriber {
+
+    final SseEmitter emitter;
+    final Set<String> customerIds;
+    final ArrayBlockingQueue<PushFrame> buffer;
+    final AtomicBoolean draining = new AtomicBoolean();
+    final AtomicBoolean completed = new AtomicBoolean();
+    volatile boolean closed;
+    volatile long sendingSince;
+    volatile Thread sender;
+
+    Subscriber(SseEmitter emitter, Set<String> customerIds, int bufferSize) {
+        this.emitter = emitter;
+        this.customerIds = customerIds;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    boolean wants(PushFrame frame) {
+        return customerIds == null || frame.customerId() == null || customerIds.contains(frame.customerId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.Alert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlertRepository extends JpaRepository<Alert, Long> {
+    List<Alert> findByCustomerUserIdInOrderByCreatedAtDesc(Collection<String> customerUserIds);
+}
@@ -0,0 +1,12 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.CashFlowRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CashFlowRecordRepository extends JpaRepository<CashFlowRecord, Long> {
+    List<CashFlowRecord> findByCustomerUserIdIn(Collection<String> customerUserIds);
+}
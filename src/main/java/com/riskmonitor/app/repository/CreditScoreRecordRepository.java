@@ -0,0 +1,12 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.CreditScoreRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CreditScoreRecordRepository extends JpaRepository<CreditScoreRecord, Long> {
+    List<CreditScoreRecord> findByCustomerUserIdIn(Collection<String> customerUserIds);
+}
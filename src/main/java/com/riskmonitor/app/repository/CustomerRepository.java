@@ -0,0 +1,24 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+    Optional<Customer> findByUserId(String userId);
+    List<Customer> findByUserIdIn(Collection<String> userIds);
+
+    // Walks the whole book in user_id order, one chunk at a time
+    @Query("select c.userId from Customer c where c.userId > :after order by c.userId")
+    List<String> findUserIdsAfter(@Param("after") String after, Limit limit);
+
+    @Query("select c.userId from Customer c where c.userId in :userIds")
+    List<String> findUserIdsIn(@Param("userIds") Collection<String> userIds);
+}
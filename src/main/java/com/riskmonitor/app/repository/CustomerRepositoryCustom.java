@@ -0,0 +1,23 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.dto.CustomerFilter;
+import com.riskmonitor.app.dto.CustomerSummary;
+import com.riskmonitor.app.dto.RiskScore;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Up to {@code limit} customers matching the filter, highest risk first
+     * (ties by user id, descending), starting strictly after the given key.
+     * A null {@code afterUserId} starts from the top.
+     */
+    List<CustomerSummary> findPage(CustomerFilter filter, int afterRisk, String afterUserId, int limit);
+
+    /**
+     * Writes computed risk columns back in one JDBC batch.
+     */
+    void updateRiskScores(Collection<RiskScore> scores);
+}
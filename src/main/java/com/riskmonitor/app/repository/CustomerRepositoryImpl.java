@@ -0,0 +1,114 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.dto.CustomerFilter;
+import com.riskmonitor.app.dto.CustomerSummary;
+import com.riskmonitor.app.dto.RiskScore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination over customers on (risk_percentage, user_id).
+ *
+ * The row-value comparison lets PostgreSQL start the index scan at the
+ * previous page's last key instead of counting past an OFFSET, so every page
+ * costs the same. Only the filters that are set are added to the WHERE
+ * clause, keeping each query shape index-friendly:
+ * idx_customers_risk_user for the unfiltered listing,
+ * idx_customers_status_risk_user per status and the trigram indexes for search.
+ *
+ * Also hosts the batched risk-score write-back, which Spring Data's derived
+ * updates would otherwise issue one statement per customer.
+ */
+public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerSummary> findPage(CustomerFilter filter, int afterRisk, String afterUserId, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT user_id, name, status, risk_score, risk_percentage, credit_score, credit_score_status
+                FROM customers
+                WHERE 1 = 1
+                """);
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            sql.append(" AND status IN (:statuses)");
+            params.put("statuses", filter.getStatuses());
+        }
+        if (filter.getMinRisk() != null) {
+            sql.append(" AND risk_percentage >= :minRisk");
+            params.put("minRisk", filter.getMinRisk());
+        }
+        if (filter.getMaxRisk() != null) {
+            sql.append(" AND risk_percentage <= :maxRisk");
+            params.put("maxRisk", filter.getMaxRisk());
+        }
+        if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+            // Substring match on name or id, served by the pg_trgm GIN indexes
+            sql.append(" AND (name ILIKE :pattern OR user_id ILIKE :pattern)");
+            params.put("pattern", "%" + escapeLike(filter.getSearch().trim()) + "%");
+        }
+        if (afterUserId != null) {
+            sql.append(" AND (risk_percentage, user_id) < (:afterRisk, :afterUserId)");
+            params.put("afterRisk", afterRisk);
+            params.put("afterUserId", afterUserId);
+        }
+        sql.append(" ORDER BY risk_percentage DESC, user_id DESC LIMIT :limit");
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+
+        List<CustomerSummary> page = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] cols = (Object[]) row;
+            page.add(new CustomerSummary(
+                    (String) cols[0],
+                    (String) cols[1],
+                    (String) cols[2],
+                    (String) cols[3],
+                    cols[4] != null ? ((Number) cols[4]).intValue() : null,
+                    cols[5] != null ? ((Number) cols[5]).intValue() : null,
+                    (String) cols[6]));
+        }
+        return page;
+    }
+
+    @Override
+    @Transactional
+    public void updateRiskScores(Collection<RiskScore> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE customers SET risk_percentage = ?, risk_score = ?, stress_level = ? WHERE user_id = ?")) {
+                for (RiskScore score : scores) {
+                    update.setInt(1, score.getRiskPercentage());
+                    update.setString(2, score.getRiskScore());
+                    update.setString(3, score.getStressLevel());
+                    update.setString(4, score.getCustomerId());
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        });
+    }
+
+    // ILIKE's default escape character is backslash
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,12 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.LiquidityRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LiquidityRecordRepository extends JpaRepository<LiquidityRecord, Long> {
+    List<LiquidityRecord> findByCustomerUserIdIn(Collection<String> customerUserIds);
+}
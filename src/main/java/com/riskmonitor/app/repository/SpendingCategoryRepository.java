@@ -0,0 +1,12 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.SpendingCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpendingCategoryRepository extends JpaRepository<SpendingCategory, Long> {
+    List<SpendingCategory> findByCustomerUserIdInOrderByPercentageDesc(Collection<String> customerUserIds);
+}
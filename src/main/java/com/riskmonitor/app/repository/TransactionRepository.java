@@ -0,0 +1,60 @@
+package com.riskmonitor.app.repository;
+
+import com.riskmonitor.app.model.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * Transactions summed per customer, month, type and category, credits
+     * and debits kept apart. Risk scoring needs only these totals, and a
+     * customer's history can be far too large to load row by row.
+     */
+    interface MonthlyTotal {
+        String getCustomerUserId();
+        int getYear();
+        int getMonth();
+        String getType();
+        String getCategory();
+        BigDecimal getAmount();
+    }
+
+    @Query(value = """
+            SELECT customer_user_id AS customerUserId,
+                   CAST(EXTRACT(YEAR FROM transaction_date) AS INTEGER) AS year,
+                   CAST(EXTRACT(MONTH FROM transaction_date) AS INTEGER) AS month,
+                   type, category, SUM(amount) AS amount
+            FROM transactions
+            WHERE customer_user_id IN (:customerUserIds) AND transaction_date IS NOT NULL
+            GROUP BY customer_user_id, year, month, type, category, amount > 0
+            """, nativeQuery = true)
+    List<MonthlyTotal> findMonthlyTotalsByCustomerUserIdIn(
+            @Param("customerUserIds") Collection<String> customerUserIds);
+
+    // Latest {@code perCustomer} rows for each customer in one round trip, newest first
+    @Query(value = """
+            SELECT id, customer_user_id, transaction_date, description, amount, type, category, risk_flag, created_at
+            FROM (
+                SELECT t.*, ROW_NUMBER() OVER (
+                    PARTITION BY t.customer_user_id
+                    ORDER BY t.transaction_date DESC, t.id DESC) AS rn
+                FROM transactions t
+                WHERE t.customer_user_id IN (:customerUserIds)
+            ) recent
+            WHERE rn <= :perCustomer
+            ORDER BY customer_user_id, transaction_date DESC, id DESC
+            """, nativeQuery = true)
+    List<Transaction> findRecentByCustomerUserIdIn(@Param("customerUserIds") Collection<String> customerUserIds,
+                                                   @Param("perCustomer") int perCustomer);
+
+    List<Transaction> findByCustomerUserIdAndTransactionDateGreaterThanEqualOrderByTransactionDateAscIdAsc(
+            String customerUserId, LocalDate from);
+}
@@ -2,7 +2,11 @@ package com.riskmonitor.app.repository;
 
 import com.riskmonitor.app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select u.username from User u where u.isActive = false")
+    List<String> findInactiveUsernames();
+
+    interface TokenRevocation {
+        String getUsername();
+        Instant getTokensValidAfter();
+    }
+
+    @Query("select u.username as username, u.tokensValidAfter as tokensValidAfter from User u "
+            + "where u.tokensValidAfter > :since")
+    List<TokenRevocation> findTokenRevocationsSince(@Param("since") Instant since);
 }
\ No newline at end of file
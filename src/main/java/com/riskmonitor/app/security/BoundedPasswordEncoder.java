@@ -0,0 +1,137 @@
+package com.riskmonitor.app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt on a small dedicated pool, so a burst of logins or registrations
+ * queues behind a CPU-sized set of workers instead of occupying every
+ * Tomcat thread. The calling thread waits for its own hash; once the pool
+ * and its short queue are full, further calls fail immediately with
+ * {@link RejectedExecutionException} for the controller to turn into 503.
+ *
+ * {@link #upgradeEncoding} reports hashes made with a lower cost than the
+ * configured one, which Spring Security uses to re-hash on login.
+ *
+ * Hashing time (auth.bcrypt), time queued for a worker (auth.bcrypt.wait)
+ * and rejections are metered separately, so a slow login can be told apart
+ * from a saturated pool.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    /**
+     * Unregistered meters, for tests.
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity) {
+        this(strength, threads, queueCapacity, new SimpleMeterRegistry());
+    }
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int poolSize = threads <= 0 ? cpus : Math.min(threads, cpus);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer("encode", registry);
+        this.matchesTimer = hashTimer("matches", registry);
+        this.waitTimer = Timer.builder("auth.bcrypt.wait")
+                .description("Time a hash waited for a bcrypt worker")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("auth.bcrypt.rejected")
+                .description("Hashes refused because the bcrypt pool and queue were full")
+                .register(registry);
+        Gauge.builder("auth.bcrypt.queue", executor, e -> e.getQueue().size()).register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Parses the cost out of the hash; no hashing, so no need for the pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry registry) {
+        return Timer.builder("auth.bcrypt")
+                .description("Time spent hashing or verifying a password")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
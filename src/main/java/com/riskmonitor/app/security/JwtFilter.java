@@ -1,12 +1,19 @@
 package com.riskmonitor.app.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +21,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -24,6 +33,25 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    // Trust the signed claims instead of loading the user on every request
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer validTimer;
+    private Timer invalidTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        validTimer = validationTimer("valid");
+        invalidTimer = validationTimer("invalid");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -35,16 +63,32 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                String username = jwtUtil.extractUsername(token);
+                // One parse verifies signature and expiry; no further token checks needed
+                TokenClaims claims = null;
+                long started = System.nanoTime();
+                try {
+                    claims = jwtUtil.validateToken(token);
+                } finally {
+                    (claims != null ? validTimer : invalidTimer).record(System.nanoTime() - started,
+                            TimeUnit.NANOSECONDS);
+                }
+                String username = claims.username();
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtil.isTokenValid(token, username)) {
-                        UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    UserDetails userDetails;
+                    if (stateless) {
+                        if (tokenDenyList.isDenied(claims)) {
+                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                            return;
+                        }
+                        userDetails = principalFrom(claims);
+                    } else {
+                        userDetails = userDetailsService.loadUserByUsername(username);
                     }
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             } catch (Exception e) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -53,4 +97,19 @@ public class JwtFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("auth.jwt.validation")
+                .description("Verifying a bearer token's signature and expiry")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private UserDetails principalFrom(TokenClaims claims) {
+        List<GrantedAuthority> authorities = claims.role() != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + claims.role()))
+                : List.of();
+        return new User(claims.username(), "", authorities);
+    }
+}
@@ -5,53 +5,69 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final long expiration;
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    // Both immutable and thread-safe: derived once instead of per token
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String username, String role) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry in a single parse and
+     * returns its claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public TokenClaims validateToken(String token) {
+        Claims claims = getClaims(token);
+        return new TokenClaims(claims.getSubject(), claims.get("role", String.class),
+                claims.getIssuedAt(), claims.getExpiration());
+    }
+
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return validateToken(token).username();
     }
 
     public String extractRole(String token) {
-        return (String) getClaims(token).get("role");
+        return validateToken(token).role();
     }
 
     public boolean isTokenValid(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+        try {
+            return validateToken(token).username().equals(username);
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        // Rejects expired tokens with ExpiredJwtException
+        return parser.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.riskmonitor.app.security;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Produced once per request by {@link JwtUtil#validateToken(String)}.
+ */
+public record TokenClaims(String username, String role, Date issuedAt, Date expiresAt) {
+}
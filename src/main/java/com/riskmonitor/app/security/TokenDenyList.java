@@ -0,0 +1,94 @@
+package com.riskmonitor.app.security;
+
+import com.riskmonitor.app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of who may no longer use an otherwise valid token, so
+ * the stateless JwtFilter can reject them without a database lookup.
+ *
+ * Deactivated users and per-user revocations (users.tokens_valid_after)
+ * are reloaded from the users table on a fixed delay, so they survive a
+ * restart and reach every instance; {@link #deny} and {@link #revokeTokens}
+ * apply them here immediately. A revocation rejects every token issued up
+ * to it and is forgotten once all such tokens would have expired anyway.
+ */
+@Component
+public class TokenDenyList {
+
+    private final UserRepository userRepository;
+    private final Duration tokenLifetime;
+
+    // Replaced wholesale on refresh; deny() adds between refreshes
+    private volatile Set<String> inactiveUsers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    public TokenDenyList(UserRepository userRepository,
+                         @Value("${jwt.expiration}") long expirationMillis) {
+        this.userRepository = userRepository;
+        this.tokenLifetime = Duration.ofMillis(expirationMillis);
+    }
+
+    public boolean isDenied(TokenClaims claims) {
+        if (inactiveUsers.contains(claims.username())) {
+            return true;
+        }
+        Instant cutoff = revokedBefore.get(claims.username());
+        // iat has whole-second precision, so a token from the revocation's own second is rejected too
+        return cutoff != null && claims.issuedAt() != null
+                && !claims.issuedAt().toInstant().isAfter(cutoff.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Rejects all of the user's tokens until a refresh finds them active
+     * again; call after the deactivation has been saved.
+     */
+    public void deny(String username) {
+        inactiveUsers.add(username);
+    }
+
+    /**
+     * Rejects the user's tokens issued up to {@code validAfter}; call after
+     * it has been saved as the user's tokens_valid_after.
+     */
+    public void revokeTokens(String username, Instant validAfter) {
+        revokedBefore.merge(username, validAfter, TokenDenyList::later);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.deny-list.refresh-ms:30000}",
+               initialDelayString = "${jwt.deny-list.refresh-ms:30000}")
+    public void refresh() {
+        try {
+            Set<String> inactive = ConcurrentHashMap.newKeySet();
+            inactive.addAll(userRepository.findInactiveUsernames());
+            inactiveUsers = inactive;
+        } catch (DataAccessException e) {
+            // Keep the previous list; the next refresh will retry
+        }
+        Instant expired = Instant.now().minus(tokenLifetime);
+        try {
+            for (UserRepository.TokenRevocation revocation : userRepository.findTokenRevocationsSince(expired)) {
+                revokeTokens(revocation.getUsername(), revocation.getTokensValidAfter());
+            }
+        } catch (DataAccessException e) {
+            // Keep the revocations already known; the next refresh will retry
+        }
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(expired));
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
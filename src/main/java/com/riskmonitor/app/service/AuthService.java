@@ -3,23 +3,30 @@ package com.riskmonitor.app.service;
 import com.riskmonitor.app.dto.AuthRequest;
 import com.riskmonitor.app.dto.AuthResponse;
 import com.riskmonitor.app.dto.RegisterRequest;
+import com.riskmonitor.app.dto.UserCacheStats;
 import com.riskmonitor.app.model.User;
 import com.riskmonitor.app.repository.UserRepository;
 import com.riskmonitor.app.security.JwtUtil;
+import com.riskmonitor.app.security.TokenDenyList;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.Instant;
+import java.util.List;
 
 @Service
-public class AuthService implements UserDetailsService {
+public class AuthService implements UserDetailsService, UserDetailsPasswordService {
+
+    static final String DEFAULT_ROLE = "RISK_ANALYST";
 
     @Autowired
     private UserRepository userRepository;
@@ -35,18 +42,51 @@ public class AuthService implements UserDetailsService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
     // ── Required by Spring Security ──
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        User user = findUser(username);
+        // A fresh UserDetails each time: authentication erases its password
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
-                new ArrayList<>()
+                user.isActive(),
+                true,
+                true,
+                true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
         );
     }
 
+    // ── Called by Spring Security after a successful login whose hash is below auth.bcrypt.strength ──
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userCache.invalidate(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+
+    private User findUser(String username) {
+        User user = userCache.get(username);
+        if (user == null) {
+            user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            userCache.put(user);
+        }
+        return user;
+    }
+
     // ── Register ──
     public String register(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -62,13 +102,44 @@ public class AuthService implements UserDetailsService {
         user.setEmail(request.getEmail());
         user.setUsername(request.getUsername());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(request.getRole() != null ? request.getRole() : "RISK_ANALYST");
+        // Self-registration never grants a role; admins do that through changeRole
+        user.setRole(DEFAULT_ROLE);
         user.setActive(true);
 
         userRepository.save(user);
+        userCache.invalidate(user.getUsername());
         return "User registered successfully";
     }
 
+    // ── Deactivate ──
+    public void deactivateUser(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setActive(false);
+        userRepository.save(user);
+        userCache.invalidate(username);
+        tokenDenyList.deny(username);
+    }
+
+    // ── Change role ──
+    public void changeRole(String username, String role) {
+        if (role == null || role.isBlank()) {
+            throw new RuntimeException("Role is required");
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setRole(role);
+        // Outstanding tokens still carry the old role claim; persisted so every instance rejects them
+        user.setTokensValidAfter(Instant.now());
+        userRepository.save(user);
+        userCache.invalidate(username);
+        tokenDenyList.revokeTokens(username, user.getTokensValidAfter());
+    }
+
+    public UserCacheStats userCacheStats() {
+        return userCache.stats();
+    }
+
     // ── Login ──
     public AuthResponse login(AuthRequest request) {
         authenticationManager.authenticate(
@@ -78,8 +149,8 @@ public class AuthService implements UserDetailsService {
                 )
         );
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Loaded (and cached) by authenticate() above
+        User user = findUser(request.getUsername());
 
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
 
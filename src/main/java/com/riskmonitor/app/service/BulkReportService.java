@@ -0,0 +1,165 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Assembles bulk reports that include the full per-customer section.
+ *
+ * Each customer's section is rendered into its own PDF fragment on a
+ * dedicated fork-join pool, then merged into the output in request order.
+ * Only a sliding window of fragments is kept in flight, and merged pages
+ * are flushed to the output straight away, so memory stays bounded
+ * regardless of how many customers the report covers.
+ *
+ * Sections share the {@link RenderLimiter} with every other report. The
+ * caller's own turn covers one section at a time; each further section in
+ * flight borrows a free turn, and when none is free the report renders one
+ * section at a time rather than crowding out other requests.
+ */
+@Service
+public class BulkReportService {
+
+    private final ReportService reportService;
+    private final RenderLimiter renderLimiter;
+    private final ForkJoinPool pool;
+    private final int window;
+
+    @Autowired
+    public BulkReportService(ReportService reportService, RenderLimiter renderLimiter,
+            @Value("${report.bulk.parallelism:0}") int parallelism) {
+        this.reportService = reportService;
+        this.renderLimiter = renderLimiter;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.window = threads * 2;
+    }
+
+    /**
+     * A limiter of its own, for benchmarks and tests.
+     */
+    public BulkReportService(ReportService reportService, int parallelism) {
+        this(reportService, new RenderLimiter(parallelism, 0), parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Write bulk report into the given stream. When {@code customerData} has
+     * entries, the full section for each of those customers follows the
+     * overview; customers without data are listed in the overview only.
+     * The stream is left open.
+     */
+    public void writeBulkReport(List<String> customerIds, String reportType, String generatedBy,
+            Map<String, JsonNode> customerData, OutputStream out) throws Exception {
+        if (customerData == null || customerData.isEmpty()) {
+            reportService.writeBulkReport(customerIds, reportType, generatedBy, out);
+            return;
+        }
+
+        List<String> detailed = new ArrayList<>();
+        for (String customerId : customerIds) {
+            if (customerData.containsKey(customerId)) {
+                detailed.add(customerId);
+            }
+        }
+
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        PdfDocument target = new PdfDocument(writer);
+        PdfMerger merger = new PdfMerger(target);
+
+        ByteArrayOutputStream overview = new ByteArrayOutputStream();
+        reportService.writeBulkReport(customerIds, reportType, generatedBy, true, overview);
+        mergeFragment(target, merger, overview.toByteArray());
+
+        List<CompletableFuture<byte[]>> sections = new ArrayList<>(detailed.size());
+        AtomicBoolean ownTurn = new AtomicBoolean();
+        try {
+            for (int i = 0; i < detailed.size(); i++) {
+                // Keep at most `window` sections rendering ahead of the merge position.
+                // Every earlier section has finished by now, so section i can always
+                // take the caller's own turn if it has not started yet.
+                while (sections.size() < detailed.size() && sections.size() < i + window) {
+                    Runnable handBack = takeTurn(ownTurn);
+                    if (handBack == null) {
+                        break;
+                    }
+                    String customerId = detailed.get(sections.size());
+                    sections.add(CompletableFuture.supplyAsync(
+                            () -> renderSection(customerId, customerData.get(customerId)), pool)
+                            .whenComplete((fragment, e) -> handBack.run()));
+                }
+                byte[] fragment = sections.get(i).join();
+                sections.set(i, null);
+                mergeFragment(target, merger, fragment);
+            }
+        } catch (CompletionException e) {
+            sections.forEach(f -> {
+                if (f != null) {
+                    f.cancel(true);
+                }
+            });
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+
+        target.close();
+        reportService.recordPdfSize("bulk", writer);
+    }
+
+    /**
+     * A turn for the next section: the caller's own if no section is using
+     * it, otherwise a free one borrowed from the limiter. Returns how to hand
+     * it back, or null if neither is free.
+     */
+    private Runnable takeTurn(AtomicBoolean ownTurn) {
+        if (ownTurn.compareAndSet(false, true)) {
+            return () -> ownTurn.set(false);
+        }
+        if (renderLimiter.tryAcquireNow()) {
+            return renderLimiter::release;
+        }
+        return null;
+    }
+
+    private byte[] renderSection(String customerId, JsonNode data) {
+        try {
+            return reportService.generateBulkSection(customerId, data);
+        } catch (Exception e) {
+            throw new CompletionException(
+                    new RuntimeException("Failed to render section for customer " + customerId, e));
+        }
+    }
+
+    private void mergeFragment(PdfDocument target, PdfMerger merger, byte[] fragment) throws Exception {
+        try (PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(fragment)))) {
+            int first = target.getNumberOfPages() + 1;
+            merger.merge(source, 1, source.getNumberOfPages());
+            // Write the merged pages out now rather than holding them until close
+            for (int page = first; page <= target.getNumberOfPages(); page++) {
+                target.getPage(page).flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.riskmonitor.app.service;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.extgstate.PdfExtGState;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.element.Image;
+import com.riskmonitor.app.dto.CustomerProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+
+/**
+ * Draws the customer profile charts as vector graphics, straight from the
+ * customer's series (cashFlowData, creditScoreHistory, paymentHistory,
+ * liquidityData). Each chart is a Form XObject wrapped in a layout Image so
+ * it can be sized and placed like the client-rendered PNGs it replaces.
+ */
+@Component
+public class ChartRenderer {
+
+    private static final float WIDTH = 500;
+    private static final float HEIGHT = 220;
+    private static final float LEFT = 48;
+    private static final float RIGHT = 12;
+    private static final float TOP = 24;
+    private static final float BOTTOM = 24;
+    private static final float LABEL_SIZE = 7;
+    private static final int DEFAULT_TICKS = 4;
+
+    // Same palette as the recharts components on the customer profile page
+    private static final Color GRID = new DeviceRgb(203, 213, 225);
+    private static final Color AXIS_TEXT = new DeviceRgb(100, 116, 139);
+    private static final Color INCOME = new DeviceRgb(0, 212, 170);
+    private static final Color EXPENSES = new DeviceRgb(239, 68, 68);
+    private static final Color SCORE = new DeviceRgb(14, 165, 233);
+    private static final Color ON_TIME = new DeviceRgb(0, 212, 170);
+    private static final Color LATE = new DeviceRgb(239, 68, 68);
+    private static final Color LIQUIDITY_HEALTHY = new DeviceRgb(14, 165, 233);
+    private static final Color LIQUIDITY_WARNING = new DeviceRgb(251, 146, 60);
+    private static final Color LIQUIDITY_CRITICAL = new DeviceRgb(239, 68, 68);
+
+    private final boolean enabled;
+    // One label font per document, shared by all of its charts
+    private final Map<PdfDocument, PdfFont> documentFonts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ChartRenderer(@Value("${report.charts.server-side:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the chart can be drawn from the customer's own series.
+     */
+    public boolean canRender(String chartName, CustomerProfile customer) {
+        if (!enabled || customer == null) {
+            return false;
+        }
+        List<?> series = series(chartName, customer);
+        return series != null && !series.isEmpty();
+    }
+
+    public Image render(String chartName, CustomerProfile customer, PdfDocument pdf) throws IOException {
+        PdfFormXObject form = new PdfFormXObject(new Rectangle(WIDTH, HEIGHT));
+        PdfCanvas canvas = new PdfCanvas(form, pdf);
+        PdfFont font = fontFor(pdf);
+
+        switch (chartName) {
+            case "cashFlow" -> {
+                List<CustomerProfile.CashFlowPoint> series = customer.getCashFlowData();
+                drawCashFlow(new Plot(canvas, font, labels(series, CustomerProfile.CashFlowPoint::getMonth)),
+                        values(series, CustomerProfile.CashFlowPoint::getIncome),
+                        values(series, CustomerProfile.CashFlowPoint::getExpenses));
+            }
+            case "creditScore" -> {
+                List<CustomerProfile.CreditScorePoint> series = customer.getCreditScoreHistory();
+                drawCreditScore(new Plot(canvas, font, labels(series, CustomerProfile.CreditScorePoint::getMonth)),
+                        values(series, CustomerProfile.CreditScorePoint::getScore));
+            }
+            case "paymentHistory" -> {
+                List<CustomerProfile.PaymentPoint> series = customer.getPaymentHistory();
+                drawPaymentHistory(new Plot(canvas, font, labels(series, CustomerProfile.PaymentPoint::getMonth)),
+                        values(series, CustomerProfile.PaymentPoint::getOnTime),
+                        values(series, CustomerProfile.PaymentPoint::getLate));
+            }
+            case "liquidity" -> {
+                List<CustomerProfile.LiquidityPoint> series = customer.getLiquidityData();
+                drawLiquidity(new Plot(canvas, font, labels(series, CustomerProfile.LiquidityPoint::getMonth)),
+                        values(series, CustomerProfile.LiquidityPoint::getAmount));
+            }
+            default -> throw new IllegalArgumentException("Unknown chart: " + chartName);
+        }
+
+        canvas.release();
+        return new Image(form);
+    }
+
+    private PdfFont fontFor(PdfDocument pdf) {
+        return documentFonts.computeIfAbsent(pdf, key -> {
+            try {
+                return PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static List<?> series(String chartName, CustomerProfile customer) {
+        return switch (chartName) {
+            case "cashFlow" -> customer.getCashFlowData();
+            case "creditScore" -> customer.getCreditScoreHistory();
+            case "paymentHistory" -> customer.getPaymentHistory();
+            case "liquidity" -> customer.getLiquidityData();
+            default -> null;
+        };
+    }
+
+    // ── Cash flow: income vs expenses areas ──
+    private void drawCashFlow(Plot plot, double[] income, double[] expenses) {
+
+        plot.axes(0, niceCeil(Math.max(max(income), max(expenses))), DEFAULT_TICKS, ChartRenderer::formatAmount);
+        plot.area(income, INCOME);
+        plot.area(expenses, EXPENSES);
+        plot.line(income, INCOME);
+        plot.line(expenses, EXPENSES);
+        plot.legend(new String[] { "Income", "Expenses" }, new Color[] { INCOME, EXPENSES });
+    }
+
+    // ── Credit score: single trend line ──
+    private void drawCreditScore(Plot plot, double[] scores) {
+
+        // Axis in 50-point steps, matching the score bands in the interpretation table
+        double low = Math.max(Math.floor((min(scores) - 20) / 50) * 50, 300);
+        double high = Math.min(Math.ceil((max(scores) + 20) / 50) * 50, 900);
+        if (high <= low) {
+            // Scores at or outside the 300-900 clamp; keep one band so the axis has a range
+            high = low + 50;
+        }
+        int ticks = Math.max(1, (int) ((high - low) / 50));
+        plot.axes(low, high, ticks <= 6 ? ticks : DEFAULT_TICKS, v -> String.valueOf((int) v));
+        plot.line(scores, SCORE);
+        plot.legend(new String[] { "Credit Score" }, new Color[] { SCORE });
+    }
+
+    // ── Payment history: on-time / late stacked bars ──
+    private void drawPaymentHistory(Plot plot, double[] onTime, double[] late) {
+
+        plot.axes(0, 100, DEFAULT_TICKS, v -> (int) v + "%");
+        for (int i = 0; i < onTime.length; i++) {
+            plot.bar(i, 0, onTime[i], ON_TIME);
+            plot.bar(i, onTime[i], onTime[i] + late[i], LATE);
+        }
+        plot.legend(new String[] { "On-time", "Late" }, new Color[] { ON_TIME, LATE });
+    }
+
+    // ── Liquidity: bars coloured by threshold ──
+    private void drawLiquidity(Plot plot, double[] amounts) {
+
+        plot.axes(0, niceCeil(max(amounts)), DEFAULT_TICKS, ChartRenderer::formatAmount);
+        for (int i = 0; i < amounts.length; i++) {
+            Color color = amounts[i] >= 50000 ? LIQUIDITY_HEALTHY
+                    : amounts[i] >= 30000 ? LIQUIDITY_WARNING
+                    : LIQUIDITY_CRITICAL;
+            plot.bar(i, 0, amounts[i], color);
+        }
+        plot.legend(new String[] { "Healthy", "Warning", "Critical" },
+                new Color[] { LIQUIDITY_HEALTHY, LIQUIDITY_WARNING, LIQUIDITY_CRITICAL });
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // HELPER METHODS
+    // ═══════════════════════════════════════════════════════════
+
+    private static <T> List<String> labels(List<T> series, Function<T, String> month) {
+        List<String> labels = new ArrayList<>(series.size());
+        for (T point : series) {
+            String label = month.apply(point);
+            labels.add(label != null ? label : "");
+        }
+        return labels;
+    }
+
+    private static <T> double[] values(List<T> series, Function<T, ? extends Number> field) {
+        double[] values = new double[series.size()];
+        for (int i = 0; i < values.length; i++) {
+            Number value = field.apply(series.get(i));
+            values[i] = value != null ? value.doubleValue() : 0;
+        }
+        return values;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double v : values) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    /**
+     * Smallest "round" axis maximum at or above the value (e.g. 58000 -> 60000).
+     */
+    private static double niceCeil(double value) {
+        if (value <= 0) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+        for (double step : new double[] { 1, 1.2, 1.5, 2, 2.5, 3, 4, 5, 6, 8, 10 }) {
+            if (step * magnitude >= value) {
+                return step * magnitude;
+            }
+        }
+        return 10 * magnitude;
+    }
+
+    private static String formatAmount(double amount) {
+        if (amount >= 10000000)
+            return String.format("%.1fCr", amount / 10000000.0);
+        if (amount >= 100000)
+            return String.format("%.1fL", amount / 100000.0);
+        if (amount >= 1000)
+            return String.format("%.0fK", amount / 1000.0);
+        return String.valueOf((int) amount);
+    }
+
+    /**
+     * Plot area with a band per data point; lines are drawn through band centres.
+     */
+    private static final class Plot {
+        private final PdfCanvas canvas;
+        private final PdfFont font;
+        private final List<String> labels;
+        private final float x0 = LEFT;
+        private final float y0 = BOTTOM;
+        private final float width = WIDTH - LEFT - RIGHT;
+        private final float height = HEIGHT - TOP - BOTTOM;
+        private double min;
+        private double max;
+
+        Plot(PdfCanvas canvas, PdfFont font, List<String> labels) {
+            this.canvas = canvas;
+            this.font = font;
+            this.labels = labels;
+        }
+
+        float band() {
+            return width / labels.size();
+        }
+
+        float x(int i) {
+            return x0 + band() * (i + 0.5f);
+        }
+
+        float y(double value) {
+            double clamped = Math.max(min, Math.min(max, value));
+            return y0 + (float) ((clamped - min) / (max - min) * height);
+        }
+
+        void axes(double min, double max, int ticks, DoubleFunction<String> format) {
+            this.min = min;
+            this.max = max;
+
+            canvas.saveState()
+                    .setStrokeColor(GRID)
+                    .setLineWidth(0.5f)
+                    .setLineDash(2, 2, 0);
+            for (int t = 0; t <= ticks; t++) {
+                float y = y(min + (max - min) * t / ticks);
+                canvas.moveTo(x0, y).lineTo(x0 + width, y);
+            }
+            canvas.stroke().restoreState();
+
+            for (int t = 0; t <= ticks; t++) {
+                double value = min + (max - min) * t / ticks;
+                String label = format.apply(value);
+                text(label, x0 - 4 - font.getWidth(label, LABEL_SIZE), y(value) - LABEL_SIZE / 3);
+            }
+            for (int i = 0; i < labels.size(); i++) {
+                String label = labels.get(i);
+                text(label, x(i) - font.getWidth(label, LABEL_SIZE) / 2, y0 - 12);
+            }
+        }
+
+        void line(double[] values, Color color) {
+            canvas.saveState().setStrokeColor(color).setLineWidth(1.5f);
+            canvas.moveTo(x(0), y(values[0]));
+            for (int i = 1; i < values.length; i++) {
+                canvas.lineTo(x(i), y(values[i]));
+            }
+            canvas.stroke();
+
+            canvas.setFillColor(color);
+            for (int i = 0; i < values.length; i++) {
+                canvas.circle(x(i), y(values[i]), 2).fill();
+            }
+            canvas.restoreState();
+        }
+
+        void area(double[] values, Color color) {
+            canvas.saveState()
+                    .setExtGState(new PdfExtGState().setFillOpacity(0.15f))
+                    .setFillColor(color);
+            canvas.moveTo(x(0), y0);
+            for (int i = 0; i < values.length; i++) {
+                canvas.lineTo(x(i), y(values[i]));
+            }
+            canvas.lineTo(x(values.length - 1), y0).closePath().fill();
+            canvas.restoreState();
+        }
+
+        void bar(int i, double from, double to, Color color) {
+            float barWidth = band() * 0.6f;
+            float bottom = y(from);
+            float top = y(to);
+            if (top <= bottom) {
+                return;
+            }
+            canvas.saveState()
+                    .setFillColor(color)
+                    .rectangle(x(i) - barWidth / 2, bottom, barWidth, top - bottom)
+                    .fill()
+                    .restoreState();
+        }
+
+        void legend(String[] names, Color[] colors) {
+            float x = x0 + width;
+            float y = HEIGHT - TOP / 2 - 3;
+            for (int i = names.length - 1; i >= 0; i--) {
+                x -= font.getWidth(names[i], LABEL_SIZE);
+                text(names[i], x, y);
+                x -= 10;
+                canvas.saveState().setFillColor(colors[i]).rectangle(x, y, 7, 7).fill().restoreState();
+                x -= 12;
+            }
+        }
+
+        private void text(String value, float x, float y) {
+            canvas.saveState()
+                    .setFillColor(AXIS_TEXT)
+                    .beginText()
+                    .setFontAndSize(font, LABEL_SIZE)
+                    .moveText(x, y)
+                    .showText(value)
+                    .endText()
+                    .restoreState();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.PortfolioStats;
+import com.riskmonitor.app.dto.RiskScore;
+import com.riskmonitor.app.ingest.CustomerDataIngestedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar snapshot of the customer book for portfolio-wide aggregates.
+ *
+ * The snapshot is streamed straight from the customers table over JDBC (no
+ * entities) at startup and after a full ingest, and is then kept current in
+ * place: merged customers are re-read by id and every score the risk engine
+ * writes is applied to its slot. Whole-book figures come from totals kept
+ * alongside the columns; filtered ones scan the primitive columns without
+ * locking.
+ */
+@Service
+public class CustomerColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerColumnStore.class);
+
+    private static final String SELECT = "SELECT user_id, credit_score, risk_percentage, monthly_income, "
+            + "monthly_expenses, net_worth, status FROM customers";
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+
+    private volatile CustomerColumns columns = new CustomerColumns(0);
+
+    // user_id -> slot; only touched by (synchronized) writers
+    private Map<String, Integer> rows = new HashMap<>();
+
+    public CustomerColumnStore(DataSource dataSource, @Value("${portfolio.columns.fetch-size:10000}") int fetchSize) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() throws SQLException {
+        rebuild();
+    }
+
+    @EventListener
+    public void onIngested(CustomerDataIngestedEvent event) throws SQLException {
+        if (event.fullBook()) {
+            rebuild();
+        } else {
+            refresh(event.customerIds());
+        }
+    }
+
+    /**
+     * Aggregates over the customers matching the filter; null means "any".
+     *
+     * @throws IllegalArgumentException for a status the store does not know
+     */
+    public PortfolioStats summarize(List<String> statuses, Integer minRisk, Integer maxRisk) {
+        int mask = CustomerColumns.ALL_STATUSES;
+        if (statuses != null && !statuses.isEmpty()) {
+            mask = 0;
+            for (String status : statuses) {
+                int code = CustomerColumns.STATUSES.indexOf(status);
+                if (code < 0) {
+                    throw new IllegalArgumentException("Unknown status: " + status);
+                }
+                mask |= 1 << code;
+            }
+        }
+        return columns.summarize(mask, minRisk != null ? minRisk : Integer.MIN_VALUE,
+                maxRisk != null ? maxRisk : Integer.MAX_VALUE);
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Reloads the whole snapshot. The new columns are built to the side and
+     * swapped in, so readers keep answering from the old ones meanwhile.
+     */
+    public synchronized void rebuild() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            int expected;
+            try (Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery("SELECT count(*) FROM customers")) {
+                rs.next();
+                expected = rs.getInt(1);
+            }
+
+            // The PostgreSQL driver only streams with a fetch size outside autocommit
+            conn.setAutoCommit(false);
+            CustomerColumns rebuilt = new CustomerColumns(Math.max(expected, 16));
+            Map<String, Integer> index = new HashMap<>(Math.max(expected, 16) * 4 / 3);
+            try (PreparedStatement ps = conn.prepareStatement(SELECT)) {
+                ps.setFetchSize(fetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (rebuilt.size() == rebuilt.capacity()) {
+                            rebuilt = rebuilt.withCapacity(rebuilt.capacity() * 2);
+                        }
+                        CustomerColumns.Row row = row(rs);
+                        index.put(row.userId(), rebuilt.append(row));
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+            rebuilt.publish();
+            columns = rebuilt;
+            rows = index;
+        }
+        log.info("Customer column store loaded {} customers in {} ms",
+                columns.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Re-reads the given customers, updating their slots or appending new ones.
+     */
+    public synchronized void refresh(Collection<String> customerIds) throws SQLException {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SELECT + " WHERE user_id = ANY(?)")) {
+            ps.setArray(1, conn.createArrayOf("varchar", customerIds.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    put(row(rs));
+                }
+            }
+        }
+        columns.publish();
+    }
+
+    /**
+     * Applies freshly written scores. Customers not yet in the snapshot are
+     * skipped; they arrive with their row on the next refresh.
+     */
+    public synchronized void updateRisk(Collection<RiskScore> scores) {
+        CustomerColumns current = columns;
+        for (RiskScore score : scores) {
+            Integer row = rows.get(score.getCustomerId());
+            if (row != null) {
+                current.setRiskPercentage(row, score.getRiskPercentage());
+            }
+        }
+        current.publish();
+    }
+
+    private void put(CustomerColumns.Row row) {
+        Integer existing = rows.get(row.userId());
+        if (existing != null) {
+            columns.set(existing, row);
+            return;
+        }
+        CustomerColumns current = columns;
+        if (current.size() == current.capacity()) {
+            current = current.withCapacity(Math.max(current.capacity() * 2, 16));
+            columns = current;
+        }
+        rows.put(row.userId(), current.append(row));
+    }
+
+    private static CustomerColumns.Row row(ResultSet rs) throws SQLException {
+        return new CustomerColumns.Row(
+                rs.getString(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                CustomerColumns.toCents(rs.getBigDecimal(4)),
+                CustomerColumns.toCents(rs.getBigDecimal(5)),
+                CustomerColumns.toCents(rs.getBigDecimal(6)),
+                CustomerColumns.statusCode(rs.getString(7)));
+    }
+}
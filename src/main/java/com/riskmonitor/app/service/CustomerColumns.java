@@ -0,0 +1,255 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.PortfolioStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The customer book as parallel primitive columns, one slot per customer.
+ * Money is held in cents, status as an index into {@link #STATUSES}, and a
+ * missing credit score as 0.
+ *
+ * Writers are serialised by {@link CustomerColumnStore}; readers take no
+ * lock. A row is filled in before {@link #size} is bumped, so a reader that
+ * reads size first never sees a half-written appended row. Writes also keep
+ * whole-book totals current, so the unfiltered summary costs O(1) however
+ * large the book is.
+ */
+final class CustomerColumns {
+
+    /** Status codes; anything else (including null) is stored as code 0. */
+    static final List<String> STATUSES = List.of("Unknown", "Low", "Medium", "High", "Critical");
+    static final int ALL_STATUSES = (1 << STATUSES.size()) - 1;
+
+    // Risk bands over risk_percentage, as in RiskAggregates.band
+    private static final int CRITICAL_FROM = 80;
+    private static final int HIGH_FROM = 60;
+    private static final int MEDIUM_FROM = 35;
+
+    record Row(String userId, int creditScore, int riskPercentage, long monthlyIncome, long monthlyExpenses,
+            long netWorth, byte status) {
+    }
+
+    private final String[] userIds;
+    private final int[] creditScore;
+    private final int[] riskPercentage;
+    private final long[] monthlyIncome;
+    private final long[] monthlyExpenses;
+    private final long[] netWorth;
+    private final byte[] status;
+
+    private volatile int size;
+
+    // Whole-book sums, adjusted by every write; readers see the last published copy
+    private final Totals running;
+    private volatile Totals published;
+
+    CustomerColumns(int capacity) {
+        this(new String[capacity], new int[capacity], new int[capacity], new long[capacity], new long[capacity],
+                new long[capacity], new byte[capacity], 0, new Totals());
+    }
+
+    private CustomerColumns(String[] userIds, int[] creditScore, int[] riskPercentage, long[] monthlyIncome,
+            long[] monthlyExpenses, long[] netWorth, byte[] status, int size, Totals running) {
+        this.userIds = userIds;
+        this.creditScore = creditScore;
+        this.riskPercentage = riskPercentage;
+        this.monthlyIncome = monthlyIncome;
+        this.monthlyExpenses = monthlyExpenses;
+        this.netWorth = netWorth;
+        this.status = status;
+        this.size = size;
+        this.running = running;
+        this.published = running.copy();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return userIds.length;
+    }
+
+    String userId(int row) {
+        return userIds[row];
+    }
+
+    /** A copy with room for at least {@code capacity} rows. */
+    CustomerColumns withCapacity(int capacity) {
+        return new CustomerColumns(Arrays.copyOf(userIds, capacity), Arrays.copyOf(creditScore, capacity),
+                Arrays.copyOf(riskPercentage, capacity), Arrays.copyOf(monthlyIncome, capacity),
+                Arrays.copyOf(monthlyExpenses, capacity), Arrays.copyOf(netWorth, capacity),
+                Arrays.copyOf(status, capacity), size, running.copy());
+    }
+
+    /** Appends a row and returns its index; the caller makes sure there is room. */
+    int append(Row row) {
+        int index = size;
+        write(index, row);
+        running.add(row.creditScore(), row.riskPercentage(), row.monthlyIncome(), row.monthlyExpenses(),
+                row.netWorth(), row.status(), 1);
+        size = index + 1;
+        return index;
+    }
+
+    void set(int index, Row row) {
+        remove(index);
+        write(index, row);
+        running.add(row.creditScore(), row.riskPercentage(), row.monthlyIncome(), row.monthlyExpenses(),
+                row.netWorth(), row.status(), 1);
+    }
+
+    void setRiskPercentage(int index, int percentage) {
+        running.moveRisk(riskPercentage[index], percentage);
+        riskPercentage[index] = percentage;
+    }
+
+    /** Makes the writes so far visible to unfiltered summaries. */
+    void publish() {
+        published = running.copy();
+    }
+
+    /**
+     * Aggregates over the customers whose status code is in
+     * {@code statusMask} (bit per code) and whose risk_percentage lies in
+     * [minRisk, maxRisk]. The whole book comes from the running totals; any
+     * narrower filter is one pass over the columns.
+     */
+    PortfolioStats summarize(int statusMask, int minRisk, int maxRisk) {
+        if ((statusMask & ALL_STATUSES) == ALL_STATUSES && minRisk <= 0 && maxRisk >= 100) {
+            return published.toStats();
+        }
+        return scan(size, statusMask, minRisk, maxRisk);
+    }
+
+    /*
+     * Branch-free: every row is accumulated with a 0/1 match weight, so the
+     * loop runs at the same speed whatever the filter's selectivity, with no
+     * mispredicted branches. It is bound by memory bandwidth (~33 bytes per
+     * customer), about 5 ms per million customers.
+     */
+    private PortfolioStats scan(int n, int statusMask, int minRisk, int maxRisk) {
+        Totals matching = new Totals();
+        for (int i = 0; i < n; i++) {
+            int r = riskPercentage[i];
+            int code = status[i];
+            int match = (r >= minRisk ? 1 : 0) & (r <= maxRisk ? 1 : 0) & (statusMask >>> code & 1);
+            matching.add(creditScore[i], r, monthlyIncome[i], monthlyExpenses[i], netWorth[i], code, match);
+        }
+        return matching.toStats();
+    }
+
+    private void write(int index, Row row) {
+        userIds[index] = row.userId();
+        creditScore[index] = row.creditScore();
+        riskPercentage[index] = row.riskPercentage();
+        monthlyIncome[index] = row.monthlyIncome();
+        monthlyExpenses[index] = row.monthlyExpenses();
+        netWorth[index] = row.netWorth();
+        status[index] = row.status();
+    }
+
+    private void remove(int index) {
+        running.add(creditScore[index], riskPercentage[index], monthlyIncome[index], monthlyExpenses[index],
+                netWorth[index], status[index], -1);
+    }
+
+    /** Sums over a set of rows; {@code weight} is +1 to add a row, -1 to take it out, 0 to skip it. */
+    private static final class Totals {
+        long count;
+        long risk;
+        long credit;
+        long scored;
+        long income;
+        long expenses;
+        long worth;
+        final long[] statusCounts = new long[STATUSES.size()];
+        final long[] bands = new long[4];   // Low, Medium, High, Critical
+
+        void add(int creditScore, int riskPercentage, long monthlyIncome, long monthlyExpenses, long netWorth,
+                int statusCode, int weight) {
+            count += weight;
+            risk += (long) weight * riskPercentage;
+            credit += (long) weight * creditScore;
+            scored += creditScore > 0 ? weight : 0;
+            income += weight * monthlyIncome;
+            expenses += weight * monthlyExpenses;
+            worth += weight * netWorth;
+            statusCounts[statusCode] += weight;
+            bands[band(riskPercentage)] += weight;
+        }
+
+        void moveRisk(int from, int to) {
+            risk += to - from;
+            bands[band(from)]--;
+            bands[band(to)]++;
+        }
+
+        Totals copy() {
+            Totals copy = new Totals();
+            copy.count = count;
+            copy.risk = risk;
+            copy.credit = credit;
+            copy.scored = scored;
+            copy.income = income;
+            copy.expenses = expenses;
+            copy.worth = worth;
+            System.arraycopy(statusCounts, 0, copy.statusCounts, 0, statusCounts.length);
+            System.arraycopy(bands, 0, copy.bands, 0, bands.length);
+            return copy;
+        }
+
+        PortfolioStats toStats() {
+            return stats(count, risk, credit, scored, income, expenses, worth, statusCounts,
+                    bands[0], bands[1], bands[2], bands[3]);
+        }
+
+        private static int band(int percentage) {
+            return (percentage >= MEDIUM_FROM ? 1 : 0) + (percentage >= HIGH_FROM ? 1 : 0)
+                    + (percentage >= CRITICAL_FROM ? 1 : 0);
+        }
+    }
+
+    private static PortfolioStats stats(long count, long risk, long credit, long scored, long income,
+            long expenses, long worth, long[] statusCounts, long low, long medium, long high, long critical) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (int code = 0; code < statusCounts.length; code++) {
+            if (statusCounts[code] > 0) {
+                byStatus.put(STATUSES.get(code), statusCounts[code]);
+            }
+        }
+        Map<String, Long> byBand = new LinkedHashMap<>();
+        byBand.put("Critical", critical);
+        byBand.put("High", high);
+        byBand.put("Medium", medium);
+        byBand.put("Low", low);
+
+        return new PortfolioStats(count,
+                count > 0 ? round((double) risk / count) : 0,
+                scored > 0 ? round((double) credit / scored) : 0,
+                fromCents(income), fromCents(expenses), fromCents(worth), byStatus, byBand);
+    }
+
+    static byte statusCode(String status) {
+        int code = status != null ? STATUSES.indexOf(status) : -1;
+        return (byte) Math.max(code, 0);
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
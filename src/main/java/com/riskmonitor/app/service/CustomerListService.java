@@ -0,0 +1,80 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.CustomerFilter;
+import com.riskmonitor.app.dto.CustomerPage;
+import com.riskmonitor.app.dto.CustomerSummary;
+import com.riskmonitor.app.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Paged customer listing for the dashboard tables, highest risk first.
+ *
+ * Pages are addressed by an opaque cursor holding the last row's
+ * (risk_percentage, user_id) rather than a page number, so the database
+ * seeks straight to the next page instead of skipping the earlier ones.
+ */
+@Service
+public class CustomerListService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${customers.page.default-size:20}")
+    private int defaultSize;
+
+    @Value("${customers.page.max-size:100}")
+    private int maxSize;
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not issued by this service
+     */
+    @Transactional(readOnly = true)
+    public CustomerPage listCustomers(CustomerFilter filter, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? defaultSize : Math.min(size, maxSize);
+
+        int afterRisk = 0;
+        String afterUserId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String key = decode(cursor);
+            int separator = key.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            try {
+                afterRisk = Integer.parseInt(key.substring(0, separator));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            afterUserId = key.substring(separator + 1);
+        }
+
+        // One extra row tells us whether there is a next page without a COUNT
+        List<CustomerSummary> rows = customerRepository.findPage(filter, afterRisk, afterUserId, limit + 1);
+        if (rows.size() <= limit) {
+            return new CustomerPage(rows, null);
+        }
+        List<CustomerSummary> page = rows.subList(0, limit);
+        CustomerSummary last = page.get(limit - 1);
+        return new CustomerPage(List.copyOf(page), encode(last.getRiskPercentage(), last.getId()));
+    }
+
+    static String encode(int riskPercentage, String userId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((riskPercentage + ":" + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.CustomerProfile;
+import com.riskmonitor.app.model.*;
+import com.riskmonitor.app.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles {@link CustomerProfile} aggregates from the customers table and
+ * its per-customer history tables.
+ *
+ * Each child table is read with a single {@code customer_user_id IN (...)}
+ * query for the whole batch and grouped in memory, so loading one profile
+ * or a hundred costs the same eight queries. Fetch-joining the collections
+ * instead would multiply rows across the seven one-to-many tables.
+ */
+@Service
+public class CustomerProfileService {
+
+    private static final DateTimeFormatter JOINED_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter UPDATED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final List<String> MONTHS = List.of(
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CashFlowRecordRepository cashFlowRecordRepository;
+
+    @Autowired
+    private CreditScoreRecordRepository creditScoreRecordRepository;
+
+    @Autowired
+    private PaymentRecordRepository paymentRecordRepository;
+
+    @Autowired
+    private SpendingCategoryRepository spendingCategoryRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private LiquidityRecordRepository liquidityRecordRepository;
+
+    @Value("${customers.recent-transactions:10}")
+    private int recentTransactions;
+
+    @Transactional(readOnly = true)
+    public Optional<CustomerProfile> getProfile(String userId) {
+        return Optional.ofNullable(getProfiles(List.of(userId)).get(userId));
+    }
+
+    /**
+     * Profiles for the given ids, in request order; unknown ids are omitted.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, CustomerProfile> getProfiles(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Customer> customers = customerRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(Customer::getUserId, Function.identity()));
+        if (customers.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> ids = customers.keySet();
+
+        Map<String, List<CashFlowRecord>> cashFlow = byCustomer(
+                cashFlowRecordRepository.findByCustomerUserIdIn(ids), CashFlowRecord::getCustomerUserId);
+        Map<String, List<CreditScoreRecord>> creditScores = byCustomer(
+                creditScoreRecordRepository.findByCustomerUserIdIn(ids), CreditScoreRecord::getCustomerUserId);
+        Map<String, List<PaymentRecord>> payments = byCustomer(
+                paymentRecordRepository.findByCustomerUserIdIn(ids), PaymentRecord::getCustomerUserId);
+        Map<String, List<LiquidityRecord>> liquidity = byCustomer(
+                liquidityRecordRepository.findByCustomerUserIdIn(ids), LiquidityRecord::getCustomerUserId);
+        Map<String, List<SpendingCategory>> spending = byCustomer(
+                spendingCategoryRepository.findByCustomerUserIdInOrderByPercentageDesc(ids),
+                SpendingCategory::getCustomerUserId);
+        Map<String, List<Transaction>> transactions = byCustomer(
+                transactionRepository.findRecentByCustomerUserIdIn(ids, recentTransactions),
+                Transaction::getCustomerUserId);
+        Map<String, List<Alert>> alerts = byCustomer(
+                alertRepository.findByCustomerUserIdInOrderByCreatedAtDesc(ids), Alert::getCustomerUserId);
+
+        Map<String, CustomerProfile> profiles = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            Customer customer = customers.get(userId);
+            if (customer == null || profiles.containsKey(userId)) {
+                continue;
+            }
+            profiles.put(userId, new CustomerProfile(
+                    profile(customer),
+                    new CustomerProfile.FinancialSummary(
+                            customer.getTotalAssets(),
+                            customer.getTotalLiabilities(),
+                            customer.getTotalDebt(),
+                            customer.getNetWorth(),
+                            customer.getMonthlyIncome(),
+                            customer.getMonthlyExpenses()),
+                    new CustomerProfile.RiskAssessment(
+                            customer.getRiskScore(),
+                            customer.getRiskPercentage(),
+                            customer.getStressLevel()),
+                    chronological(cashFlow.get(userId), CashFlowRecord::getYear, CashFlowRecord::getMonth).stream()
+                            .map(r -> new CustomerProfile.CashFlowPoint(
+                                    r.getMonth(), r.getYear(), r.getTotalIncome(), r.getTotalExpenses()))
+                            .toList(),
+                    chronological(liquidity.get(userId), LiquidityRecord::getYear, LiquidityRecord::getMonth).stream()
+                            .map(r -> new CustomerProfile.LiquidityPoint(r.getMonth(), r.getYear(), r.getAmount()))
+                            .toList(),
+                    spending.getOrDefault(userId, List.of()).stream()
+                            .map(r -> new CustomerProfile.SpendingShare(
+                                    r.getCategory(), r.getPercentage(), r.getAmount()))
+                            .toList(),
+                    chronological(creditScores.get(userId), CreditScoreRecord::getYear, CreditScoreRecord::getMonth)
+                            .stream()
+                            .map(r -> new CustomerProfile.CreditScorePoint(r.getMonth(), r.getYear(), r.getScore()))
+                            .toList(),
+                    chronological(payments.get(userId), PaymentRecord::getYear, PaymentRecord::getMonth).stream()
+                            .map(r -> new CustomerProfile.PaymentPoint(
+                                    r.getMonth(), r.getYear(), r.getOnTimePercentage(), r.getLatePercentage()))
+                            .toList(),
+                    transactions.getOrDefault(userId, List.of()).stream()
+                            .map(t -> new CustomerProfile.TransactionItem(
+                                    t.getTransactionDate() != null ? t.getTransactionDate().toString() : null,
+                                    t.getDescription(),
+                                    t.getAmount(),
+                                    t.getType(),
+                                    t.getCategory(),
+                                    t.getRiskFlag()))
+                            .toList(),
+                    alerts.getOrDefault(userId, List.of()).stream()
+                            .map(a -> new CustomerProfile.AlertItem(
+                                    a.getType(),
+                                    a.getMessage(),
+                                    a.getCreatedAt() != null ? a.getCreatedAt().toLocalDate().toString() : null))
+                            .toList()));
+        }
+        return profiles;
+    }
+
+    private static CustomerProfile.Profile profile(Customer customer) {
+        return new CustomerProfile.Profile(
+                customer.getUserId(),
+                customer.getName(),
+                customer.getCreditScore(),
+                customer.getCreditScoreStatus(),
+                customer.getStatus(),
+                customer.getAccountNumber(),
+                customer.getEmail(),
+                customer.getPhone(),
+                customer.getDateJoined() != null ? customer.getDateJoined().format(JOINED_FORMAT) : null,
+                customer.getLastUpdated() != null ? customer.getLastUpdated().format(UPDATED_FORMAT) : null);
+    }
+
+    private static <T> Map<String, List<T>> byCustomer(List<T> rows, Function<T, String> customerId) {
+        return rows.stream().collect(Collectors.groupingBy(customerId));
+    }
+
+    // Oldest first, as the charts expect; month is stored as "Jan".."Dec"
+    private static <T> List<T> chronological(List<T> rows, Function<T, Integer> year, Function<T, String> month) {
+        if (rows == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .sorted(Comparator.comparing((T r) -> year.apply(r), Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparingInt(r -> MONTHS.indexOf(month.apply(r))))
+                .toList();
+    }
+}
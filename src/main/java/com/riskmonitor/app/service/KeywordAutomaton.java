@@ -0,0 +1,154 @@
+package com.riskmonitor.app.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho–Corasick matcher for a set of keywords, each tagged with a priority
+ * (lower wins), compiled into a dense case-insensitive DFA.
+ *
+ * Every character is one table lookup to its class and one to the next
+ * state, whatever the number of keywords, and each state already knows the
+ * best priority among all keywords ending there (suffix matches included).
+ * Scanning a description therefore makes one pass and allocates nothing.
+ */
+final class KeywordAutomaton {
+
+    static final int NO_MATCH = Integer.MAX_VALUE;
+
+    /*
+     * Character -> alphabet class; class 0 is "in no keyword" and always
+     * returns to the root. ASCII gets its own small table so the hot lookup
+     * stays in L1.
+     */
+    private final char[] asciiClass = new char[128];
+    private final char[] classOf = new char[Character.MAX_VALUE + 1];
+    private final int classes;
+
+    /*
+     * States are identified by their row offset (state * classes), so a step
+     * is one add and one load: next[state + class] is the next state's
+     * offset, and priority[state] its best match.
+     */
+    private final int[] next;
+    private final int[] priority;
+
+    /**
+     * @param keywords one list per priority, highest priority first
+     */
+    KeywordAutomaton(List<List<String>> keywords) {
+        // Alphabet: the distinct (lower-cased) characters used by the keywords
+        char[] lowerClass = new char[Character.MAX_VALUE + 1];
+        int alphabet = 1;
+        for (List<String> group : keywords) {
+            for (String keyword : group) {
+                for (char c : keyword.toCharArray()) {
+                    char lower = Character.toLowerCase(c);
+                    if (lowerClass[lower] == 0) {
+                        lowerClass[lower] = (char) alphabet++;
+                    }
+                }
+            }
+        }
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            classOf[c] = lowerClass[Character.toLowerCase((char) c)];
+        }
+        System.arraycopy(classOf, 0, asciiClass, 0, asciiClass.length);
+        this.classes = alphabet;
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        trie.add(new int[classes]);
+        output.add(NO_MATCH);
+        for (int level = 0; level < keywords.size(); level++) {
+            for (String keyword : keywords.get(level)) {
+                if (keyword.isEmpty()) {
+                    continue;
+                }
+                int state = 0;
+                for (char c : keyword.toCharArray()) {
+                    int symbol = classOf[c];
+                    if (trie.get(state)[symbol] == 0) {
+                        trie.get(state)[symbol] = trie.size();
+                        trie.add(new int[classes]);
+                        output.add(NO_MATCH);
+                    }
+                    state = trie.get(state)[symbol];
+                }
+                output.set(state, Math.min(output.get(state), level));
+            }
+        }
+
+        // Breadth-first: resolve failure links into full transitions and inherit suffix outputs
+        int states = trie.size();
+        int[] goTo = new int[states * classes];
+        int[] best = new int[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) {
+            best[s] = output.get(s);
+        }
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 1; symbol < classes; symbol++) {
+            int child = trie.get(0)[symbol];
+            goTo[symbol] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            best[state] = Math.min(best[state], best[fail[state]]);
+            for (int symbol = 1; symbol < classes; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = goTo[fail[state] * classes + symbol];
+                if (child != 0) {
+                    fail[child] = fallback;
+                    goTo[state * classes + symbol] = child;
+                    queue.add(child);
+                } else {
+                    goTo[state * classes + symbol] = fallback;
+                }
+            }
+        }
+
+        // Re-express states as row offsets
+        this.next = new int[states * classes];
+        this.priority = new int[states * classes];
+        for (int i = 0; i < goTo.length; i++) {
+            next[i] = goTo[i] * classes;
+        }
+        for (int s = 0; s < states; s++) {
+            priority[s * classes] = best[s];
+        }
+    }
+
+    /** Advances from {@code state} (0 is the start) by one character. */
+    int step(int state, char c) {
+        return next[state + (c < 128 ? asciiClass[c] : classOf[c])];
+    }
+
+    /** Best priority of the keywords ending at this state, or {@link #NO_MATCH}. */
+    int priority(int state) {
+        return priority[state];
+    }
+
+    /** Best priority found anywhere in {@code text}, or {@link #NO_MATCH}. */
+    int match(String text) {
+        int best = NO_MATCH;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, text.charAt(i));
+            int found = priority[state];
+            if (found < best) {
+                best = found;
+                if (best == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,54 @@
+package com.riskmonitor.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how many PDFs are laid out at once. iText rendering is CPU-bound,
+ * and the MVC async executor that runs streamed bodies is unbounded on
+ * virtual threads, so without this a burst of report requests would all
+ * render concurrently and slow every one of them down.
+ *
+ * A turn is taken by the request thread before the response starts (so a
+ * caller that cannot get one in time is answered 503) and handed back
+ * when the streamed body finishes.
+ */
+@Component
+public class RenderLimiter {
+
+    private final Semaphore permits;
+    private final long waitMillis;
+
+    public RenderLimiter(@Value("${report.render.concurrency:0}") int concurrency,
+                         @Value("${report.render.wait-ms:10000}") long waitMillis) {
+        this.permits = new Semaphore(concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors());
+        this.waitMillis = waitMillis;
+    }
+
+    /** Waits up to report.render.wait-ms for a turn; false if none came free. */
+    public boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Takes a turn only if one is free right now. */
+    public boolean tryAcquireNow() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /** Turns currently free. */
+    public int available() {
+        return permits.availablePermits();
+    }
+}
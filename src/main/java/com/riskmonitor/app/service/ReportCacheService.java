@@ -0,0 +1,345 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.dto.ReportCacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache for rendered customer reports.
+ *
+ * Keys are a SHA-256 digest of the customer id, the customerData tree and the
+ * charts map, so identical requests from different analysts share one render.
+ * Entries live in a byte-bounded LRU memory tier with a TTL, backed by an
+ * optional disk tier (enabled when report.cache.disk-dir is set). The disk
+ * tier is swept on a schedule: expired files are deleted, then the oldest
+ * ones until it is back under report.cache.disk-max-bytes, so it can only
+ * overshoot by what is written between sweeps.
+ */
+@Service
+public class ReportCacheService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Value("${report.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${report.cache.memory-max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${report.cache.max-entry-bytes:8388608}")
+    private int maxEntryBytes;
+
+    @Value("${report.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${report.cache.disk-dir:}")
+    private String diskDir;
+
+    @Value("${report.cache.disk-max-bytes:536870912}")
+    private long diskMaxBytes;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private Path diskPath;
+    private long ttlMillis;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private record Entry(byte[] data, long createdAt) {
+    }
+
+    private record DiskFile(Path path, long modified, long size) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        if (!diskDir.isBlank()) {
+            diskPath = Files.createDirectories(Paths.get(diskDir));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache key for a customer report request. {@code customerData} is the
+     * client's JSON payload or a {@code CustomerProfile} loaded server-side;
+     * either is hashed through its JSON form.
+     */
+    public String keyFor(String customerId, Object customerData, Map<String, String> charts) {
+        MessageDigest digest = sha256();
+        digest.update(customerId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (DigestOutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            MAPPER.writeValue(out, customerData);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not hash customer data", e);
+        }
+        if (charts != null) {
+            // Sorted so the key does not depend on the map's iteration order
+            for (Map.Entry<String, String> chart : new TreeMap<>(charts).entrySet()) {
+                digest.update((byte) 0);
+                digest.update(chart.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '=');
+                if (chart.getValue() != null) {
+                    digest.update(chart.getValue().getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Cached PDF for the key, or null. Checks memory first, then disk.
+     */
+    public byte[] get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (now - entry.createdAt() <= ttlMillis) {
+                    memoryHits.incrementAndGet();
+                    return entry.data();
+                }
+                memory.remove(key);
+                memoryBytes -= entry.data().length;
+                expirations.incrementAndGet();
+            }
+        }
+
+        byte[] fromDisk = readDisk(key, now);
+        if (fromDisk != null) {
+            diskHits.incrementAndGet();
+            putMemory(key, fromDisk, now);
+            return fromDisk;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Render into {@code out} and keep a copy for the cache. The copy is
+     * dropped (and nothing cached) once it grows past report.cache.max-entry-bytes,
+     * so large reports still stream without being held on the heap.
+     */
+    public void writeThrough(String key, OutputStream out, ReportWriter writer) throws Exception {
+        CapturingOutputStream tee = new CapturingOutputStream(out, maxEntryBytes);
+        writer.write(tee);
+        byte[] pdf = tee.captured();
+        if (pdf != null) {
+            put(key, pdf);
+        }
+    }
+
+    public void put(String key, byte[] pdf) {
+        if (pdf.length > maxEntryBytes) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        putMemory(key, pdf, now);
+        writeDisk(key, pdf);
+    }
+
+    public ReportCacheStats stats() {
+        synchronized (memory) {
+            return new ReportCacheStats(
+                    memoryHits.get(),
+                    diskHits.get(),
+                    misses.get(),
+                    evictions.get(),
+                    expirations.get(),
+                    memory.size(),
+                    memoryBytes,
+                    memoryMaxBytes,
+                    diskPath != null);
+        }
+    }
+
+    private void putMemory(String key, byte[] pdf, long now) {
+        synchronized (memory) {
+            Entry previous = memory.put(key, new Entry(pdf, now));
+            if (previous != null) {
+                memoryBytes -= previous.data().length;
+            }
+            memoryBytes += pdf.length;
+
+            Iterator<Entry> eldest = memory.values().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                memoryBytes -= evicted.data().length;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private byte[] readDisk(String key, long now) {
+        if (diskPath == null) {
+            return null;
+        }
+        Path file = diskPath.resolve(key + ".pdf");
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            if (now - Files.getLastModifiedTime(file).toMillis() > ttlMillis) {
+                Files.deleteIfExists(file);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes expired disk entries (and leftover temp files), then the
+     * oldest entries while the tier is over its size bound.
+     */
+    @Scheduled(fixedDelayString = "${report.cache.disk-sweep-ms:300000}")
+    public void sweepDisk() {
+        if (diskPath == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<DiskFile> kept = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskPath)) {
+            for (Path file : files) {
+                try {
+                    long modified = Files.getLastModifiedTime(file).toMillis();
+                    if (now - modified > ttlMillis) {
+                        Files.deleteIfExists(file);
+                        if (file.toString().endsWith(".pdf")) {
+                            expirations.incrementAndGet();
+                        }
+                    } else if (file.toString().endsWith(".pdf")) {
+                        long size = Files.size(file);
+                        kept.add(new DiskFile(file, modified, size));
+                        total += size;
+                    }
+                } catch (IOException ignored) {
+                    // Deleted by a concurrent write or sweep
+                }
+            }
+        } catch (IOException ignored) {
+            return;
+        }
+
+        kept.sort(Comparator.comparingLong(DiskFile::modified));
+        for (Iterator<DiskFile> oldest = kept.iterator(); total > diskMaxBytes && oldest.hasNext(); ) {
+            DiskFile file = oldest.next();
+            try {
+                Files.deleteIfExists(file.path());
+                total -= file.size();
+                evictions.incrementAndGet();
+            } catch (IOException ignored) {
+                // Try the next one
+            }
+        }
+    }
+
+    private void writeDisk(String key, byte[] pdf) {
+        if (diskPath == null) {
+            return;
+        }
+        try {
+            // Write then rename so readers never see a partial file
+            Path tmp = Files.createTempFile(diskPath, key, ".tmp");
+            Files.write(tmp, pdf);
+            Files.move(tmp, diskPath.resolve(key + ".pdf"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+            // Disk tier is best effort; the memory tier already has the entry
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Passes writes through to the target while keeping a bounded copy.
+     */
+    private static class CapturingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream target, int limit) {
+            this.target = target;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
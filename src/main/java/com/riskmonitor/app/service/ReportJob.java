@@ -0,0 +1,36 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory record of a bulk report rendered in the background.
+ * The finished PDF is kept in the {@link ReportStore} under the same id;
+ * the customer payload is dropped once the job finishes.
+ */
+@Data
+public class ReportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String reportId;
+    private final List<String> customerIds;
+    private final String reportType;
+    private final String generatedBy;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Map<String, JsonNode> customerData;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant completedAt;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+}
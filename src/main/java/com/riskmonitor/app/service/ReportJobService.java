@@ -0,0 +1,124 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders bulk reports on a bounded background executor so web threads are
+ * released as soon as a job is accepted. When every worker is busy and the
+ * queue is full, submissions are rejected instead of piling up. Finished
+ * reports are written to the {@link ReportStore} under the job's id; the
+ * job records themselves are pruned on a schedule once retention passes.
+ */
+@Service
+public class ReportJobService {
+
+    @Autowired
+    private BulkReportService bulkReportService;
+
+    @Autowired
+    private ReportStore reportStore;
+
+    @Value("${report.jobs.concurrency:2}")
+    private int concurrency;
+
+    @Value("${report.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${report.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "report-job-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a bulk report for rendering.
+     *
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public ReportJob submitBulkReport(List<String> customerIds, String reportType, String generatedBy,
+            Map<String, JsonNode> customerData) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), customerIds, reportType, generatedBy);
+        job.setCustomerData(customerData);
+        jobs.put(job.getReportId(), job);
+        try {
+            executor.execute(() -> render(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getReportId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(String reportId) {
+        return Optional.ofNullable(jobs.get(reportId));
+    }
+
+    private void render(ReportJob job) {
+        job.setStatus(ReportJob.Status.RUNNING);
+        try {
+            StoredReport stored = reportStore.writeThrough(job.getReportId(), null, job.getReportType(),
+                    job.getGeneratedBy(), OutputStream.nullOutputStream(),
+                    out -> bulkReportService.writeBulkReport(job.getCustomerIds(), job.getReportType(),
+                            job.getGeneratedBy(), job.getCustomerData(), out));
+            job.setSizeBytes(stored.getSize());
+            finish(job, ReportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            job.setError(e.getMessage());
+            finish(job, ReportJob.Status.FAILED);
+        }
+    }
+
+    private static void finish(ReportJob job, ReportJob.Status status) {
+        job.setCustomerData(null);
+        // completedAt is set before the status, so a finished job always has one
+        job.setCompletedAt(Instant.now());
+        job.setStatus(status);
+    }
+
+    @Scheduled(fixedDelayString = "${report.jobs.prune-ms:60000}")
+    public void pruneExpiredJobs() {
+        // Only the status records expire; completed reports stay in the ReportStore
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+}
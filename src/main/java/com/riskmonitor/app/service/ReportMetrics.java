@@ -0,0 +1,68 @@
+package com.riskmonitor.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Report rendering meters: time per customer-report phase, size of every
+ * PDF produced and renders that failed mid-stream (the response is already
+ * a 200 by then, so http.server.requests cannot see them). Timers and sizes
+ * publish histograms so Prometheus can compute percentiles across instances.
+ *
+ * Phases are timed back to back: {@link #phase} records the time since the
+ * previous mark and returns the new mark.
+ */
+@Component
+public class ReportMetrics {
+
+    public static final List<String> PHASES = List.of("cover", "summary", "charts", "transactions", "alerts", "close");
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> phases;
+    private final Map<String, DistributionSummary> sizes = new ConcurrentHashMap<>();
+    private final Counter failures;
+
+    public ReportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.phases = PHASES.stream().collect(Collectors.toUnmodifiableMap(Function.identity(),
+                phase -> Timer.builder("report.render.phase")
+                        .description("Time spent laying out one phase of a customer report")
+                        .tag("phase", phase)
+                        .publishPercentileHistogram()
+                        .register(registry)));
+        this.failures = Counter.builder("report.render.failures")
+                .description("Reports that failed after streaming had started")
+                .register(registry);
+    }
+
+    /** Records the time since {@code startedNanos} against the phase; returns the current time. */
+    public long phase(String phase, long startedNanos) {
+        long now = System.nanoTime();
+        phases.get(phase).record(now - startedNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /** @param type customer, bulk, bulk-section or stored */
+    public void pdfSize(String type, long bytes) {
+        sizes.computeIfAbsent(type, key -> DistributionSummary.builder("report.pdf.size")
+                .description("Size of generated PDFs")
+                .baseUnit("bytes")
+                .tag("type", key)
+                .publishPercentileHistogram()
+                .register(registry)).record(bytes);
+    }
+
+    public void failed() {
+        failures.increment();
+    }
+}
@@ -1,23 +1,34 @@
 package com.riskmonitor.app.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.itextpdf.io.image.ImageDataFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.RootElement;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.borders.SolidBorder;
+import com.riskmonitor.app.dto.CustomerProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
@@ -31,27 +42,111 @@ public class ReportService {
     private static final Color DARK_BG = new DeviceRgb(8, 11, 17);
     private static final Color GRAY_TEXT = new DeviceRgb(148, 163, 184);
 
+    private static final List<String> CHART_NAMES = List.of("cashFlow", "creditScore", "paymentHistory", "liquidity");
+    private static final List<String> SECTION_TITLES = List.of("EXECUTIVE SUMMARY", "FINANCIAL SUMMARY",
+            "VISUAL ANALYTICS", "TRANSACTION PATTERN ANALYSIS", "RECENT ALERTS");
+
+    // Report labels by TransactionFlagger severity; the last one is Normal
+    private static final List<String> FLAG_LABELS = Stream.concat(
+            TransactionFlagger.LEVELS.stream().map(level -> "⚠ " + level), Stream.of("✓ Normal")).toList();
+
+    private static final ObjectMapper CUSTOMER_READER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ChartImageCache chartImageCache;
+    private final ChartRenderer chartRenderer;
+    private final TransactionFlagger transactionFlagger;
+    private final Map<String, Consumer<RootElement<?>>> staticBlocks;
+    private final ReportTemplates templates;
+    private final ReportMetrics metrics;
+
+    @Autowired
+    public ReportService(ChartImageCache chartImageCache, ChartRenderer chartRenderer,
+            TransactionFlagger transactionFlagger, @Value("${report.templates.enabled:true}") boolean useTemplates,
+            ReportMetrics metrics) {
+        this.chartImageCache = chartImageCache;
+        this.chartRenderer = chartRenderer;
+        this.transactionFlagger = transactionFlagger;
+        this.staticBlocks = defineStaticBlocks();
+        this.templates = useTemplates ? new ReportTemplates(staticBlocks) : null;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Unregistered meters, for benchmarks and tests.
+     */
+    public ReportService(ChartImageCache chartImageCache, ChartRenderer chartRenderer,
+            TransactionFlagger transactionFlagger, boolean useTemplates) {
+        this(chartImageCache, chartRenderer, transactionFlagger, useTemplates,
+                new ReportMetrics(new SimpleMeterRegistry()));
+    }
+
     /**
      * Generate individual customer report with charts
      */
     public byte[] generateCustomerReport(String customerId, JsonNode customerData, Map<String, String> charts)
             throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
+        writeCustomerReport(customerId, customerData, charts, baos);
+        return baos.toByteArray();
+    }
 
-        // Extract data
-        JsonNode profile = customerData.get("profile");
-        JsonNode financialSummary = customerData.get("financialSummary");
-        JsonNode riskAssessment = customerData.get("riskAssessment");
-        JsonNode recentTransactions = customerData.get("recentTransactions");
-        JsonNode alerts = customerData.get("alerts");
+    /**
+     * Render individual customer report from a client-supplied customerData
+     * payload. The payload is bound to {@link CustomerProfile} once; fields
+     * the report does not use (photo, savingsRate, colors, ...) are ignored.
+     */
+    public void writeCustomerReport(String customerId, JsonNode customerData, Map<String, String> charts,
+            OutputStream out) throws Exception {
+        writeCustomerReport(customerId, CUSTOMER_READER.treeToValue(customerData, CustomerProfile.class), charts,
+                out);
+    }
+
+    /**
+     * Render individual customer report directly into the given stream.
+     * Pages are flushed as soon as they are laid out, so the caller's stream
+     * starts receiving bytes before the document is finished. The stream is
+     * left open.
+     */
+    public void writeCustomerReport(String customerId, CustomerProfile customer, Map<String, String> charts,
+            OutputStream out) throws Exception {
+        writeCustomerReport(customerId, customer, charts, out, false);
+    }
+
+    /**
+     * One customer's section of a detailed bulk report. Rendered like a
+     * customer report, but its size is recorded as bulk-section and its
+     * phases are not timed, so bulk jobs do not skew the customer report
+     * histograms.
+     */
+    byte[] generateBulkSection(String customerId, JsonNode customerData) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeCustomerReport(customerId, CUSTOMER_READER.treeToValue(customerData, CustomerProfile.class), null, baos,
+                true);
+        return baos.toByteArray();
+    }
+
+    private void writeCustomerReport(String customerId, CustomerProfile customer, Map<String, String> charts,
+            OutputStream out, boolean section) throws Exception {
+        boolean timed = !section;
+        long mark = System.nanoTime();
+        Document document = openDocument(out);
 
-        String customerName = profile.get("name").asText();
-        String status = profile.get("status").asText();
-        int creditScore = profile.get("creditScore").asInt();
-        int riskPercentage = riskAssessment.get("riskPercentage").asInt();
+        // Extract data
+        CustomerProfile.Profile profile = customer.getProfile();
+        CustomerProfile.FinancialSummary financialSummary = customer.getFinancialSummary();
+        List<CustomerProfile.TransactionItem> recentTransactions = customer.getRecentTransactions();
+        List<CustomerProfile.AlertItem> alerts = customer.getAlerts();
+
+        String customerName = profile.getName();
+        String status = profile.getStatus();
+        int creditScore = orZero(profile.getCreditScore());
+        int riskPercentage = orZero(customer.getRiskAssessment().getRiskPercentage());
+        int monthlyIncome = amount(financialSummary.getMonthlyIncome());
+        int monthlyExpenses = amount(financialSummary.getMonthlyExpenses());
+        int netWorth = amount(financialSummary.getNetWorth());
+        int totalDebt = amount(financialSummary.getTotalDebt());
 
         // ═══════════════════════════════════════════════════════════
         // PAGE 1 — COVER PAGE
@@ -106,17 +201,14 @@ public class ReportService {
                 .setFontSize(11)
                 .setMarginTop(2));
 
+        mark = phase("cover", mark, timed);
+
         // ═══════════════════════════════════════════════════════════
         // PAGE 2 — EXECUTIVE SUMMARY
         // ═══════════════════════════════════════════════════════════
         document.add(new AreaBreak());
 
-        document.add(new Paragraph("EXECUTIVE SUMMARY")
-                .setFontSize(18)
-                .setBold()
-                .setBackgroundColor(ACCENT_COLOR)
-                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
-                .setPadding(5));
+        addStaticBlock(document, "EXECUTIVE SUMMARY");
 
         String summary = String.format(
                 "%s (ID: %s) presents a %s delinquency risk with a %d%% probability of default within the next 30 days. "
@@ -129,11 +221,11 @@ public class ReportService {
         document.add(new Paragraph("Key Findings:").setBold().setFontSize(12));
 
         List<String> findings = List.of(
-                "Credit Score: " + creditScore + " (" + profile.get("creditScoreStatus").asText() + ")",
-                "Monthly Income: ₹" + formatCurrency(financialSummary.get("monthlyIncome").asInt()),
-                "Monthly Expenses: ₹" + formatCurrency(financialSummary.get("monthlyExpenses").asInt()),
-                "Net Worth: ₹" + formatCurrency(financialSummary.get("netWorth").asInt()),
-                "Total Debt: ₹" + formatCurrency(financialSummary.get("totalDebt").asInt()),
+                "Credit Score: " + creditScore + " (" + profile.getCreditScoreStatus() + ")",
+                "Monthly Income: ₹" + formatCurrency(monthlyIncome),
+                "Monthly Expenses: ₹" + formatCurrency(monthlyExpenses),
+                "Net Worth: ₹" + formatCurrency(netWorth),
+                "Total Debt: ₹" + formatCurrency(totalDebt),
                 "Risk Level: " + status + " (" + riskPercentage + "%)");
 
         for (String finding : findings) {
@@ -145,12 +237,7 @@ public class ReportService {
         // ═══════════════════════════════════════════════════════════
         document.add(new AreaBreak());
 
-        document.add(new Paragraph("FINANCIAL SUMMARY")
-                .setFontSize(18)
-                .setBold()
-                .setBackgroundColor(ACCENT_COLOR)
-                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
-                .setPadding(5));
+        addStaticBlock(document, "FINANCIAL SUMMARY");
 
         // Financial table
         Table financialTable = new Table(new float[] { 3, 2, 1 });
@@ -161,35 +248,30 @@ public class ReportService {
         addTableHeader(financialTable, "Metric", "Amount (₹)", "Status");
 
         // Rows
-        addFinancialRow(financialTable, "Monthly Income", financialSummary.get("monthlyIncome").asInt(), "Normal");
-        addFinancialRow(financialTable, "Monthly Expenses", financialSummary.get("monthlyExpenses").asInt(),
-                financialSummary.get("monthlyExpenses").asInt() > financialSummary.get("monthlyIncome").asInt() ? "High"
-                        : "Normal");
-        addFinancialRow(financialTable, "Total Assets", financialSummary.get("totalAssets").asInt(), "Normal");
-        addFinancialRow(financialTable, "Total Liabilities", financialSummary.get("totalLiabilities").asInt(), "High");
-        addFinancialRow(financialTable, "Net Worth", financialSummary.get("netWorth").asInt(),
-                financialSummary.get("netWorth").asInt() < 0 ? "Critical" : "Normal");
-        addFinancialRow(financialTable, "Total Debt", financialSummary.get("totalDebt").asInt(), "High");
+        addFinancialRow(financialTable, "Monthly Income", monthlyIncome, "Normal");
+        addFinancialRow(financialTable, "Monthly Expenses", monthlyExpenses,
+                monthlyExpenses > monthlyIncome ? "High" : "Normal");
+        addFinancialRow(financialTable, "Total Assets", amount(financialSummary.getTotalAssets()), "Normal");
+        addFinancialRow(financialTable, "Total Liabilities", amount(financialSummary.getTotalLiabilities()), "High");
+        addFinancialRow(financialTable, "Net Worth", netWorth, netWorth < 0 ? "Critical" : "Normal");
+        addFinancialRow(financialTable, "Total Debt", totalDebt, "High");
 
         document.add(financialTable);
+        mark = phase("summary", mark, timed);
 
         // ═══════════════════════════════════════════════════════════
         // PAGE 4 — VISUAL ANALYTICS (Charts)
         // ═══════════════════════════════════════════════════════════
         document.add(new AreaBreak());
 
-        document.add(new Paragraph("VISUAL ANALYTICS")
-                .setFontSize(18)
-                .setBold()
-                .setBackgroundColor(ACCENT_COLOR)
-                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
-                .setPadding(5));
+        addStaticBlock(document, "VISUAL ANALYTICS");
 
-        // Add charts if provided
-        if (charts != null && !charts.isEmpty()) {
+        // Add charts if provided — drawn from the customer's series when present,
+        // otherwise taken from the client-rendered images
+        if (CHART_NAMES.stream().anyMatch(name -> hasChart(name, charts, customer))) {
 
             // Cash Flow Chart
-            if (charts.containsKey("cashFlow")) {
+            if (hasChart("cashFlow", charts, customer)) {
                 document.add(new Paragraph("1. Cash Flow Analysis")
                         .setBold()
                         .setFontSize(14)
@@ -200,7 +282,7 @@ public class ReportService {
                         .setFontColor(GRAY_TEXT)
                         .setMarginBottom(5));
 
-                addChartImage(document, charts.get("cashFlow"));
+                addChart(document, "cashFlow", charts, customer);
 
                 // Key Finding Box
                 Paragraph keyFinding = new Paragraph()
@@ -218,33 +300,19 @@ public class ReportService {
                                 "and directly contributes to savings depletion. At current burn rate, liquid assets will be exhausted "
                                 +
                                 "within 45 days, forcing reliance on high-interest payday loans.",
-                        formatCurrency(financialSummary.get("monthlyExpenses").asInt()),
-                        formatCurrency(financialSummary.get("monthlyIncome").asInt()),
-                        formatCurrency(financialSummary.get("monthlyExpenses").asInt()
-                                - financialSummary.get("monthlyIncome").asInt())))
+                        formatCurrency(monthlyExpenses),
+                        formatCurrency(monthlyIncome),
+                        formatCurrency(monthlyExpenses - monthlyIncome)))
                         .setFontSize(10));
 
                 document.add(keyFinding);
 
                 // What This Means
-                document.add(new Paragraph("What This Means:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(5));
-
-                com.itextpdf.layout.element.List whatThisMeans = new com.itextpdf.layout.element.List()
-                        .setMarginLeft(15)
-                        .setFontSize(10);
-                whatThisMeans.add("Income (green line) remains stable but expenses (red line) are consistently higher");
-                whatThisMeans.add("The red shaded area above the green line represents accumulated debt each month");
-                whatThisMeans.add("Customer is borrowing or depleting savings to cover the gap");
-                whatThisMeans.add("Without intervention, this pattern leads to certain default within 30 days");
-
-                document.add(whatThisMeans);
+                addStaticBlock(document, "cashFlowGuide");
             }
 
             // Credit Score Chart
-            if (charts.containsKey("creditScore")) {
+            if (hasChart("creditScore", charts, customer)) {
                 document.add(new AreaBreak());
                 document.add(new Paragraph("2. Credit Score Trend")
                         .setBold()
@@ -256,7 +324,7 @@ public class ReportService {
                         .setFontColor(GRAY_TEXT)
                         .setMarginBottom(5));
 
-                addChartImage(document, charts.get("creditScore"));
+                addChart(document, "creditScore", charts, customer);
 
                 // Calculate credit score drop
                 int currentScore = creditScore;
@@ -285,57 +353,26 @@ public class ReportService {
                         currentScore,
                         pointsDrop,
                         currentScore,
-                        profile.get("creditScoreStatus").asText())).setFontSize(10));
+                        profile.getCreditScoreStatus())).setFontSize(10));
 
                 document.add(creditFinding);
 
                 // Score Interpretation
-                document.add(new Paragraph("Score Interpretation:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(5));
-
-                Table scoreTable = new Table(new float[] { 2, 3 });
-                scoreTable.setWidth(UnitValue.createPercentValue(80));
-                scoreTable.setMarginLeft(15);
-
-                addScoreInterpretationRow(scoreTable, "750-900", "Excellent - Best rates, no deposit required",
-                        LOW_COLOR);
-                addScoreInterpretationRow(scoreTable, "700-749", "Good - Favorable terms available", LOW_COLOR);
-                addScoreInterpretationRow(scoreTable, "650-699", "Fair - Higher interest rates", MEDIUM_COLOR);
-                addScoreInterpretationRow(scoreTable, "600-649", "Poor - Limited options, high cost", HIGH_COLOR);
-                addScoreInterpretationRow(scoreTable, "Below 600", "Very Poor - Loan rejection likely", CRITICAL_COLOR);
-
-                document.add(scoreTable);
+                addStaticBlock(document, "scoreInterpretation");
 
                 document.add(new Paragraph(
-                        "\n→ Current Score: " + currentScore + " (" + profile.get("creditScoreStatus").asText() + ")")
+                        "\n→ Current Score: " + currentScore + " (" + profile.getCreditScoreStatus() + ")")
                         .setBold()
                         .setFontSize(10)
                         .setMarginLeft(15)
                         .setMarginTop(5));
 
                 // What Caused the Decline
-                document.add(new Paragraph("Primary Factors Causing Decline:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(10));
-
-                com.itextpdf.layout.element.List declineFactors = new com.itextpdf.layout.element.List()
-                        .setMarginLeft(15)
-                        .setFontSize(10);
-                declineFactors.add("Payment History (35% of score): Multiple late/missed payments detected");
-                declineFactors.add("Credit Utilization (30% of score): Using 90%+ of available credit");
-                declineFactors
-                        .add("Length of Credit History (15% of score): Recent defaults damaging long-term profile");
-                declineFactors.add("New Credit Inquiries (10% of score): Multiple payday loan applications");
-                declineFactors.add("Credit Mix (10% of score): Over-reliance on high-interest short-term credit");
-
-                document.add(declineFactors);
+                addStaticBlock(document, "declineFactors");
             }
 
             // Payment History Chart
-            if (charts.containsKey("paymentHistory")) {
+            if (hasChart("paymentHistory", charts, customer)) {
                 document.add(new AreaBreak());
                 document.add(new Paragraph("3. Payment Performance Collapse")
                         .setBold()
@@ -348,7 +385,7 @@ public class ReportService {
                                 .setFontColor(GRAY_TEXT)
                                 .setMarginBottom(5));
 
-                addChartImage(document, charts.get("paymentHistory"));
+                addChart(document, "paymentHistory", charts, customer);
 
                 // Key Finding Box
                 Paragraph paymentFinding = new Paragraph()
@@ -372,38 +409,10 @@ public class ReportService {
                 document.add(paymentFinding);
 
                 // How to Read This Chart
-                document.add(new Paragraph("How to Read This Chart:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(5));
-
-                com.itextpdf.layout.element.List chartGuide = new com.itextpdf.layout.element.List()
-                        .setMarginLeft(15)
-                        .setFontSize(10);
-                chartGuide.add("Green (bottom) = Payments made on time or early");
-                chartGuide.add("Red (top) = Payments made late or missed entirely");
-                chartGuide.add("Total bar height = 100% of all monthly payment obligations");
-                chartGuide.add("Trend: Green shrinking, Red growing = Payment collapse in progress");
-
-                document.add(chartGuide);
+                addStaticBlock(document, "paymentChartGuide");
 
                 // Risk Interpretation
-                document.add(new Paragraph("Payment Behavior Risk Levels:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(10));
-
-                Table riskTable = new Table(new float[] { 2, 3, 2 });
-                riskTable.setWidth(UnitValue.createPercentValue(90));
-                riskTable.setMarginLeft(15);
-
-                addTableHeader(riskTable, "On-Time %", "Interpretation", "Risk Level");
-                addPaymentRiskRow(riskTable, "95-100%", "Excellent payment history, very low risk", "Low");
-                addPaymentRiskRow(riskTable, "85-94%", "Good history, occasional delays", "Medium");
-                addPaymentRiskRow(riskTable, "70-84%", "Concerning pattern, monitoring required", "High");
-                addPaymentRiskRow(riskTable, "Below 70%", "Payment collapse, default imminent", "Critical");
-
-                document.add(riskTable);
+                addStaticBlock(document, "paymentRiskLevels");
 
                 document.add(new Paragraph("\n→ Customer's Current Rate: 50% (Critical Risk Zone)")
                         .setBold()
@@ -429,7 +438,7 @@ public class ReportService {
             }
 
             // Liquidity Chart
-            if (charts.containsKey("liquidity")) {
+            if (hasChart("liquidity", charts, customer)) {
                 document.add(new AreaBreak());
                 document.add(new Paragraph("4. Liquidity Crisis & Savings Depletion")
                         .setBold()
@@ -441,7 +450,7 @@ public class ReportService {
                         .setFontColor(GRAY_TEXT)
                         .setMarginBottom(5));
 
-                addChartImage(document, charts.get("liquidity"));
+                addChart(document, "liquidity", charts, customer);
 
                 // Calculate depletion stats from data if available
                 int depletionPercent = 57; // From sample data
@@ -467,95 +476,33 @@ public class ReportService {
                                 +
                                 "creating an irreversible debt spiral.",
                         depletionPercent,
-                        formatCurrency(Math.abs(financialSummary.get("monthlyExpenses").asInt()
-                                - financialSummary.get("monthlyIncome").asInt()))))
+                        formatCurrency(Math.abs(monthlyExpenses - monthlyIncome))))
                         .setFontSize(10));
 
                 document.add(liquidityFinding);
 
                 // How to Read This Chart
-                document.add(new Paragraph("Understanding Liquidity Levels:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(5));
-
-                com.itextpdf.layout.element.List liquidityGuide = new com.itextpdf.layout.element.List()
-                        .setMarginLeft(15)
-                        .setFontSize(10);
-                liquidityGuide.add("Blue bars = Healthy liquidity (above ₹50,000)");
-                liquidityGuide.add("Orange bars = Warning zone (₹30,000-₹50,000)");
-                liquidityGuide.add("Red bars = Critical zone (below ₹30,000)");
-                liquidityGuide.add("Declining trend = Customer burning through savings to cover monthly deficit");
-                liquidityGuide.add("Each bar drop = Permanent reduction in financial safety net");
-
-                document.add(liquidityGuide);
+                addStaticBlock(document, "liquidityGuide");
 
                 // Depletion Timeline
-                document.add(new Paragraph("Projected Depletion Timeline:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(10));
-
-                Table timelineTable = new Table(new float[] { 2, 4, 2 });
-                timelineTable.setWidth(UnitValue.createPercentValue(90));
-                timelineTable.setMarginLeft(15);
-
-                addTableHeader(timelineTable, "Timeframe", "What Happens", "Action Window");
-                addTimelineRow(timelineTable, "Days 1-15",
-                        "Remaining liquid assets fall below ₹20K - Emergency threshold breached", "URGENT");
-                addTimelineRow(timelineTable, "Days 16-30",
-                        "Liquid assets reach ₹10K - Cannot cover single unexpected expense", "CRITICAL");
-                addTimelineRow(timelineTable, "Days 31-45",
-                        "Zero liquid assets - Forced to take payday loans for basic needs", "TOO LATE");
-                addTimelineRow(timelineTable, "Days 46-60",
-                        "Payday loan debt compounds - Financial recovery nearly impossible", "DEFAULTED");
-
-                document.add(timelineTable);
+                addStaticBlock(document, "depletionTimeline");
 
                 // What Liquid Assets Mean
-                document.add(new Paragraph("\nWhy Liquidity Matters:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(10));
-
-                document.add(new Paragraph(
-                        "Liquid assets are cash or near-cash that can be accessed immediately - savings accounts, " +
-                                "fixed deposits with no penalty, emergency funds. This is the LAST LINE OF DEFENSE before default. "
-                                +
-                                "Once depleted, customer has no choice but to miss payments or take predatory high-interest loans "
-                                +
-                                "(24-36% APR). Our data shows 92% of customers who hit zero liquidity default within 60 days.")
-                        .setFontSize(10).setMarginLeft(15).setMarginTop(5));
+                addStaticBlock(document, "whyLiquidityMatters");
 
                 // Comparison to Healthy Customer
-                document.add(new Paragraph("Comparison to Healthy Customer Profile:")
-                        .setBold()
-                        .setFontSize(11)
-                        .setMarginTop(10));
-
-                com.itextpdf.layout.element.List comparisonList = new com.itextpdf.layout.element.List()
-                        .setMarginLeft(15)
-                        .setFontSize(10);
-                comparisonList.add("Healthy Customer: ₹1,20,000+ liquid assets (3-4 months expenses)");
-                comparisonList.add("This Customer: ₹25,000 liquid assets (0.5 months expenses)");
-                comparisonList.add("Gap: 79% below healthy benchmark");
-                comparisonList.add("Risk: Cannot survive single unexpected expense (medical, car repair, etc.)");
-
-                document.add(comparisonList);
+                addStaticBlock(document, "healthyComparison");
             }
         }
 
+        mark = phase("charts", mark, timed);
+
         // ═══════════════════════════════════════════════════════════
         // PAGE 5 — RECENT TRANSACTIONS
         // ═══════════════════════════════════════════════════════════
         document.add(new AreaBreak());
 
-        document.add(new Paragraph("TRANSACTION PATTERN ANALYSIS")
-                .setFontSize(18)
-                .setBold()
-                .setBackgroundColor(ACCENT_COLOR)
-                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
-                .setPadding(5));
+        addStaticBlock(document, "TRANSACTION PATTERN ANALYSIS");
 
         document.add(
                 new Paragraph("Analysis of the last 30 days of transaction data reveals several high-risk patterns:")
@@ -568,13 +515,13 @@ public class ReportService {
 
         addTableHeader(txTable, "Date", "Transaction", "Amount", "Risk Flag");
 
-        for (JsonNode tx : recentTransactions) {
-            String date = tx.get("date").asText();
-            String description = tx.get("description").asText();
-            int amount = tx.get("amount").asInt();
-            String type = tx.get("type").asText();
+        for (CustomerProfile.TransactionItem tx : recentTransactions != null ? recentTransactions
+                : List.<CustomerProfile.TransactionItem>of()) {
+            String date = tx.getDate();
+            String description = tx.getDescription();
+            int amount = amount(tx.getAmount());
 
-            String riskFlag = getRiskFlag(description);
+            String riskFlag = tx.getRiskFlag() != null ? displayFlag(tx.getRiskFlag()) : getRiskFlag(description);
 
             txTable.addCell(new Cell().add(new Paragraph(date).setFontSize(9)));
             txTable.addCell(new Cell().add(new Paragraph(description).setFontSize(9)));
@@ -584,24 +531,20 @@ public class ReportService {
         }
 
         document.add(txTable);
+        mark = phase("transactions", mark, timed);
 
         // ═══════════════════════════════════════════════════════════
         // PAGE 6 — ALERTS & RECOMMENDATIONS
         // ═══════════════════════════════════════════════════════════
         document.add(new AreaBreak());
 
-        document.add(new Paragraph("RECENT ALERTS")
-                .setFontSize(18)
-                .setBold()
-                .setBackgroundColor(ACCENT_COLOR)
-                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
-                .setPadding(5));
+        addStaticBlock(document, "RECENT ALERTS");
 
-        if (alerts != null && alerts.size() > 0) {
-            for (JsonNode alert : alerts) {
-                String alertType = alert.get("type").asText();
-                String message = alert.get("message").asText();
-                String date = alert.get("date").asText();
+        if (alerts != null && !alerts.isEmpty()) {
+            for (CustomerProfile.AlertItem alert : alerts) {
+                String alertType = alert.getType();
+                String message = alert.getMessage();
+                String date = alert.getDate();
 
                 Color alertColor = getAlertColor(alertType);
 
@@ -620,35 +563,10 @@ public class ReportService {
         }
 
         // Recommendations
-        document.add(new Paragraph("\nRECOMMENDED INTERVENTION STRATEGY")
-                .setFontSize(16)
-                .setBold()
-                .setMarginTop(20));
-
-        List<String> recommendations = List.of(
-                "IMMEDIATE CONTACT (Within 24 Hours): Phone call from relationship manager, express concern and willingness to help",
-                "PAYMENT RESTRUCTURING (Days 2-7): Offer EMI moratorium for 2 months, reduce monthly EMI by 35%, waive all late fees",
-                "FINANCIAL COUNSELING (Ongoing): Enroll in mandatory financial literacy program, create realistic monthly budget",
-                "MONITORING & SUPPORT (Days 8-60): Real-time transaction monitoring, weekly check-in calls for first month");
-
-        int recNum = 1;
-        for (String rec : recommendations) {
-            document.add(new Paragraph(recNum + ". " + rec)
-                    .setFontSize(10)
-                    .setMarginTop(8)
-                    .setMarginLeft(15));
-            recNum++;
-        }
+        addStaticBlock(document, "recommendations");
 
         // Footer
-        document.add(new Paragraph("\n\n_____________________________________________________________________")
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(30));
-
-        document.add(new Paragraph("Report Generated By: RiskAvert AI Platform v2.1")
-                .setFontSize(9)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setFontColor(GRAY_TEXT));
+        addStaticBlock(document, "footer");
 
         document.add(new Paragraph("Analysis Date: "
                 + LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' hh:mm a")))
@@ -661,9 +579,12 @@ public class ReportService {
                 .setTextAlignment(TextAlignment.CENTER)
                 .setFontColor(GRAY_TEXT)
                 .setMarginBottom(10));
+        mark = phase("alerts", mark, timed);
 
+        PdfWriter writer = document.getPdfDocument().getWriter();
         document.close();
-        return baos.toByteArray();
+        phase("close", mark, timed);
+        recordPdfSize(section ? "bulk-section" : "customer", writer);
     }
 
     /**
@@ -671,9 +592,25 @@ public class ReportService {
      */
     public byte[] generateBulkReport(List<String> customerIds, String reportType, String generatedBy) throws Exception {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
+        writeBulkReport(customerIds, reportType, generatedBy, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Render bulk report directly into the given stream. The stream is left open.
+     */
+    public void writeBulkReport(List<String> customerIds, String reportType, String generatedBy, OutputStream out)
+            throws Exception {
+        writeBulkReport(customerIds, reportType, generatedBy, false, out);
+    }
+
+    /**
+     * Render bulk report overview. When {@code detailedSections} is set, the
+     * per-customer sections are appended by the caller (see BulkReportService).
+     */
+    public void writeBulkReport(List<String> customerIds, String reportType, String generatedBy,
+            boolean detailedSections, OutputStream out) throws Exception {
+        Document document = openDocument(out);
 
         // Cover page
         document.add(new Paragraph(reportType.toUpperCase())
@@ -720,25 +657,36 @@ public class ReportService {
             num++;
         }
 
-        document.add(new Paragraph("\n\nFor detailed individual reports, please use the customer profile page.")
+        document.add(new Paragraph(detailedSections
+                ? "\n\nDetailed individual reports follow, in the order listed above."
+                : "\n\nFor detailed individual reports, please use the customer profile page.")
                 .setMarginTop(30)
                 .setFontSize(10)
                 .setFontColor(GRAY_TEXT)
                 .setItalic());
 
+        PdfWriter writer = document.getPdfDocument().getWriter();
         document.close();
-        return baos.toByteArray();
+        if (!detailedSections) {
+            recordPdfSize("bulk", writer);
+        }
     }
 
     /**
      * Get stored report (placeholder for demo)
      */
     public byte[] getStoredReport(String reportId) throws Exception {
-        // For hackathon, return a simple placeholder PDF
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
+        writeStoredReport(reportId, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Write stored report into the given stream. The stream is left open.
+     */
+    public void writeStoredReport(String reportId, OutputStream out) throws Exception {
+        // For hackathon, return a simple placeholder PDF
+        Document document = openDocument(out);
 
         document.add(new Paragraph("STORED REPORT")
                 .setFontSize(24)
@@ -757,24 +705,330 @@ public class ReportService {
                 .setMarginTop(10)
                 .setFontColor(GRAY_TEXT));
 
+        PdfWriter writer = document.getPdfDocument().getWriter();
         document.close();
-        return baos.toByteArray();
+        recordPdfSize("stored", writer);
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // STATIC BLOCKS — identical in every report, laid out once at startup
+    // ═══════════════════════════════════════════════════════════
+
+    private Map<String, Consumer<RootElement<?>>> defineStaticBlocks() {
+        Map<String, Consumer<RootElement<?>>> blocks = new LinkedHashMap<>();
+        for (String title : SECTION_TITLES) {
+            blocks.put(title, target -> sectionHeaderBlock(target, title));
+        }
+        blocks.put("cashFlowGuide", this::cashFlowGuideBlock);
+        blocks.put("scoreInterpretation", this::scoreInterpretationBlock);
+        blocks.put("declineFactors", this::declineFactorsBlock);
+        blocks.put("paymentChartGuide", this::paymentChartGuideBlock);
+        blocks.put("paymentRiskLevels", this::paymentRiskLevelsBlock);
+        blocks.put("liquidityGuide", this::liquidityGuideBlock);
+        blocks.put("depletionTimeline", this::depletionTimelineBlock);
+        blocks.put("whyLiquidityMatters", this::whyLiquidityMattersBlock);
+        blocks.put("healthyComparison", this::healthyComparisonBlock);
+        blocks.put("recommendations", this::recommendationsBlock);
+        blocks.put("footer", this::footerBlock);
+        return blocks;
+    }
+
+    private void addStaticBlock(Document document, String name) {
+        if (templates != null) {
+            document.add(templates.get(name, document.getPdfDocument()));
+        } else {
+            staticBlocks.get(name).accept(document);
+        }
+    }
+
+    private void sectionHeaderBlock(RootElement<?> target, String title) {
+        target.add(new Paragraph(title)
+                .setFontSize(18)
+                .setBold()
+                .setBackgroundColor(ACCENT_COLOR)
+                .setFontColor(com.itextpdf.kernel.colors.ColorConstants.WHITE)
+                .setPadding(5));
+    }
+
+    private void cashFlowGuideBlock(RootElement<?> target) {
+        target.add(new Paragraph("What This Means:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(5));
+
+        com.itextpdf.layout.element.List whatThisMeans = new com.itextpdf.layout.element.List()
+                .setMarginLeft(15)
+                .setFontSize(10);
+        whatThisMeans.add("Income (green line) remains stable but expenses (red line) are consistently higher");
+        whatThisMeans.add("The red shaded area above the green line represents accumulated debt each month");
+        whatThisMeans.add("Customer is borrowing or depleting savings to cover the gap");
+        whatThisMeans.add("Without intervention, this pattern leads to certain default within 30 days");
+
+        target.add(whatThisMeans);
+    }
+
+    private void scoreInterpretationBlock(RootElement<?> target) {
+        target.add(new Paragraph("Score Interpretation:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(5));
+
+        Table scoreTable = new Table(new float[] { 2, 3 });
+        scoreTable.setWidth(UnitValue.createPercentValue(80));
+        scoreTable.setMarginLeft(15);
+
+        addScoreInterpretationRow(scoreTable, "750-900", "Excellent - Best rates, no deposit required",
+                LOW_COLOR);
+        addScoreInterpretationRow(scoreTable, "700-749", "Good - Favorable terms available", LOW_COLOR);
+        addScoreInterpretationRow(scoreTable, "650-699", "Fair - Higher interest rates", MEDIUM_COLOR);
+        addScoreInterpretationRow(scoreTable, "600-649", "Poor - Limited options, high cost", HIGH_COLOR);
+        addScoreInterpretationRow(scoreTable, "Below 600", "Very Poor - Loan rejection likely", CRITICAL_COLOR);
+
+        target.add(scoreTable);
+    }
+
+    private void declineFactorsBlock(RootElement<?> target) {
+        target.add(new Paragraph("Primary Factors Causing Decline:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(10));
+
+        com.itextpdf.layout.element.List declineFactors = new com.itextpdf.layout.element.List()
+                .setMarginLeft(15)
+                .setFontSize(10);
+        declineFactors.add("Payment History (35% of score): Multiple late/missed payments detected");
+        declineFactors.add("Credit Utilization (30% of score): Using 90%+ of available credit");
+        declineFactors
+                .add("Length of Credit History (15% of score): Recent defaults damaging long-term profile");
+        declineFactors.add("New Credit Inquiries (10% of score): Multiple payday loan applications");
+        declineFactors.add("Credit Mix (10% of score): Over-reliance on high-interest short-term credit");
+
+        target.add(declineFactors);
+    }
+
+    private void paymentChartGuideBlock(RootElement<?> target) {
+        target.add(new Paragraph("How to Read This Chart:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(5));
+
+        com.itextpdf.layout.element.List chartGuide = new com.itextpdf.layout.element.List()
+                .setMarginLeft(15)
+                .setFontSize(10);
+        chartGuide.add("Green (bottom) = Payments made on time or early");
+        chartGuide.add("Red (top) = Payments made late or missed entirely");
+        chartGuide.add("Total bar height = 100% of all monthly payment obligations");
+        chartGuide.add("Trend: Green shrinking, Red growing = Payment collapse in progress");
+
+        target.add(chartGuide);
+    }
+
+    private void paymentRiskLevelsBlock(RootElement<?> target) {
+        target.add(new Paragraph("Payment Behavior Risk Levels:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(10));
+
+        Table riskTable = new Table(new float[] { 2, 3, 2 });
+        riskTable.setWidth(UnitValue.createPercentValue(90));
+        riskTable.setMarginLeft(15);
+
+        addTableHeader(riskTable, "On-Time %", "Interpretation", "Risk Level");
+        addPaymentRiskRow(riskTable, "95-100%", "Excellent payment history, very low risk", "Low");
+        addPaymentRiskRow(riskTable, "85-94%", "Good history, occasional delays", "Medium");
+        addPaymentRiskRow(riskTable, "70-84%", "Concerning pattern, monitoring required", "High");
+        addPaymentRiskRow(riskTable, "Below 70%", "Payment collapse, default imminent", "Critical");
+
+        target.add(riskTable);
+    }
+
+    private void liquidityGuideBlock(RootElement<?> target) {
+        target.add(new Paragraph("Understanding Liquidity Levels:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(5));
+
+        com.itextpdf.layout.element.List liquidityGuide = new com.itextpdf.layout.element.List()
+                .setMarginLeft(15)
+                .setFontSize(10);
+        liquidityGuide.add("Blue bars = Healthy liquidity (above ₹50,000)");
+        liquidityGuide.add("Orange bars = Warning zone (₹30,000-₹50,000)");
+        liquidityGuide.add("Red bars = Critical zone (below ₹30,000)");
+        liquidityGuide.add("Declining trend = Customer burning through savings to cover monthly deficit");
+        liquidityGuide.add("Each bar drop = Permanent reduction in financial safety net");
+
+        target.add(liquidityGuide);
+    }
+
+    private void depletionTimelineBlock(RootElement<?> target) {
+        target.add(new Paragraph("Projected Depletion Timeline:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(10));
+
+        Table timelineTable = new Table(new float[] { 2, 4, 2 });
+        timelineTable.setWidth(UnitValue.createPercentValue(90));
+        timelineTable.setMarginLeft(15);
+
+        addTableHeader(timelineTable, "Timeframe", "What Happens", "Action Window");
+        addTimelineRow(timelineTable, "Days 1-15",
+                "Remaining liquid assets fall below ₹20K - Emergency threshold breached", "URGENT");
+        addTimelineRow(timelineTable, "Days 16-30",
+                "Liquid assets reach ₹10K - Cannot cover single unexpected expense", "CRITICAL");
+        addTimelineRow(timelineTable, "Days 31-45",
+                "Zero liquid assets - Forced to take payday loans for basic needs", "TOO LATE");
+        addTimelineRow(timelineTable, "Days 46-60",
+                "Payday loan debt compounds - Financial recovery nearly impossible", "DEFAULTED");
+
+        target.add(timelineTable);
+    }
+
+    private void whyLiquidityMattersBlock(RootElement<?> target) {
+        target.add(new Paragraph("\nWhy Liquidity Matters:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(10));
+
+        target.add(new Paragraph(
+                "Liquid assets are cash or near-cash that can be accessed immediately - savings accounts, " +
+                        "fixed deposits with no penalty, emergency funds. This is the LAST LINE OF DEFENSE before default. "
+                        +
+                        "Once depleted, customer has no choice but to miss payments or take predatory high-interest loans "
+                        +
+                        "(24-36% APR). Our data shows 92% of customers who hit zero liquidity default within 60 days.")
+                .setFontSize(10).setMarginLeft(15).setMarginTop(5));
+    }
+
+    private void healthyComparisonBlock(RootElement<?> target) {
+        target.add(new Paragraph("Comparison to Healthy Customer Profile:")
+                .setBold()
+                .setFontSize(11)
+                .setMarginTop(10));
+
+        com.itextpdf.layout.element.List comparisonList = new com.itextpdf.layout.element.List()
+                .setMarginLeft(15)
+                .setFontSize(10);
+        comparisonList.add("Healthy Customer: ₹1,20,000+ liquid assets (3-4 months expenses)");
+        comparisonList.add("This Customer: ₹25,000 liquid assets (0.5 months expenses)");
+        comparisonList.add("Gap: 79% below healthy benchmark");
+        comparisonList.add("Risk: Cannot survive single unexpected expense (medical, car repair, etc.)");
+
+        target.add(comparisonList);
+    }
+
+    private void recommendationsBlock(RootElement<?> target) {
+        target.add(new Paragraph("\nRECOMMENDED INTERVENTION STRATEGY")
+                .setFontSize(16)
+                .setBold()
+                .setMarginTop(20));
+
+        List<String> recommendations = List.of(
+                "IMMEDIATE CONTACT (Within 24 Hours): Phone call from relationship manager, express concern and willingness to help",
+                "PAYMENT RESTRUCTURING (Days 2-7): Offer EMI moratorium for 2 months, reduce monthly EMI by 35%, waive all late fees",
+                "FINANCIAL COUNSELING (Ongoing): Enroll in mandatory financial literacy program, create realistic monthly budget",
+                "MONITORING & SUPPORT (Days 8-60): Real-time transaction monitoring, weekly check-in calls for first month");
+
+        int recNum = 1;
+        for (String rec : recommendations) {
+            target.add(new Paragraph(recNum + ". " + rec)
+                    .setFontSize(10)
+                    .setMarginTop(8)
+                    .setMarginLeft(15));
+            recNum++;
+        }
+    }
+
+    private void footerBlock(RootElement<?> target) {
+        target.add(new Paragraph("\n\n_____________________________________________________________________")
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginTop(30));
+
+        target.add(new Paragraph("Report Generated By: RiskAvert AI Platform v2.1")
+                .setFontSize(9)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontColor(GRAY_TEXT));
     }
 
     // ═══════════════════════════════════════════════════════════
     // HELPER METHODS
     // ═══════════════════════════════════════════════════════════
 
-    private void addChartImage(Document document, String base64Image) {
+    /**
+     * Bytes written once the document is closed (the document itself refuses
+     * access by then, so callers keep the writer); a merged bulk report is
+     * recorded by BulkReportService.
+     */
+    void recordPdfSize(String type, PdfWriter writer) {
+        metrics.pdfSize(type, writer.getCurrentPos());
+        ReportTrace.pdfWritten(writer.getCurrentPos());
+    }
+
+    private long phase(String name, long mark, boolean timed) {
+        ReportTrace.mark(name);
+        return timed ? metrics.phase(name, mark) : System.nanoTime();
+    }
+
+    private Document openDocument(OutputStream out) {
+        // Closing the document must not close the caller's stream (e.g. the servlet response)
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        PdfDocument pdf = new PdfDocument(writer);
+        return ReportTrace.current() != null ? new TracedDocument(pdf) : new Document(pdf);
+    }
+
+    /**
+     * Counts what a traced report adds, nested elements included.
+     */
+    private static final class TracedDocument extends Document {
+
+        TracedDocument(PdfDocument pdf) {
+            super(pdf);
+        }
+
+        @Override
+        public Document add(IBlockElement element) {
+            ReportTrace.elementAdded(element);
+            return super.add(element);
+        }
+
+        @Override
+        public Document add(Image image) {
+            ReportTrace.elementAdded(image);
+            return super.add(image);
+        }
+
+        @Override
+        public Document add(AreaBreak areaBreak) {
+            ReportTrace.elementAdded(areaBreak);
+            return super.add(areaBreak);
+        }
+    }
+
+    private boolean hasChart(String name, Map<String, String> charts, CustomerProfile customer) {
+        return chartRenderer.canRender(name, customer) || (charts != null && charts.containsKey(name));
+    }
+
+    private void addChart(Document document, String name, Map<String, String> charts, CustomerProfile customer) {
+        if (!chartRenderer.canRender(name, customer)) {
+            addChartImage(document, charts.get(name));
+            return;
+        }
         try {
-            // Remove data URL prefix if present
-            String imageData = base64Image;
-            if (imageData.contains(",")) {
-                imageData = imageData.split(",")[1];
-            }
+            Image chart = chartRenderer.render(name, customer, document.getPdfDocument());
+            chart.setWidth(UnitValue.createPercentValue(90));
+            chart.setHorizontalAlignment(com.itextpdf.layout.properties.HorizontalAlignment.CENTER);
+            document.add(chart);
+        } catch (Exception e) {
+            document.add(new Paragraph("[Chart could not be drawn]")
+                    .setFontColor(GRAY_TEXT)
+                    .setItalic());
+        }
+    }
 
-            byte[] imageBytes = Base64.getDecoder().decode(imageData);
-            Image image = new Image(ImageDataFactory.create(imageBytes));
+    void addChartImage(Document document, String base64Image) {
+        try {
+            // Decoded once per distinct payload; repeat charts reuse the parsed image
+            Image image = new Image(chartImageCache.get(base64Image));
             image.setWidth(UnitValue.createPercentValue(90));
             image.setHorizontalAlignment(com.itextpdf.layout.properties.HorizontalAlignment.CENTER);
             document.add(image);
@@ -803,6 +1057,14 @@ public class ReportService {
         table.addCell(new Cell().add(new Paragraph(status).setFontSize(9).setFontColor(statusColor)));
     }
 
+    private static int amount(BigDecimal value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
     private String formatCurrency(int amount) {
         if (amount >= 10000000)
             return String.format("%.1f Cr", amount / 10000000.0);
@@ -840,17 +1102,14 @@ public class ReportService {
         };
     }
 
-    private String getRiskFlag(String description) {
-        String lower = description.toLowerCase();
-        if (lower.contains("missed") || lower.contains("failed"))
-            return "⚠ Critical";
-        if (lower.contains("late") || lower.contains("delayed"))
-            return "⚠ High";
-        if (lower.contains("loan") || lower.contains("lending"))
-            return "⚠ Medium";
-        if (lower.contains("atm") || lower.contains("withdrawal"))
-            return "⚠ Watch";
-        return "✓ Normal";
+    String getRiskFlag(String description) {
+        return FLAG_LABELS.get(transactionFlagger.severity(description));
+    }
+
+    // A flag stored at ingest
+    private static String displayFlag(String flag) {
+        int level = TransactionFlagger.LEVELS.indexOf(flag);
+        return FLAG_LABELS.get(level >= 0 ? level : TransactionFlagger.LEVELS.size());
     }
 
     private Color getRiskFlagColor(String flag) {
@@ -0,0 +1,511 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-once store for generated reports.
+ *
+ * PDFs are appended to segment files and never rewritten; each segment has
+ * a JSON-lines index recording where its reports live along with their
+ * metadata and SHA-256. Identical PDFs within a segment share one region.
+ * Reads are positional, so downloads can be served with
+ * FileChannel.transferTo (or Tomcat sendfile) without copying the report
+ * through the heap.
+ *
+ * A report is streamed straight into an extent reserved at the tail of the
+ * active segment as it renders, report.store.extent-bytes at a time; only
+ * the reservation takes the store lock. The extent grows in place while
+ * nothing has been reserved after it, and otherwise moves to the tail.
+ * Space it did not use is handed back if it is still the tail, and left as
+ * a gap if not. Segment data is forced to disk in batches every
+ * report.store.fsync-ms, and only then are the index lines pointing at it
+ * written, so a crash loses at most the reports of the last interval and
+ * never leaves an index line pointing at missing bytes.
+ *
+ * Once the active segment reaches report.store.segment-bytes a new one is
+ * started. Retention drops whole segments: those whose newest report is
+ * older than report.store.retention-days, then the oldest ones while the
+ * store is over report.store.max-bytes. A segment with a report still
+ * being written into it is kept. A download racing the deletion of its
+ * segment fails.
+ */
+@Service
+public class ReportStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportStore.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Value("${report.store.dir:${user.home}/.risk-monitor/report-store}")
+    private String storeDir;
+
+    @Value("${report.store.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${report.store.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${report.store.max-bytes:2147483648}")
+    private long maxBytes;
+
+    @Value("${report.store.extent-bytes:1048576}")
+    private long extentBytes;
+
+    private final Map<String, StoredReport> reports = new ConcurrentHashMap<>();
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+
+    private Path directory;
+    private Segment active;
+    // Appended since the last flush; their index lines wait for the next force
+    private List<StoredReport> pending = new ArrayList<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Files.createDirectories(Paths.get(storeDir)).toAbsolutePath();
+        migrateSingleFileStore();
+
+        TreeMap<Long, Path> blobs = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.blob")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                blobs.put(Long.parseLong(name.substring("segment-".length(), name.length() - ".blob".length())), file);
+            }
+        }
+        for (long id : blobs.keySet()) {
+            Segment segment = open(id);
+            loadIndex(segment);
+            segments.put(id, segment);
+        }
+        active = blobs.isEmpty() ? openNew(1) : segments.get(blobs.lastKey());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        flush();
+        synchronized (appendLock) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        }
+    }
+
+    public Optional<StoredReport> find(String reportId) {
+        return Optional.ofNullable(reports.get(reportId));
+    }
+
+    /**
+     * The segment file holding the report, for Tomcat sendfile.
+     */
+    public Path getBlobPath(StoredReport report) {
+        return blobPath(report.getSegment());
+    }
+
+    /**
+     * Render into {@code out} and store a copy under the given id once rendering completes.
+     * The copy is written into the segment as it is rendered.
+     */
+    public StoredReport writeThrough(String reportId, String customerId, String reportType, String generatedBy,
+            OutputStream out, ReportWriter writer) throws Exception {
+        SegmentSink sink;
+        synchronized (appendLock) {
+            sink = new SegmentSink();
+        }
+        MessageDigest digest = sha256();
+        try {
+            try (OutputStream copy = new DigestOutputStream(new BufferedOutputStream(sink), digest)) {
+                writer.write(new TeeOutputStream(out, copy));
+            }
+        } catch (Throwable e) {
+            sink.abandon();
+            throw e;
+        }
+        return sink.commit(reportId, customerId, reportType, generatedBy, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Copy {@code length} bytes of the report, starting at {@code start}, to the target channel.
+     */
+    public void transferTo(StoredReport report, long start, long length, WritableByteChannel target)
+            throws IOException {
+        Segment segment = segments.get(report.getSegment());
+        if (segment == null) {
+            throw new IOException("Report " + report.getReportId() + " is no longer stored");
+        }
+        long position = report.getOffset() + start;
+        long end = position + length;
+        while (position < end) {
+            long sent = segment.blob.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                // Past the end of the segment: it was truncated underneath us
+                throw new EOFException("Report " + report.getReportId() + " is truncated at byte "
+                        + (position - report.getOffset()));
+            }
+            position += sent;
+        }
+    }
+
+    /**
+     * Forces appended report bytes to disk, then writes the index lines that
+     * point at them.
+     */
+    @Scheduled(fixedDelayString = "${report.store.fsync-ms:1000}")
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            List<StoredReport> batch;
+            synchronized (appendLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            Map<Long, List<StoredReport>> bySegment = new TreeMap<>();
+            for (StoredReport report : batch) {
+                bySegment.computeIfAbsent(report.getSegment(), id -> new ArrayList<>()).add(report);
+            }
+            for (Map.Entry<Long, List<StoredReport>> entry : bySegment.entrySet()) {
+                Segment segment = segments.get(entry.getKey());
+                if (segment == null) {
+                    continue; // already dropped by retention
+                }
+                segment.blob.force(false);
+                for (StoredReport report : entry.getValue()) {
+                    segment.index.write(MAPPER.writeValueAsString(report));
+                    segment.index.newLine();
+                }
+                segment.index.flush();
+            }
+        }
+    }
+
+    /**
+     * Drops segments past the retention age, then the oldest segments while
+     * the store is over its size cap. The active segment is never dropped.
+     */
+    @Scheduled(fixedDelayString = "${report.store.retention-check-ms:600000}")
+    public void enforceRetention() throws IOException {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        List<Segment> dropped = new ArrayList<>();
+        synchronized (appendLock) {
+            List<Segment> oldestFirst = new ArrayList<>(new TreeMap<>(segments).values());
+            oldestFirst.remove(active);
+            long total = 0;
+            for (Segment segment : segments.values()) {
+                total += segment.size;
+            }
+            for (Segment segment : oldestFirst) {
+                if (segment.writers > 0) {
+                    continue; // a report is still being written into it
+                }
+                boolean expired = segment.newest == null || segment.newest.isBefore(cutoff);
+                if (expired || total > maxBytes) {
+                    segments.remove(segment.id);
+                    total -= segment.size;
+                    dropped.add(segment);
+                }
+            }
+        }
+        for (Segment segment : dropped) {
+            reports.values().removeIf(report -> report.getSegment() == segment.id);
+            synchronized (flushLock) {
+                segment.close();
+            }
+            Files.deleteIfExists(indexPath(segment.id));
+            Files.deleteIfExists(blobPath(segment.id));
+            log.info("Dropped report store segment {} ({} bytes)", segment.id, segment.size);
+        }
+    }
+
+    // Caller holds appendLock
+    private StoredReport publish(StoredReport report) {
+        Segment segment = segments.get(report.getSegment());
+        if (segment != null) {
+            segment.newest = report.getCreatedAt();
+        }
+        reports.put(report.getReportId(), report);
+        pending.add(report);
+        return report;
+    }
+
+    private void loadIndex(Segment segment) throws IOException {
+        Path indexPath = indexPath(segment.id);
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        long blobSize = segment.blob.size();
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                StoredReport report;
+                try {
+                    report = MAPPER.readValue(line, StoredReport.class);
+                } catch (IOException e) {
+                    // A torn final line from a crash mid-write; everything before it is intact
+                    continue;
+                }
+                report.setSegment(segment.id);
+                if (report.getOffset() + report.getSize() <= blobSize) {
+                    reports.put(report.getReportId(), report);
+                    segment.byChecksum.putIfAbsent(report.getSha256(), report);
+                    if (segment.newest == null || report.getCreatedAt().isAfter(segment.newest)) {
+                        segment.newest = report.getCreatedAt();
+                    }
+                }
+            }
+        }
+    }
+
+    // Stores written before segmenting kept one reports.blob + index.jsonl; they become segment 0
+    private void migrateSingleFileStore() throws IOException {
+        Path legacyBlob = directory.resolve("reports.blob");
+        if (Files.exists(legacyBlob) && !Files.exists(blobPath(0))) {
+            Path legacyIndex = directory.resolve("index.jsonl");
+            if (Files.exists(legacyIndex)) {
+                Files.move(legacyIndex, indexPath(0));
+            }
+            Files.move(legacyBlob, blobPath(0));
+        }
+    }
+
+    private Segment openNew(long id) throws IOException {
+        Segment segment = open(id);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment open(long id) throws IOException {
+        FileChannel blob = FileChannel.open(blobPath(id),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        BufferedWriter index = Files.newBufferedWriter(indexPath(id), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new Segment(id, blob, index);
+    }
+
+    private Path blobPath(long segment) {
+        return directory.resolve(String.format("segment-%06d.blob", segment));
+    }
+
+    private Path indexPath(long segment) {
+        return directory.resolve(String.format("segment-%06d.jsonl", segment));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Copies a report's bytes written so far to the region it is moving to
+    private static void copy(Segment from, long position, Segment to, long target, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, 1 << 16));
+        for (long done = 0; done < length; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), length - done));
+            if (from.blob.read(buffer, position + done) < 0) {
+                throw new EOFException("Segment " + from.id + " is truncated at byte " + (position + done));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                done += to.blob.write(buffer, target + done);
+            }
+        }
+    }
+
+    /**
+     * A report being written into the store, through an extent reserved at
+     * the tail of a segment. The segment counts it as a writer until the
+     * report is committed or abandoned.
+     */
+    private final class SegmentSink extends OutputStream {
+        private Segment segment;
+        private long offset;
+        private long end;
+        private long written;
+
+        // Caller holds appendLock
+        SegmentSink() throws IOException {
+            claim(0);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureRoom(len);
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                written += segment.blob.write(buffer, offset + written);
+            }
+        }
+
+        StoredReport commit(String reportId, String customerId, String reportType, String generatedBy,
+                String checksum) {
+            synchronized (appendLock) {
+                segment.writers--;
+                StoredReport existing = segment.byChecksum.get(checksum);
+                if (existing != null) {
+                    handBack(offset);
+                    return publish(new StoredReport(reportId, customerId, reportType, generatedBy, Instant.now(),
+                            segment.id, existing.getOffset(), existing.getSize(), checksum));
+                }
+                handBack(offset + written);
+                StoredReport report = new StoredReport(reportId, customerId, reportType, generatedBy,
+                        Instant.now(), segment.id, offset, written, checksum);
+                segment.byChecksum.put(checksum, report);
+                return publish(report);
+            }
+        }
+
+        void abandon() {
+            synchronized (appendLock) {
+                segment.writers--;
+                handBack(offset);
+            }
+        }
+
+        private void ensureRoom(long length) throws IOException {
+            long needed = offset + written + length;
+            if (needed <= end) {
+                return;
+            }
+            Segment from;
+            long fromOffset;
+            synchronized (appendLock) {
+                if (segment.size == end) {
+                    end = Math.max(end + extentBytes, needed);
+                    segment.size = end;
+                    return;
+                }
+                from = segment;
+                fromOffset = offset;
+                claim(written + Math.max(length, extentBytes));
+            }
+            // Something was reserved after the extent, so what is written so far moves to the tail
+            try {
+                copy(from, fromOffset, segment, offset, written);
+            } finally {
+                synchronized (appendLock) {
+                    from.writers--;
+                }
+            }
+        }
+
+        // Caller holds appendLock
+        private void claim(long minimum) throws IOException {
+            if (active.size >= segmentBytes) {
+                active = openNew(active.id + 1);
+            }
+            segment = active;
+            segment.writers++;
+            offset = segment.size;
+            end = offset + Math.max(minimum, Math.min(extentBytes, segmentBytes - offset));
+            segment.size = end;
+        }
+
+        // Caller holds appendLock; returns the extent past `keep` if nothing was reserved after it
+        private void handBack(long keep) {
+            if (segment.size == end) {
+                segment.size = keep;
+            }
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final FileChannel blob;
+        final BufferedWriter index;
+        final Map<String, StoredReport> byChecksum = new ConcurrentHashMap<>();
+        // Bytes reserved so far and reports still being written into it (guarded by appendLock),
+        // and the newest report's time
+        long size;
+        int writers;
+        volatile Instant newest;
+
+        Segment(long id, FileChannel blob, BufferedWriter index) throws IOException {
+            this.id = id;
+            this.blob = blob;
+            this.index = index;
+            this.size = blob.size();
+        }
+
+        void close() throws IOException {
+            index.close();
+            blob.close();
+        }
+    }
+
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.riskmonitor.app.service;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.RootElement;
+import com.itextpdf.layout.element.Image;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Lays out the report blocks that never change between customers once, and
+ * stamps the finished content stream into each new document as a Form
+ * XObject instead of running iText layout for them on every request.
+ *
+ * Each block is laid out at the document's content width into a scratch
+ * form: a first pass measures the height it needs, a second pass renders it
+ * into a form of exactly that height. Only the content stream bytes and the
+ * fonts it references are kept; per document a fresh form is created from
+ * those bytes with the document's own font objects registered under the
+ * same resource names.
+ *
+ * A stamped block is one image and cannot split, so a block that would have
+ * straddled a page break moves whole onto the next page; the text is the
+ * same, only where the page breaks fall can differ.
+ */
+class ReportTemplates {
+
+    // Document's default 36pt margins on either side
+    private static final float CONTENT_WIDTH = PageSize.A4.getWidth() - 72;
+    private static final float MAX_HEIGHT = PageSize.A4.getHeight();
+
+    private final Map<String, Template> templates = new HashMap<>();
+    private final Map<PdfDocument, Map<String, PdfFont>> documentFonts =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    ReportTemplates(Map<String, Consumer<RootElement<?>>> blocks) {
+        for (Map.Entry<String, Consumer<RootElement<?>>> block : blocks.entrySet()) {
+            templates.put(block.getKey(), layout(block.getKey(), block.getValue()));
+        }
+    }
+
+    /**
+     * Returns the named block as an image element bound to {@code pdf}.
+     */
+    Image get(String name, PdfDocument pdf) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown report template: " + name);
+        }
+
+        PdfFormXObject form = new PdfFormXObject(new Rectangle(CONTENT_WIDTH, template.height));
+        form.getPdfObject().setData(template.content);
+
+        PdfResources resources = form.getResources();
+        for (FontRef ref : template.fonts) {
+            PdfName assigned = resources.addFont(pdf, fontFor(pdf, ref.baseFont));
+            if (!assigned.equals(ref.name)) {
+                // Resource names are handed out sequentially, so this only
+                // happens if a block's fonts were recorded out of order.
+                throw new IllegalStateException("Template " + name + " expected font " + ref.name
+                        + " but was assigned " + assigned);
+            }
+        }
+        return new Image(form);
+    }
+
+    private PdfFont fontFor(PdfDocument pdf, String baseFont) {
+        Map<String, PdfFont> fonts = documentFonts.computeIfAbsent(pdf, key -> new HashMap<>());
+        return fonts.computeIfAbsent(baseFont, key -> {
+            try {
+                return PdfFontFactory.createFont(key, PdfEncodings.WINANSI);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Template layout(String name, Consumer<RootElement<?>> block) {
+        try (PdfDocument scratch = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()))) {
+            scratch.addNewPage();
+
+            // Pass 1: measure how much of an over-tall area the block uses
+            PdfFormXObject probe = new PdfFormXObject(new Rectangle(CONTENT_WIDTH, MAX_HEIGHT));
+            Canvas probeCanvas = new Canvas(probe, scratch);
+            block.accept(probeCanvas);
+            float remaining = probeCanvas.getRenderer().getCurrentArea().getBBox().getHeight();
+            probeCanvas.close();
+            float height = MAX_HEIGHT - remaining;
+            if (remaining <= 0) {
+                throw new IllegalStateException("Report template " + name + " does not fit on one page");
+            }
+
+            // Pass 2: render into a form of exactly that height
+            PdfFormXObject form = new PdfFormXObject(new Rectangle(CONTENT_WIDTH, height));
+            Canvas canvas = new Canvas(form, scratch);
+            block.accept(canvas);
+            canvas.close();
+
+            return new Template(height, form.getPdfObject().getBytes(), fontsOf(name, scratch, form.getResources()));
+        }
+    }
+
+    private static List<FontRef> fontsOf(String name, PdfDocument scratch, PdfResources resources) {
+        for (PdfName type : resources.getResourceNames()) {
+            if (!resources.getResourceNames(PdfName.Font).contains(type)) {
+                throw new IllegalStateException("Report template " + name + " uses unsupported resource " + type);
+            }
+        }
+
+        PdfDictionary fontDictionary = resources.getResource(PdfName.Font);
+        List<FontRef> fonts = new ArrayList<>();
+        if (fontDictionary != null) {
+            for (PdfName fontName : fontDictionary.keySet()) {
+                // Font dictionaries are only filled in on flush; ask the document for the live font
+                PdfFont font = scratch.getFont(fontDictionary.getAsDictionary(fontName));
+                fonts.add(new FontRef(fontName, font.getFontProgram().getFontNames().getFontName()));
+            }
+        }
+        // F1, F2, ... — re-registering in this order reproduces the same names
+        fonts.sort(Comparator.comparingInt(ref -> Integer.parseInt(ref.name.getValue().substring(1))));
+        return fonts;
+    }
+
+    private record Template(float height, byte[] content, List<FontRef> fonts) {
+    }
+
+    private record FontRef(PdfName name, String baseFont) {
+    }
+}
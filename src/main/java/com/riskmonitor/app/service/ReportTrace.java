@@ -0,0 +1,141 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.itextpdf.layout.element.AbstractElement;
+import com.itextpdf.layout.element.IElement;
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost breakdown of one traced customer report: wall time and bytes
+ * allocated per section, iText elements added to the document, chart image
+ * bytes decoded and the size of the PDF.
+ *
+ * The trace is bound to the rendering thread while the report is written
+ * (see {@link ReportTracer}); the render path reports into it through the
+ * static methods, which do nothing when the current render is not traced.
+ *
+ * Allocation is read with the JVM's per-thread allocation counter, so it
+ * covers everything the rendering thread allocated, and is -1 where the JVM
+ * cannot measure it (e.g. on virtual threads).
+ */
+@Getter
+public class ReportTrace {
+
+    private static final ThreadLocal<ReportTrace> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    public record Section(String name, double millis, long allocatedBytes) {
+    }
+
+    private final String traceId;
+    private final String customerId;
+    private final Instant startedAt = Instant.now();
+    private final List<Section> sections = new ArrayList<>();
+    private double totalMillis;
+    private long allocatedBytes;
+    private long elements;
+    private long imageBytesDecoded;
+    private long pdfBytes;
+    private String error;
+
+    @JsonIgnore
+    private final long startNanos = System.nanoTime();
+    @JsonIgnore
+    private final long startAllocated = allocated();
+    @JsonIgnore
+    private long markNanos = startNanos;
+    @JsonIgnore
+    private long markAllocated = startAllocated;
+
+    ReportTrace(String traceId, String customerId) {
+        this.traceId = traceId;
+        this.customerId = customerId;
+    }
+
+    static ReportTrace current() {
+        return CURRENT.get();
+    }
+
+    static void bind(ReportTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /** Ends the current section: everything since the previous mark is charged to {@code name}. */
+    static void mark(String name) {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null) {
+            long now = System.nanoTime();
+            long allocated = allocated();
+            trace.sections.add(new Section(name, millis(now - trace.markNanos),
+                    trace.startAllocated < 0 ? -1 : allocated - trace.markAllocated));
+            trace.markNanos = now;
+            trace.markAllocated = allocated;
+        }
+    }
+
+    /** Counts an element added to the document, with everything nested in it. */
+    static void elementAdded(IElement element) {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.elements += count(element);
+        }
+    }
+
+    static void imageDecoded(long bytes) {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.imageBytesDecoded += bytes;
+        }
+    }
+
+    static void pdfWritten(long bytes) {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.pdfBytes = bytes;
+        }
+    }
+
+    void finish(Throwable failure) {
+        totalMillis = millis(System.nanoTime() - startNanos);
+        allocatedBytes = startAllocated < 0 ? -1 : allocated() - startAllocated;
+        if (failure != null) {
+            error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        }
+    }
+
+    private static long count(IElement element) {
+        long n = 1;
+        if (element instanceof AbstractElement<?> parent) {
+            for (IElement child : parent.getChildren()) {
+                n += count(child);
+            }
+        }
+        return n;
+    }
+
+    private static long allocated() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.riskmonitor.app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in per-report tracing. A customer report is traced when the request
+ * asks for it or, with report.trace.sample-rate above zero, when it is
+ * sampled; the finished {@link ReportTrace} is kept in a ring buffer of the
+ * most recent traces, so slow reports can be looked up afterwards and
+ * compared across customer profiles.
+ *
+ * Traces are only recorded while rendering; a report served from the cache
+ * has nothing to trace.
+ */
+@Component
+public class ReportTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportTracer.class);
+
+    private final double sampleRate;
+    private final int bufferSize;
+    private final Deque<ReportTrace> traces;
+
+    public ReportTracer(@Value("${report.trace.sample-rate:0}") double sampleRate,
+            @Value("${report.trace.buffer-size:200}") int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.bufferSize = Math.max(bufferSize, 1);
+        this.traces = new ArrayDeque<>(this.bufferSize);
+    }
+
+    /**
+     * A new trace id if this render should be traced, else empty.
+     */
+    public Optional<String> select(boolean requested) {
+        if (requested || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            return Optional.of(UUID.randomUUID().toString());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Wraps a customer report render so it is traced on whichever thread
+     * ends up writing it. The trace is recorded whether or not the render
+     * succeeds.
+     */
+    public ReportWriter traced(String traceId, String customerId, ReportWriter writer) {
+        return out -> {
+            ReportTrace trace = new ReportTrace(traceId, customerId);
+            ReportTrace.bind(trace);
+            Exception failure = null;
+            try {
+                writer.write(out);
+            } catch (Exception e) {
+                failure = e;
+                throw e;
+            } finally {
+                ReportTrace.unbind();
+                trace.finish(failure);
+                record(trace);
+            }
+        };
+    }
+
+    /**
+     * Recent traces, newest first or slowest first, optionally for one customer.
+     */
+    public List<ReportTrace> recent(String customerId, boolean slowestFirst, int limit) {
+        Stream<ReportTrace> recent;
+        synchronized (traces) {
+            recent = List.copyOf(traces).stream();
+        }
+        if (customerId != null) {
+            recent = recent.filter(trace -> customerId.equals(trace.getCustomerId()));
+        }
+        if (slowestFirst) {
+            recent = recent.sorted(Comparator.comparingDouble(ReportTrace::getTotalMillis).reversed());
+        }
+        return recent.limit(limit).toList();
+    }
+
+    public Optional<ReportTrace> find(String traceId) {
+        synchronized (traces) {
+            return traces.stream().filter(trace -> trace.getTraceId().equals(traceId)).findFirst();
+        }
+    }
+
+    private void record(ReportTrace trace) {
+        log.info("Report trace {} for {}: {} ms, {} bytes allocated, {} elements, {} image bytes decoded, {} PDF bytes",
+                trace.getTraceId(), trace.getCustomerId(), trace.getTotalMillis(), trace.getAllocatedBytes(),
+                trace.getElements(), trace.getImageBytesDecoded(), trace.getPdfBytes());
+        synchronized (traces) {
+            if (traces.size() >= bufferSize) {
+                traces.removeLast();
+            }
+            traces.addFirst(trace);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.riskmonitor.app.service;
+
+import java.io.OutputStream;
+
+/**
+ * Renders a report into the given stream.
+ */
+@FunctionalInterface
+public interface ReportWriter {
+    void write(OutputStream out) throws Exception;
+}
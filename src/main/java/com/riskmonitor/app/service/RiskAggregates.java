@@ -0,0 +1,259 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.RiskScore;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Running inputs to one customer's risk score, bucketed by month and capped
+ * at the newest {@link #WINDOW_MONTHS} months of each series.
+ *
+ * Every new row updates a single bucket and scoring reads at most one
+ * window per series, so the cost of keeping a customer's score current does
+ * not grow with the length of their history.
+ */
+final class RiskAggregates {
+
+    static final int WINDOW_MONTHS = 6;
+
+    private static final List<String> MONTHS = List.of(
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec");
+
+    // Spending that signals distress vs. fixed debt repayments (transactions.category)
+    private static final Set<String> DISTRESS_CATEGORIES = Set.of("lending", "cash");
+    private static final Set<String> DEBT_SERVICE_CATEGORIES = Set.of("emi", "credit card");
+
+    // Component weights; they are re-normalised over the series a customer has
+    private static final double PAYMENT_WEIGHT = 0.30;
+    private static final double CREDIT_WEIGHT = 0.20;
+    private static final double CASH_FLOW_WEIGHT = 0.20;
+    private static final double LIQUIDITY_WEIGHT = 0.15;
+    private static final double TRANSACTION_WEIGHT = 0.15;
+
+    // Logistic link: a combined stress of ~0.1 maps to ~15%, ~0.7 to ~85%
+    private static final double LOGIT_INTERCEPT = -2.33;
+    private static final double LOGIT_SLOPE = 6.0;
+
+    private final TreeMap<Integer, double[]> cashFlow = new TreeMap<>();       // income, expenses
+    private final TreeMap<Integer, double[]> payments = new TreeMap<>();       // on-time %, late %
+    private final TreeMap<Integer, Integer> creditScores = new TreeMap<>();
+    private final TreeMap<Integer, Double> liquidity = new TreeMap<>();
+    private final TreeMap<Integer, double[]> transactions = new TreeMap<>();   // credits, debits, distress, debt service
+
+    private RiskScore lastScore;
+
+    static int monthKey(Integer year, String month) {
+        return (year != null ? year : 0) * 12 + Math.max(MONTHS.indexOf(month), 0);
+    }
+
+    static int monthKey(int year, int monthOfYear) {
+        return year * 12 + monthOfYear - 1;
+    }
+
+    synchronized void putCashFlow(int month, double income, double expenses) {
+        put(cashFlow, month, new double[] { income, expenses });
+    }
+
+    synchronized void putPayment(int month, double onTime, double late) {
+        put(payments, month, new double[] { onTime, late });
+    }
+
+    synchronized void putCreditScore(int month, int score) {
+        put(creditScores, month, score);
+    }
+
+    synchronized void putLiquidity(int month, double amount) {
+        put(liquidity, month, amount);
+    }
+
+    /**
+     * Adds one transaction to its month's running totals. Debits may be
+     * stored negative (as in transactions.csv) or positive with type "debit".
+     */
+    synchronized void addTransaction(int month, String type, String category, double amount) {
+        if (!transactions.containsKey(month) && transactions.size() >= WINDOW_MONTHS
+                && month < transactions.firstKey()) {
+            return; // older than the window
+        }
+        double[] totals = transactions.computeIfAbsent(month, key -> new double[4]);
+        boolean credit = "credit".equalsIgnoreCase(type) || (type == null && amount > 0);
+        double value = Math.abs(amount);
+        if (credit) {
+            totals[0] += value;
+        } else {
+            totals[1] += value;
+            String normalized = category != null ? category.toLowerCase() : "";
+            if (DISTRESS_CATEGORIES.contains(normalized)) {
+                totals[2] += value;
+            }
+            if (DEBT_SERVICE_CATEGORIES.contains(normalized)) {
+                totals[3] += value;
+            }
+        }
+        trim(transactions);
+    }
+
+    /**
+     * Score from the current window. The result is also remembered, so
+     * callers can tell whether an update changed anything.
+     */
+    synchronized RiskScore score(String customerId) {
+        double weighted = 0;
+        double weights = 0;
+
+        double cash = cashFlowStress();
+        if (!Double.isNaN(cash)) {
+            weighted += CASH_FLOW_WEIGHT * cash;
+            weights += CASH_FLOW_WEIGHT;
+        }
+        double payment = paymentStress();
+        if (!Double.isNaN(payment)) {
+            weighted += PAYMENT_WEIGHT * payment;
+            weights += PAYMENT_WEIGHT;
+        }
+        double credit = creditStress();
+        if (!Double.isNaN(credit)) {
+            weighted += CREDIT_WEIGHT * credit;
+            weights += CREDIT_WEIGHT;
+        }
+        double liquid = liquidityStress();
+        if (!Double.isNaN(liquid)) {
+            weighted += LIQUIDITY_WEIGHT * liquid;
+            weights += LIQUIDITY_WEIGHT;
+        }
+        double spending = transactionStress();
+        if (!Double.isNaN(spending)) {
+            weighted += TRANSACTION_WEIGHT * spending;
+            weights += TRANSACTION_WEIGHT;
+        }
+
+        int percentage = 0;
+        if (weights > 0) {
+            double stress = weighted / weights;
+            percentage = (int) Math.round(100 / (1 + Math.exp(-(LOGIT_INTERCEPT + LOGIT_SLOPE * stress))));
+        }
+        lastScore = new RiskScore(customerId, percentage, band(percentage), stressLevel(percentage));
+        return lastScore;
+    }
+
+    synchronized RiskScore lastScore() {
+        return lastScore;
+    }
+
+    // Bands follow the sample book: Critical 80+, High 60+, Medium 35+
+    static String band(int percentage) {
+        if (percentage >= 80)
+            return "Critical";
+        if (percentage >= 60)
+            return "High";
+        if (percentage >= 35)
+            return "Medium";
+        return "Low";
+    }
+
+    static String stressLevel(int percentage) {
+        if (percentage >= 70)
+            return "High Stress";
+        if (percentage >= 35)
+            return "Medium Stress";
+        return "Low Stress";
+    }
+
+    // Share of income the window's monthly deficits add up to; 20% is the ceiling
+    private double cashFlowStress() {
+        if (cashFlow.isEmpty()) {
+            return Double.NaN;
+        }
+        double income = 0;
+        double deficit = 0;
+        for (double[] month : cashFlow.values()) {
+            income += month[0];
+            deficit += Math.max(0, month[1] - month[0]);
+        }
+        return clamp(deficit / Math.max(income, 1) / 0.2);
+    }
+
+    // Latest late-payment rate (50% is the ceiling), plus the fall in on-time rate across the window
+    private double paymentStress() {
+        if (payments.isEmpty()) {
+            return Double.NaN;
+        }
+        double[] first = payments.firstEntry().getValue();
+        double[] latest = payments.lastEntry().getValue();
+        return clamp(0.7 * clamp(latest[1] / 50) + 0.3 * clamp((first[0] - latest[0]) / 40));
+    }
+
+    // Distance of the latest score below 780 (550 is the ceiling), plus the drop from the window's best
+    private double creditStress() {
+        if (creditScores.isEmpty()) {
+            return Double.NaN;
+        }
+        int latest = creditScores.lastEntry().getValue();
+        int best = creditScores.values().stream().mapToInt(Integer::intValue).max().orElse(latest);
+        return clamp(0.7 * clamp((780.0 - latest) / 230) + 0.3 * clamp((best - latest) / 60.0));
+    }
+
+    // Months of expenses the latest liquid balance covers (under 3 is stressed), plus how fast it is falling
+    private double liquidityStress() {
+        if (liquidity.isEmpty()) {
+            return Double.NaN;
+        }
+        double first = liquidity.firstEntry().getValue();
+        double latest = liquidity.lastEntry().getValue();
+        double depletion = first > 0 ? clamp((first - latest) / first / 0.5) : 0;
+
+        double expenses = monthlyExpenses();
+        if (Double.isNaN(expenses)) {
+            return depletion;
+        }
+        double cover = latest / Math.max(expenses, 1);
+        return clamp(0.6 * clamp((3 - cover) / 3) + 0.4 * depletion);
+    }
+
+    // Share of spending on lending apps / cash (20% is the ceiling), plus debt service above 20% of income
+    private double transactionStress() {
+        if (transactions.isEmpty()) {
+            return Double.NaN;
+        }
+        double credits = 0;
+        double debits = 0;
+        double distress = 0;
+        double debtService = 0;
+        for (double[] month : transactions.values()) {
+            credits += month[0];
+            debits += month[1];
+            distress += month[2];
+            debtService += month[3];
+        }
+        double distressShare = debits > 0 ? distress / debits : 0;
+        double debtRatio = credits > 0 ? debtService / credits : (debtService > 0 ? 1 : 0);
+        return clamp(0.5 * clamp(distressShare / 0.2) + 0.5 * clamp((debtRatio - 0.2) / 0.4));
+    }
+
+    private double monthlyExpenses() {
+        if (!cashFlow.isEmpty()) {
+            return cashFlow.values().stream().mapToDouble(month -> month[1]).average().orElse(Double.NaN);
+        }
+        if (!transactions.isEmpty()) {
+            return transactions.values().stream().mapToDouble(month -> month[1]).average().orElse(Double.NaN);
+        }
+        return Double.NaN;
+    }
+
+    private static <V> void put(TreeMap<Integer, V> series, int month, V value) {
+        series.put(month, value);
+        trim(series);
+    }
+
+    private static void trim(TreeMap<Integer, ?> series) {
+        while (series.size() > WINDOW_MONTHS) {
+            series.pollFirstEntry();
+        }
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
@@ -0,0 +1,330 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.alert.CustomerEvent;
+import com.riskmonitor.app.dto.RescoreSummary;
+import com.riskmonitor.app.dto.RiskScore;
+import com.riskmonitor.app.ingest.CustomerDataIngestedEvent;
+import com.riskmonitor.app.model.*;
+import com.riskmonitor.app.push.PushBroadcaster;
+import com.riskmonitor.app.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Computes customers.risk_percentage, risk_score and stress_level from the
+ * customer's cash flow, payment, credit score, liquidity and transaction
+ * history, and keeps them current as account events stream in.
+ *
+ * Per-customer running aggregates ({@link RiskAggregates}) live in memory.
+ * An event updates one monthly bucket and rescoring reads only the
+ * aggregates, so an arrival never re-reads the customer's history. A
+ * customer is loaded from the database the first time they are touched, and
+ * again whenever ingestion replaces their rows.
+ *
+ * The full-book rescore walks customers in user_id chunks. Each chunk loads
+ * its five history tables with one IN query per table (transactions arrive
+ * pre-summed per month, type and category), on a dedicated
+ * fork-join pool, and writes its scores back in one JDBC batch.
+ *
+ * Changed scores are pushed to open dashboards; a full-book rescore sends
+ * a single refresh instead.
+ */
+@Service
+public class RiskScoringEngine {
+
+    private final Map<String, RiskAggregates> aggregates = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CashFlowRecordRepository cashFlowRecordRepository;
+
+    @Autowired
+    private CreditScoreRecordRepository creditScoreRecordRepository;
+
+    @Autowired
+    private PaymentRecordRepository paymentRecordRepository;
+
+    @Autowired
+    private LiquidityRecordRepository liquidityRecordRepository;
+
+    @Autowired
+    private CustomerColumnStore customerColumnStore;
+
+    @Autowired
+    private PushBroadcaster pushBroadcaster;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int window;
+
+    public RiskScoringEngine(@Value("${risk.rescore.parallelism:0}") int parallelism,
+            @Value("${risk.rescore.chunk-size:500}") int chunkSize) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.chunkSize = chunkSize;
+        this.window = threads * 2;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // INCREMENTAL UPDATES
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Folds streamed account events into the customers' aggregates and
+     * rescores the customers they touched; returns the scores that changed.
+     * Transactions add to their month's totals and balance readings become
+     * that month's liquidity. Payments only feed the alert rules: the score
+     * reads monthly on-time rates, not single repayments.
+     *
+     * Events are not stored, so a customer touched for the first time is
+     * loaded from the database and the event applied on top; a later reload
+     * (ingestion, admin rescore) rebuilds from stored rows only. Events for
+     * unknown customers are ignored.
+     */
+    public List<RiskScore> onEvents(List<? extends CustomerEvent> events) {
+        Map<String, List<Consumer<RiskAggregates>>> updates = new LinkedHashMap<>();
+        for (CustomerEvent event : events) {
+            Consumer<RiskAggregates> update = update(event);
+            if (update != null) {
+                updates.computeIfAbsent(event.customerId(), id -> new ArrayList<>()).add(update);
+            }
+        }
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, RiskAggregates> customers = resolve(updates.keySet());
+        List<RiskScore> changed = new ArrayList<>();
+        customers.forEach((customerId, customer) -> {
+            RiskScore previous = customer.lastScore();
+            updates.get(customerId).forEach(update -> update.accept(customer));
+            RiskScore score = customer.score(customerId);
+            if (!score.equals(previous)) {
+                changed.add(score);
+            }
+        });
+        if (!changed.isEmpty()) {
+            customerRepository.updateRiskScores(changed);
+            customerColumnStore.updateRisk(changed);
+            pushBroadcaster.publishRiskChanges(changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Ingestion replaced rows: reload just the affected customers, or the
+     * whole book after a full reload.
+     */
+    @EventListener
+    public void onIngested(CustomerDataIngestedEvent event) {
+        if (event.fullBook()) {
+            aggregates.clear();
+            rescoreAll();
+        } else {
+            rescoreCustomers(List.copyOf(event.customerIds()));
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // RESCORING FROM THE DATABASE
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Reloads and rescores one customer; empty if the customer is unknown.
+     */
+    public Optional<RiskScore> rescore(String customerId) {
+        if (customerRepository.findByUserId(customerId).isEmpty()) {
+            return Optional.empty();
+        }
+        List<RiskScore> scores = refresh(List.of(customerId), true);
+        return scores.stream().findFirst();
+    }
+
+    /**
+     * Reloads and rescores every customer, chunks in parallel.
+     */
+    public RescoreSummary rescoreAll() {
+        long started = System.nanoTime();
+        long customers = 0;
+        long changed = 0;
+
+        Deque<CompletableFuture<Integer>> inFlight = new ArrayDeque<>();
+        String after = "";
+        while (true) {
+            List<String> chunk = customerRepository.findUserIdsAfter(after, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            after = chunk.get(chunk.size() - 1);
+            customers += chunk.size();
+            // Bounded window: the id walk never runs far ahead of the scoring
+            if (inFlight.size() >= window) {
+                changed += join(inFlight.removeFirst());
+            }
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> refresh(chunk, false).size(), pool));
+        }
+        while (!inFlight.isEmpty()) {
+            changed += join(inFlight.removeFirst());
+        }
+        pushBroadcaster.publishRefresh();
+        return new RescoreSummary(customers, changed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    RescoreSummary rescoreCustomers(List<String> customerIds) {
+        long started = System.nanoTime();
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < customerIds.size(); from += chunkSize) {
+            List<String> chunk = customerIds.subList(from, Math.min(from + chunkSize, customerIds.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> refresh(chunk, true).size(), pool));
+        }
+        long changed = 0;
+        for (CompletableFuture<Integer> chunk : chunks) {
+            changed += join(chunk);
+        }
+        return new RescoreSummary(customerIds.size(), changed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Rebuilds the aggregates for a batch of customers from the database,
+     * scores them and writes the scores back. Returns the scores written;
+     * with {@code push}, the ones that changed from a score already in
+     * memory are also pushed to dashboards.
+     */
+    private List<RiskScore> refresh(Collection<String> customerIds, boolean push) {
+        Map<String, RiskAggregates> loaded = load(customerIds);
+        List<RiskScore> scores = new ArrayList<>(loaded.size());
+        List<RiskScore> changed = new ArrayList<>();
+        loaded.forEach((customerId, customer) -> {
+            RiskScore score = customer.score(customerId);
+            scores.add(score);
+            RiskAggregates previous = aggregates.put(customerId, customer);
+            if (previous != null && previous.lastScore() != null && !score.equals(previous.lastScore())) {
+                changed.add(score);
+            }
+        });
+        customerRepository.updateRiskScores(scores);
+        customerColumnStore.updateRisk(scores);
+        if (push && !changed.isEmpty()) {
+            pushBroadcaster.publishRiskChanges(changed);
+        }
+        return scores;
+    }
+
+    private Map<String, RiskAggregates> load(Collection<String> customerIds) {
+        Map<String, RiskAggregates> loaded = new HashMap<>();
+        for (String customerId : customerIds) {
+            loaded.put(customerId, new RiskAggregates());
+        }
+        for (CashFlowRecord r : cashFlowRecordRepository.findByCustomerUserIdIn(customerIds)) {
+            loaded.get(r.getCustomerUserId()).putCashFlow(RiskAggregates.monthKey(r.getYear(), r.getMonth()),
+                    amount(r.getTotalIncome()), amount(r.getTotalExpenses()));
+        }
+        for (PaymentRecord r : paymentRecordRepository.findByCustomerUserIdIn(customerIds)) {
+            loaded.get(r.getCustomerUserId()).putPayment(RiskAggregates.monthKey(r.getYear(), r.getMonth()),
+                    orZero(r.getOnTimePercentage()), orZero(r.getLatePercentage()));
+        }
+        for (CreditScoreRecord r : creditScoreRecordRepository.findByCustomerUserIdIn(customerIds)) {
+            if (r.getScore() != null) {
+                loaded.get(r.getCustomerUserId())
+                        .putCreditScore(RiskAggregates.monthKey(r.getYear(), r.getMonth()), r.getScore());
+            }
+        }
+        for (LiquidityRecord r : liquidityRecordRepository.findByCustomerUserIdIn(customerIds)) {
+            loaded.get(r.getCustomerUserId()).putLiquidity(RiskAggregates.monthKey(r.getYear(), r.getMonth()),
+                    amount(r.getAmount()));
+        }
+        for (TransactionRepository.MonthlyTotal total
+                : transactionRepository.findMonthlyTotalsByCustomerUserIdIn(customerIds)) {
+            loaded.get(total.getCustomerUserId()).addTransaction(
+                    RiskAggregates.monthKey(total.getYear(), total.getMonth()),
+                    total.getType(), total.getCategory(), amount(total.getAmount()));
+        }
+        return loaded;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // HELPER METHODS
+    // ═══════════════════════════════════════════════════════════
+
+    private static Consumer<RiskAggregates> update(CustomerEvent event) {
+        if (event instanceof CustomerEvent.Transaction tx) {
+            int month = RiskAggregates.monthKey(tx.at().getYear(), tx.at().getMonthValue());
+            return customer -> customer.addTransaction(month, tx.type(), tx.category(), amount(tx.amount()));
+        }
+        if (event instanceof CustomerEvent.Balance balance && balance.balance() != null) {
+            int month = RiskAggregates.monthKey(balance.at().getYear(), balance.at().getMonthValue());
+            return customer -> customer.putLiquidity(month, amount(balance.balance()));
+        }
+        return null;
+    }
+
+    /**
+     * The in-memory aggregates for the given customers. Customers touched for
+     * the first time are loaded together; when another thread loaded the
+     * same customer first, its instance wins so no update is applied to a
+     * copy that is then dropped.
+     */
+    private Map<String, RiskAggregates> resolve(Collection<String> customerIds) {
+        Map<String, RiskAggregates> resolved = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String customerId : customerIds) {
+            RiskAggregates customer = aggregates.get(customerId);
+            if (customer != null) {
+                resolved.put(customerId, customer);
+            } else {
+                missing.add(customerId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<String> known = customerRepository.findUserIdsIn(missing);
+            if (!known.isEmpty()) {
+                load(known).forEach((customerId, loaded) -> {
+                    RiskAggregates raced = aggregates.putIfAbsent(customerId, loaded);
+                    resolved.put(customerId, raced != null ? raced : loaded);
+                });
+            }
+        }
+        return resolved;
+    }
+
+    private static int join(CompletableFuture<Integer> chunk) {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static double amount(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    private static double orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Index entry for a report held in a {@link ReportStore} segment file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredReport {
+    private String reportId;
+    private String customerId;
+    private String reportType;
+    private String generatedBy;
+    private Instant createdAt;
+    private long segment;
+    private long offset;
+    private long size;
+    private String sha256;
+
+    @JsonIgnore
+    public String getETag() {
+        return "\"" + sha256 + "\"";
+    }
+}
@@ -0,0 +1,91 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.ReclassifySummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Re-flags the stored transactions after the keyword configuration changed
+ * (ingest flags new rows itself, see RiskFlagReader).
+ *
+ * Walks the table in id order, one keyset batch at a time over plain JDBC,
+ * and writes back only the rows whose flag actually changed, as one
+ * unnest-array UPDATE per batch.
+ */
+@Service
+public class TransactionFlagService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionFlagService.class);
+
+    private static final String SELECT = "SELECT id, description, risk_flag FROM transactions "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE = "UPDATE transactions t SET risk_flag = v.flag "
+            + "FROM unnest(?::bigint[], ?::varchar[]) AS v(id, flag) WHERE t.id = v.id";
+
+    private final DataSource dataSource;
+    private final TransactionFlagger transactionFlagger;
+    private final int batchSize;
+
+    public TransactionFlagService(DataSource dataSource, TransactionFlagger transactionFlagger,
+            @Value("${transactions.flags.batch-size:5000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.transactionFlagger = transactionFlagger;
+        this.batchSize = batchSize;
+    }
+
+    public ReclassifySummary reclassifyAll() throws SQLException {
+        long started = System.nanoTime();
+        long seen = 0;
+        long changed = 0;
+
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement select = conn.prepareStatement(SELECT);
+                PreparedStatement update = conn.prepareStatement(UPDATE)) {
+            long after = 0;
+            List<Long> ids = new ArrayList<>();
+            List<String> flags = new ArrayList<>();
+            while (true) {
+                select.setLong(1, after);
+                select.setInt(2, batchSize);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        after = rs.getLong(1);
+                        String flag = transactionFlagger.flag(rs.getString(2));
+                        if (!Objects.equals(flag, rs.getString(3))) {
+                            ids.add(after);
+                            flags.add(flag);
+                        }
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                seen += rows;
+                if (!ids.isEmpty()) {
+                    update.setArray(1, conn.createArrayOf("bigint", ids.toArray()));
+                    update.setArray(2, conn.createArrayOf("varchar", flags.toArray()));
+                    changed += update.executeUpdate();
+                    ids.clear();
+                    flags.clear();
+                }
+            }
+        }
+
+        ReclassifySummary summary = new ReclassifySummary(seen, changed, (System.nanoTime() - started) / 1_000_000);
+        log.info("Re-flagged {} transactions ({} changed) in {} ms", seen, changed, summary.getMillis());
+        return summary;
+    }
+}
@@ -0,0 +1,71 @@
+package com.riskmonitor.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classifies a transaction description into a risk flag by keyword, the
+ * most severe matching level winning: Critical, High, Medium, Watch, else
+ * Normal. The keywords per level are configurable and compiled once into a
+ * {@link KeywordAutomaton}.
+ *
+ * Besides {@link #flag(String)}, the automaton is exposed one
+ * character at a time ({@link #step}) so a caller already walking the text,
+ * such as the CSV ingest, can classify as it goes.
+ */
+@Component
+public class TransactionFlagger {
+
+    public static final String NORMAL = "Normal";
+    public static final int START = 0;
+
+    /** Flag names by level, most severe first. */
+    public static final List<String> LEVELS = List.of("Critical", "High", "Medium", "Watch");
+
+    private final KeywordAutomaton automaton;
+
+    public TransactionFlagger(
+            @Value("${transactions.flags.critical:missed,failed}") String[] critical,
+            @Value("${transactions.flags.high:late,delayed}") String[] high,
+            @Value("${transactions.flags.medium:loan,lending}") String[] medium,
+            @Value("${transactions.flags.watch:atm,withdrawal}") String[] watch) {
+        this.automaton = new KeywordAutomaton(List.of(keywords(critical), keywords(high), keywords(medium),
+                keywords(watch)));
+    }
+
+    /** The built-in keyword set. */
+    public static TransactionFlagger defaults() {
+        return new TransactionFlagger(new String[] { "missed", "failed" }, new String[] { "late", "delayed" },
+                new String[] { "loan", "lending" }, new String[] { "atm", "withdrawal" });
+    }
+
+    public String flag(String description) {
+        return flagOf(severity(description));
+    }
+
+    /** Index into {@link #LEVELS} of the most severe match; {@code LEVELS.size()} for Normal. */
+    public int severity(String description) {
+        return description != null ? Math.min(automaton.match(description), LEVELS.size()) : LEVELS.size();
+    }
+
+    /** Advances a scan started at {@link #START} by one character. */
+    public int step(int state, char c) {
+        return automaton.step(state, c);
+    }
+
+    /** Most severe level matched on entering {@code state}; lower is more severe. */
+    public int level(int state) {
+        return automaton.priority(state);
+    }
+
+    public String flagOf(int level) {
+        return level < LEVELS.size() ? LEVELS.get(level) : NORMAL;
+    }
+
+    private static List<String> keywords(String[] configured) {
+        return Arrays.stream(configured).map(String::trim).filter(keyword -> !keyword.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.UserCacheStats;
+import com.riskmonitor.app.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-limited cache of user rows keyed by username, in front of
+ * UserRepository.findByUsername.
+ *
+ * Entries are the detached entities themselves, never UserDetails: Spring
+ * Security erases credentials on the UserDetails it authenticates, which
+ * would blank the cached password for the next login. Callers must not
+ * mutate a cached User; AuthService reloads, saves and then invalidates.
+ */
+@Component
+public class UserCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<String, Entry> users = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record Entry(User user, long loadedAt) {
+    }
+
+    public UserCache(@Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                     @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Cached user, or null if absent or older than auth.user-cache.ttl-seconds.
+     */
+    public User get(String username) {
+        long now = System.currentTimeMillis();
+        synchronized (users) {
+            Entry entry = users.get(username);
+            if (entry != null) {
+                if (now - entry.loadedAt() <= ttlMillis) {
+                    hits.incrementAndGet();
+                    return entry.user();
+                }
+                users.remove(username);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(User user) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (users) {
+            users.put(user.getUsername(), new Entry(user, now));
+
+            Iterator<Entry> eldest = users.values().iterator();
+            while (users.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(String username) {
+        synchronized (users) {
+            if (users.remove(username) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public UserCacheStats stats() {
+        synchronized (users) {
+            return new UserCacheStats(
+                    hits.get(),
+                    misses.get(),
+                    evictions.get(),
+                    expirations.get(),
+                    invalidations.get(),
+                    users.size(),
+                    maxEntries);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.riskmonitor.app.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the requests being handled at once. With platform threads Tomcat's
+ * pool size did this implicitly; on virtual threads every accepted
+ * connection gets a thread, so without a cap a burst turns into thousands
+ * of callers queued on the connection pool until they time out.
+ *
+ * A request over the cap waits briefly for a slot and is then answered 503
+ * with Retry-After. Only the request's own dispatch holds a slot; streamed
+ * bodies (reports, SSE) finish on async dispatches, which are not counted.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long waitMillis;
+
+    public ConcurrencyLimitFilter(@Value("${web.concurrency.max-requests:200}") int maxRequests,
+                                  @Value("${web.concurrency.wait-ms:2000}") long waitMillis) {
+        this.permits = new Semaphore(maxRequests);
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server busy, please retry shortly\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Slots currently free. */
+    public int available() {
+        return permits.availablePermits();
+    }
+}
@@ -1,7 +1,6 @@
 import React, { useState, useEffect } from "react";
 import { useParams, useNavigate } from "react-router-dom";
 import "../styles/customer-profile.css";
-import html2canvas from "html2canvas";
 import {
   LineChart,
   Line,
@@ -92,33 +91,8 @@ const CustomerProfile = () => {
       button.disabled = true;
       button.textContent = "Generating...";
 
-      // Step 1: Capture all charts as images
-      const cashFlowElement = document.querySelector(
-        ".cash-flow-card .chart-container",
-      );
-      const creditScoreElement = document.querySelector(
-        ".analytics-card:nth-child(1) .recharts-wrapper",
-      );
-      const paymentHistoryElement = document.querySelector(
-        ".analytics-card:nth-child(2) .recharts-wrapper",
-      );
-      const liquidityElement = document.querySelector(
-        ".liquidity-card .recharts-wrapper",
-      );
-
-      const cashFlowCanvas = await html2canvas(cashFlowElement);
-      const creditScoreCanvas = await html2canvas(creditScoreElement);
-      const paymentHistoryCanvas = await html2canvas(paymentHistoryElement);
-      const liquidityCanvas = await html2canvas(liquidityElement);
-
-      const charts = {
-        cashFlow: cashFlowCanvas.toDataURL("image/png"),
-        creditScore: creditScoreCanvas.toDataURL("image/png"),
-        paymentHistory: paymentHistoryCanvas.toDataURL("image/png"),
-        liquidity: liquidityCanvas.toDataURL("image/png"),
-      };
-
-      // Step 2: Send customer data + charts to backend
+      // Step 1: Send customer data to backend
+      // (charts are drawn server-side from the series in customerData)
       const response = await fetch(
         "https://financial-risk-analyzer.onrender.com/api/reports/generate",
         {
@@ -130,14 +104,13 @@ const CustomerProfile = () => {
           body: JSON.stringify({
             customerId: profile.id,
             customerData: customerData,
-            charts: charts,
           }),
         },
       );
 
       if (!response.ok) throw new Error("PDF generation failed");
 
-      // Step 3: Download the PDF
+      // Step 2: Download the PDF
       const blob = await response.blob();
       const url = window.URL.createObjectURL(blob);
       const link = document.createElement("a");
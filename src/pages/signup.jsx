@@ -10,7 +10,6 @@ function Signup() {
     username: "",
     password: "",
     confirmPassword: "",
-    role: "RISK_ANALYST",
   });
   const [showPassword, setShowPassword] = useState(false);
   const [showConfirmPassword, setShowConfirm] = useState(false);
@@ -59,7 +58,6 @@ function Signup() {
             email: formData.email,
             username: formData.username,
             password: formData.password,
-            role: formData.role,
           }),
         },
       );
@@ -241,27 +239,6 @@ function Signup() {
               </div>
             </div>
 
-            <div className="auth-field">
-              <label className="auth-field__label" htmlFor="role">
-                Role
-              </label>
-              <div className="auth-field__wrapper">
-                <select
-                  id="role"
-                  name="role"
-                  className="auth-field__input auth-field__select"
-                  value={formData.role}
-                  onChange={handleChange}
-                >
-                  <option value="RISK_ANALYST">Risk Analyst</option>
-                  <option value="CREDIT_MONITOR">Credit Monitoring</option>
-                  <option value="COLLECTIONS">Collections Strategy</option>
-                  <option value="PORTFOLIO_MGR">Portfolio Manager</option>
-                  <option value="COMPLIANCE">Compliance Officer</option>
-                </select>
-              </div>
-            </div>
-
             <div className="auth-field">
               <label className="auth-field__label" htmlFor="password">
                 Password
@@ -0,0 +1,167 @@
+package com.riskmonitor.app.alert;
+
+import com.riskmonitor.app.model.Alert;
+import com.riskmonitor.app.model.Transaction;
+import com.riskmonitor.app.repository.TransactionRepository;
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEngineTest {
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private AlertWriter writer;
+
+	private AlertEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		AlertRules rules = new AlertRules(TransactionFlagger.defaults(), 24, 5, 3, 10000, 0.4, 0.75);
+		engine = new AlertEngine(rules, writer, transactionRepository, 4, 60);
+	}
+
+	@Test
+	void missedEmiIsCriticalOncePerCooldown() {
+		LocalDateTime at = LocalDateTime.of(2025, 3, 5, 10, 0);
+
+		List<Alert> alerts = process(List.of(
+				new CustomerEvent.Payment("USR-001", at, "EMI", "MISSED", new BigDecimal("12500")),
+				new CustomerEvent.Payment("USR-001", at.plusHours(2), "EMI", "MISSED", new BigDecimal("12500"))));
+
+		// The second miss repeats the first alert inside the cooldown, but is the second late payment
+		assertEquals(2, alerts.size());
+		assertEquals("critical", alerts.get(0).getType());
+		assertEquals("Missed EMI payment of ₹12,500", alerts.get(0).getMessage());
+		assertEquals(at, alerts.get(0).getCreatedAt());
+		assertEquals("warning", alerts.get(1).getType());
+
+		List<Alert> nextDay = process(List.of(
+				new CustomerEvent.Payment("USR-001", at.plusDays(1), "EMI", "MISSED", null)));
+		assertEquals(List.of("Missed EMI payment"), nextDay.stream().map(Alert::getMessage).toList());
+	}
+
+	@Test
+	void salaryDelayWarnsThenEscalatesWhenRepeated() {
+		List<CustomerEvent> events = new ArrayList<>();
+		for (int month = 1; month <= 3; month++) {
+			events.add(salary(LocalDate.of(2025, month, 1)));
+		}
+		events.add(salary(LocalDate.of(2025, 3, 31))); // early April's salary, a day early
+		assertTrue(process(events).isEmpty());
+
+		List<Alert> late = process(List.of(salary(LocalDate.of(2025, 5, 9)), salary(LocalDate.of(2025, 6, 10))));
+
+		assertEquals(List.of("warning", "critical"), late.stream().map(Alert::getType).toList());
+		assertEquals("Salary credited 8 days late (usually around day 1)", late.get(0).getMessage());
+	}
+
+	@Test
+	void cashSpikeIsMeasuredAgainstTheWeeklyBaseline() {
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+		List<CustomerEvent> events = new ArrayList<>();
+		for (int week = 0; week < 6; week++) {
+			events.add(withdrawal(start.plusWeeks(week), "ATM Withdrawal", "4000"));
+		}
+		assertTrue(process(events).isEmpty());
+
+		LocalDateTime spike = start.plusWeeks(6);
+		assertTrue(process(List.of(withdrawal(spike, "ATM Withdrawal", "6000"))).isEmpty());
+		List<Alert> alerts = process(List.of(withdrawal(spike.plusDays(1), "ATM Withdrawal", "9000")));
+
+		assertEquals(1, alerts.size());
+		assertEquals("warning", alerts.get(0).getType());
+		assertTrue(alerts.get(0).getMessage().startsWith("Cash withdrawals of ₹15,000 in 7 days"));
+	}
+
+	@Test
+	void liquidityDropAndFailedDebits() {
+		LocalDateTime at = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+		List<Alert> alerts = process(List.of(
+				new CustomerEvent.Balance("USR-003", at, new BigDecimal("200000")),
+				new CustomerEvent.Balance("USR-003", at.plusDays(10), new BigDecimal("110000")),
+				new CustomerEvent.Transaction("USR-003", at.plusDays(11), "Auto-debit FAILED - Insurance",
+						new BigDecimal("-3000"), "debit", "Insurance"),
+				new CustomerEvent.Balance("USR-003", at.plusDays(40), new BigDecimal("20000"))));
+
+		assertEquals(List.of("warning", "critical", "critical"), alerts.stream().map(Alert::getType).toList());
+		assertEquals("Liquid balance down 45% in 30 days, from ₹200,000 to ₹110,000", alerts.get(0).getMessage());
+		assertEquals("Failed or missed debit: Auto-debit FAILED - Insurance", alerts.get(1).getMessage());
+	}
+
+	@Test
+	void newCustomersAreSeededFromStoredTransactionsWithoutReplayingAlerts() {
+		List<Transaction> history = new ArrayList<>();
+		for (int month = 1; month <= 3; month++) {
+			history.add(stored(LocalDate.of(2025, month, 1), "Salary Credit", "80000", "credit", "Salary"));
+		}
+		history.add(stored(LocalDate.of(2025, 2, 10), "Missed EMI - Car Loan", "-9000", "debit", "EMI"));
+		when(transactionRepository.findByCustomerUserIdAndTransactionDateGreaterThanEqualOrderByTransactionDateAscIdAsc(
+				eq("USR-004"), any())).thenReturn(history);
+
+		List<Alert> alerts = process(List.of(salary("USR-004", LocalDate.of(2025, 4, 12))));
+
+		assertEquals(List.of("Salary credited 11 days late (usually around day 1)"),
+				alerts.stream().map(Alert::getMessage).toList());
+		assertEquals(1, engine.trackedCustomers());
+		process(List.of(salary("USR-004", LocalDate.of(2025, 5, 1))));
+		verify(transactionRepository, times(1))
+				.findByCustomerUserIdAndTransactionDateGreaterThanEqualOrderByTransactionDateAscIdAsc(any(), any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Alert> process(List<? extends CustomerEvent> events) {
+		clearInvocations(writer);
+		int raised = engine.process(events);
+		ArgumentCaptor<Collection<Alert>> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(writer).enqueue(captor.capture());
+		assertEquals(raised, captor.getValue().size());
+		return List.copyOf(captor.getValue());
+	}
+
+	private static CustomerEvent salary(LocalDate date) {
+		return salary("USR-002", date);
+	}
+
+	private static CustomerEvent salary(String customerId, LocalDate date) {
+		return new CustomerEvent.Transaction(customerId, date.atTime(9, 0), "Salary Credit", new BigDecimal("80000"),
+				"credit", "Salary");
+	}
+
+	private static CustomerEvent withdrawal(LocalDateTime at, String description, String amount) {
+		return new CustomerEvent.Transaction("USR-005", at, description, new BigDecimal(amount).negate(), "debit",
+				"Cash");
+	}
+
+	private static Transaction stored(LocalDate date, String description, String amount, String type,
+			String category) {
+		Transaction tx = new Transaction();
+		tx.setCustomerUserId("USR-004");
+		tx.setTransactionDate(date);
+		tx.setDescription(description);
+		tx.setAmount(new BigDecimal(amount));
+		tx.setType(type);
+		tx.setCategory(category);
+		return tx;
+	}
+}
@@ -0,0 +1,305 @@
+package com.riskmonitor.app.controller;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.riskmonitor.app.model.CashFlowRecord;
+import com.riskmonitor.app.model.CreditScoreRecord;
+import com.riskmonitor.app.model.Customer;
+import com.riskmonitor.app.repository.*;
+import com.riskmonitor.app.service.BulkReportService;
+import com.riskmonitor.app.service.ChartImageCache;
+import com.riskmonitor.app.service.ChartRenderer;
+import com.riskmonitor.app.service.CustomerProfileService;
+import com.riskmonitor.app.service.RenderLimiter;
+import com.riskmonitor.app.service.ReportCacheService;
+import com.riskmonitor.app.service.ReportMetrics;
+import com.riskmonitor.app.service.ReportService;
+import com.riskmonitor.app.service.ReportStore;
+import com.riskmonitor.app.service.ReportTracer;
+import com.riskmonitor.app.service.StoredReport;
+import com.riskmonitor.app.service.TransactionFlagger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReportControllerTest {
+
+	private static final String PDF = "%PDF-1.7 stored report body";
+
+	@TempDir
+	Path dir;
+
+	private ReportStore store;
+	private ReportCacheService cache;
+	private StoredReport report;
+	private ReportController controller;
+	private ReportService reportService;
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new ReportStore();
+		ReflectionTestUtils.setField(store, "storeDir", dir.toString());
+		ReflectionTestUtils.setField(store, "segmentBytes", 1L << 20);
+		ReflectionTestUtils.setField(store, "retentionDays", 30L);
+		ReflectionTestUtils.setField(store, "maxBytes", 1L << 30);
+		invoke(store, "init");
+		report = store.writeThrough("r1", "USR-001", "Customer Risk Report", "analyst", new ByteArrayOutputStream(),
+				out -> out.write(PDF.getBytes(StandardCharsets.US_ASCII)));
+
+		cache = new ReportCacheService();
+		ReflectionTestUtils.setField(cache, "enabled", false);
+		ReflectionTestUtils.setField(cache, "memoryMaxBytes", 1L << 24);
+		ReflectionTestUtils.setField(cache, "maxEntryBytes", 1 << 22);
+		ReflectionTestUtils.setField(cache, "ttlMinutes", 30L);
+		ReflectionTestUtils.setField(cache, "diskDir", "");
+		invoke(cache, "init");
+
+		controller = new ReportController();
+		reportService = new ReportService(new ChartImageCache(8), new ChartRenderer(true),
+				TransactionFlagger.defaults(), true);
+		ReflectionTestUtils.setField(controller, "reportStore", store);
+		ReflectionTestUtils.setField(controller, "reportService", reportService);
+		ReflectionTestUtils.setField(controller, "reportCacheService", cache);
+		ReflectionTestUtils.setField(controller, "reportTracer", new ReportTracer(0, 10));
+		ReflectionTestUtils.setField(controller, "renderLimiter", new RenderLimiter(1, 1000));
+		ReflectionTestUtils.setField(controller, "reportMetrics", new ReportMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(controller, "customerProfileService", profileService());
+		mvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		invoke(store, "close");
+	}
+
+	@Test
+	void servesWholeReportWithETag() throws Exception {
+		MvcResult started = mvc.perform(get("/api/reports/download/r1"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, report.getETag()))
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, PDF.length()))
+				.andExpect(content().string(PDF));
+	}
+
+	@Test
+	void servesSingleByteRange() throws Exception {
+		MvcResult started = mvc.perform(get("/api/reports/download/r1").header(HttpHeaders.RANGE, "bytes=0-7"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-7/" + PDF.length()))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 8))
+				.andExpect(content().string("%PDF-1.7"));
+	}
+
+	@Test
+	void matchingIfNoneMatchIsNotModified() throws Exception {
+		mvc.perform(get("/api/reports/download/r1").header(HttpHeaders.IF_NONE_MATCH, "W/" + report.getETag()))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, report.getETag()))
+				.andExpect(content().string(""));
+	}
+
+	@Test
+	void rangePastTheEndIsNotSatisfiable() throws Exception {
+		mvc.perform(get("/api/reports/download/r1").header(HttpHeaders.RANGE, "bytes=" + PDF.length() + "-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + PDF.length()));
+	}
+
+	@Test
+	void generatesReportFromTheStoredProfile() throws Exception {
+		MvcResult started = mvc.perform(post("/api/reports/generate/USR-001"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/pdf"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+						"form-data; name=\"attachment\"; filename=\"aryan-mehta-report.pdf\""))
+				.andReturn();
+
+		byte[] pdf = result.getResponse().getContentAsByteArray();
+		String text = text(pdf);
+		assertTrue(text.contains("Aryan Mehta"), text);
+		// Charts are drawn from the stored series, not from client images
+		assertTrue(text.contains("Credit Score"), text);
+		assertTrue(text.contains("Expenses"), text);
+		assertTrue(text.contains("Jan"), text);
+
+		String reportId = result.getResponse().getHeader("X-Report-Id");
+		StoredReport stored = store.find(reportId).orElseThrow();
+		assertEquals("USR-001", stored.getCustomerId());
+		assertEquals(pdf.length, stored.getSize());
+	}
+
+	@Test
+	void bulkReportRecordsTheSignedInUser() throws Exception {
+		ReflectionTestUtils.setField(controller, "bulkReportService", new BulkReportService(reportService, 1));
+
+		MvcResult started = mvc.perform(post("/api/reports/bulk-generate")
+						.principal(() -> "alice")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"customerIds\":[\"USR-001\"],\"reportType\":\"Critical Customers\","
+								+ "\"generatedBy\":\"mallory\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		StoredReport stored = store.find(result.getResponse().getHeader("X-Report-Id")).orElseThrow();
+		assertEquals("alice", stored.getGeneratedBy());
+		String text = text(result.getResponse().getContentAsByteArray());
+		assertTrue(text.contains("Generated by: alice"), text);
+	}
+
+	@Test
+	void unknownCustomerIsNotFound() throws Exception {
+		mvc.perform(post("/api/reports/generate/USR-404"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void cacheHitIsMarkedAndNotTraced() throws Exception {
+		ReflectionTestUtils.setField(cache, "enabled", true);
+
+		MvcResult started = mvc.perform(post("/api/reports/generate/USR-001").header("X-Report-Trace", "true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult rendered = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("X-Report-Trace-Id"))
+				.andExpect(header().doesNotExist("X-Report-Cache"))
+				.andReturn();
+
+		started = mvc.perform(post("/api/reports/generate/USR-001").header("X-Report-Trace", "true"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Report-Cache", "hit"))
+				.andExpect(header().doesNotExist("X-Report-Trace-Id"))
+				.andExpect(content().bytes(rendered.getResponse().getContentAsByteArray()));
+	}
+
+	// Real CustomerProfileService over mocked repositories holding one customer
+	private static CustomerProfileService profileService() {
+		CustomerRepository customers = mock(CustomerRepository.class);
+		when(customers.findByUserIdIn(anyCollection())).thenAnswer(call -> {
+			Collection<String> ids = call.getArgument(0);
+			return ids.contains("USR-001") ? List.of(customer()) : List.of();
+		});
+		CashFlowRecordRepository cashFlow = mock(CashFlowRecordRepository.class);
+		when(cashFlow.findByCustomerUserIdIn(anyCollection())).thenReturn(List.of(
+				cashFlow("Jan", 82000, 61000), cashFlow("Feb", 80000, 74000)));
+		CreditScoreRecordRepository creditScores = mock(CreditScoreRecordRepository.class);
+		when(creditScores.findByCustomerUserIdIn(anyCollection())).thenReturn(List.of(
+				creditScore("Jan", 742), creditScore("Feb", 738)));
+
+		CustomerProfileService service = new CustomerProfileService();
+		ReflectionTestUtils.setField(service, "customerRepository", customers);
+		ReflectionTestUtils.setField(service, "cashFlowRecordRepository", cashFlow);
+		ReflectionTestUtils.setField(service, "creditScoreRecordRepository", creditScores);
+		ReflectionTestUtils.setField(service, "transactionRepository", mock(TransactionRepository.class));
+		ReflectionTestUtils.setField(service, "paymentRecordRepository", mock(PaymentRecordRepository.class));
+		ReflectionTestUtils.setField(service, "spendingCategoryRepository", mock(SpendingCategoryRepository.class));
+		ReflectionTestUtils.setField(service, "alertRepository", mock(AlertRepository.class));
+		ReflectionTestUtils.setField(service, "liquidityRecordRepository", mock(LiquidityRecordRepository.class));
+		ReflectionTestUtils.setField(service, "recentTransactions", 10);
+		return service;
+	}
+
+	private static Customer customer() {
+		Customer customer = new Customer();
+		customer.setUserId("USR-001");
+		customer.setName("Aryan Mehta");
+		customer.setEmail("aryan.mehta@email.com");
+		customer.setAccountNumber("XXXX-XXXX-4521");
+		customer.setCreditScore(742);
+		customer.setCreditScoreStatus("Good");
+		customer.setStatus("Active");
+		customer.setTotalAssets(BigDecimal.valueOf(2850000));
+		customer.setTotalLiabilities(BigDecimal.valueOf(1200000));
+		customer.setTotalDebt(BigDecimal.valueOf(950000));
+		customer.setNetWorth(BigDecimal.valueOf(1650000));
+		customer.setMonthlyIncome(BigDecimal.valueOf(82000));
+		customer.setMonthlyExpenses(BigDecimal.valueOf(61000));
+		customer.setRiskScore("Low");
+		customer.setRiskPercentage(18);
+		customer.setStressLevel("Low Stress");
+		return customer;
+	}
+
+	private static CashFlowRecord cashFlow(String month, int income, int expenses) {
+		CashFlowRecord record = new CashFlowRecord();
+		record.setCustomerUserId("USR-001");
+		record.setMonth(month);
+		record.setYear(2026);
+		record.setTotalIncome(BigDecimal.valueOf(income));
+		record.setTotalExpenses(BigDecimal.valueOf(expenses));
+		return record;
+	}
+
+	private static CreditScoreRecord creditScore(String month, int score) {
+		CreditScoreRecord record = new CreditScoreRecord();
+		record.setCustomerUserId("USR-001");
+		record.setMonth(month);
+		record.setYear(2026);
+		record.setScore(score);
+		return record;
+	}
+
+	private static String text(byte[] pdf) throws Exception {
+		StringBuilder text = new StringBuilder();
+		try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+			for (int page = 1; page <= document.getNumberOfPages(); page++) {
+				text.append(PdfTextExtractor.getTextFromPage(document.getPage(page))).append('\n');
+			}
+		}
+		return text.toString();
+	}
+
+	// init/close are package-private lifecycle hooks
+	private static void invoke(Object target, String method) throws Exception {
+		Method hook = target.getClass().getDeclaredMethod(method);
+		hook.setAccessible(true);
+		hook.invoke(target);
+	}
+}
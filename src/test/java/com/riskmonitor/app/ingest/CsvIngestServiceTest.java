@@ -0,0 +1,142 @@
+package com.riskmonitor.app.ingest;
+
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CsvIngestServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void headerColumnsAreNormalisedAndValidated() throws Exception {
+		Path csv = Files.writeString(dir.resolve("transactions.csv"),
+				"\uFEFFcustomer_user_id,\"Transaction_Date\", amount\nUSR-001,2026-01-01,10\n");
+
+		List<String> columns = IngestTable.TRANSACTIONS.validate(CsvIngestService.readHeader(csv));
+
+		assertEquals(List.of("customer_user_id", "transaction_date", "amount"), columns);
+	}
+
+	@Test
+	void unknownOrMissingKeyColumnsAreRejected() {
+		// Header names end up in the COPY column list, so anything unexpected must fail
+		assertThrows(IllegalArgumentException.class,
+				() -> IngestTable.CUSTOMERS.validate(List.of("user_id", "name); DROP TABLE users; --")));
+		assertThrows(IllegalArgumentException.class,
+				() -> IngestTable.ALERTS.validate(List.of("type", "message")));
+	}
+
+	@Test
+	void replaceRunsInOneTransactionAndKeepsTablesWithoutAFile() throws Exception {
+		Files.writeString(dir.resolve("customers.csv"), "user_id,name\nUSR-001,Aryan Mehta\n");
+		Files.writeString(dir.resolve("transactions.csv"), "customer_user_id,amount,risk_flag\nUSR-001,10,\n");
+		Database db = new Database();
+
+		List<TableLoad> loads = db.service().ingest(dir, IngestMode.REPLACE);
+
+		assertEquals(List.of("customers", "transactions"), loads.stream().map(TableLoad::table).toList());
+		verify(db.dataSource, times(1)).getConnection();
+		verify(db.connection).commit();
+		verify(db.connection, never()).rollback();
+		verify(db.events).publishEvent(any(CustomerDataIngestedEvent.class));
+
+		String truncate = db.statement("TRUNCATE");
+		assertFalse(truncate.contains("CASCADE"), truncate);
+		for (String table : List.of("cash_flow_records", "credit_score_history", "payment_history",
+				"spending_categories", "alerts", "liquidity_data")) {
+			// Emptied only because customers is, and restored for the customers still present
+			assertTrue(truncate.contains(table), truncate);
+			int saved = db.sql.indexOf("CREATE TEMP TABLE ingest_keep_" + table + " ON COMMIT DROP AS SELECT * FROM " + table);
+			int restored = db.sql.indexOf("INSERT INTO " + table + " SELECT * FROM ingest_keep_" + table
+					+ " WHERE customer_user_id IN (SELECT user_id FROM customers)");
+			assertTrue(saved >= 0 && saved < db.sql.indexOf(truncate), table);
+			assertTrue(restored > db.sql.indexOf(truncate), table);
+		}
+	}
+
+	@Test
+	void replaceOfChildTablesLeavesTheOthersAlone() throws Exception {
+		Files.writeString(dir.resolve("transactions.csv"), "customer_user_id,amount,risk_flag\nUSR-001,10,\n");
+		Database db = new Database();
+
+		db.service().ingest(dir, IngestMode.REPLACE);
+
+		assertEquals("TRUNCATE transactions", db.statement("TRUNCATE"));
+		assertTrue(db.sql.stream().noneMatch(sql -> sql.contains("ingest_keep_")), db.sql.toString());
+	}
+
+	@Test
+	void failedReplaceRollsEverythingBack() throws Exception {
+		Files.writeString(dir.resolve("customers.csv"), "user_id,name\nUSR-001,Aryan Mehta\n");
+		Files.writeString(dir.resolve("transactions.csv"), "customer_user_id,amount,risk_flag\nUSR-001,10,\n");
+		Database db = new Database();
+		when(db.copy.copyIn(startsWith("COPY transactions"), any(InputStream.class), anyInt()))
+				.thenThrow(new SQLException("bad row"));
+
+		assertThrows(SQLException.class, () -> db.service().ingest(dir, IngestMode.REPLACE));
+
+		verify(db.connection).rollback();
+		verify(db.connection, never()).commit();
+		verifyNoInteractions(db.events);
+	}
+
+	/**
+	 * Mocked JDBC that records every statement run on its one connection.
+	 */
+	private static class Database {
+		final DataSource dataSource = mock(DataSource.class);
+		final Connection connection = mock(Connection.class);
+		final Statement stmt = mock(Statement.class);
+		final CopyManager copy = mock(CopyManager.class);
+		final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+		final List<String> sql = new ArrayList<>();
+
+		Database() throws Exception {
+			PGConnection pg = mock(PGConnection.class);
+			when(dataSource.getConnection()).thenReturn(connection);
+			when(connection.createStatement()).thenReturn(stmt);
+			when(connection.unwrap(PGConnection.class)).thenReturn(pg);
+			when(pg.getCopyAPI()).thenReturn(copy);
+			when(stmt.execute(anyString())).thenAnswer(call -> sql.add(call.getArgument(0)));
+			when(stmt.executeUpdate(anyString())).thenAnswer(call -> {
+				sql.add(call.getArgument(0));
+				return 0;
+			});
+			when(stmt.executeQuery(anyString())).thenAnswer(call -> {
+				sql.add(call.getArgument(0));
+				ResultSet rs = mock(ResultSet.class);
+				when(rs.next()).thenReturn(true, false);
+				return rs;
+			});
+			when(copy.copyIn(anyString(), any(InputStream.class), anyInt())).thenReturn(1L);
+		}
+
+		CsvIngestService service() {
+			return new CsvIngestService(dataSource, events, TransactionFlagger.defaults(), 2);
+		}
+
+		String statement(String prefix) {
+			return sql.stream().filter(s -> s.startsWith(prefix)).findFirst().orElseThrow();
+		}
+	}
+}
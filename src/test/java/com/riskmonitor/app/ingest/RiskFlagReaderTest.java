@@ -0,0 +1,48 @@
+package com.riskmonitor.app.ingest;
+
+import com.riskmonitor.app.service.TransactionFlagger;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskFlagReaderTest {
+
+	@Test
+	void appendsFlagColumnPerRecord() throws IOException {
+		String csv = "customer_user_id,description,amount\r\n"
+				+ "USR-001,Salary Credit,45000\r\n"
+				+ "USR-001,\"Missed EMI, \"\"Car Loan\"\"\",-12000\r\n"
+				+ "USR-002,\"ATM\nWithdrawal\",-2000\n"
+				+ "\n"
+				+ "USR-003,loan top-up,5000";
+
+		assertEquals("customer_user_id,description,amount,risk_flag\r\n"
+				+ "USR-001,Salary Credit,45000,Normal\r\n"
+				+ "USR-001,\"Missed EMI, \"\"Car Loan\"\"\",-12000,Critical\r\n"
+				+ "USR-002,\"ATM\nWithdrawal\",-2000,Watch\n"
+				+ "\n"
+				+ "USR-003,loan top-up,5000,Medium", drain(new RiskFlagReader(new StringReader(csv),
+						TransactionFlagger.defaults(), 1), 7));
+	}
+
+	@Test
+	void onlyTheDescriptionFieldIsClassified() throws IOException {
+		String csv = "category,description\nLoan,Rent\n";
+
+		assertEquals("category,description,risk_flag\nLoan,Rent,Normal\n",
+				drain(new RiskFlagReader(new StringReader(csv), TransactionFlagger.defaults(), 1), 4096));
+	}
+
+	private static String drain(Reader reader, int chunk) throws IOException {
+		StringBuilder out = new StringBuilder();
+		char[] buffer = new char[chunk];
+		for (int n; (n = reader.read(buffer, 0, chunk)) != -1;) {
+			out.append(buffer, 0, n);
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,219 @@
+package com.riskmonitor.app.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.dto.RiskScore;
+import com.riskmonitor.app.model.Alert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PushBroadcasterTest {
+
+	private final ObjectMapper objectMapper = spy(new ObjectMapper().findAndRegisterModules());
+	private final PushBroadcaster broadcaster = new PushBroadcaster(objectMapper, 4, 4, 4, 60_000, 50);
+
+	@AfterEach
+	void tearDown() {
+		broadcaster.shutdown();
+	}
+
+	@Test
+	void eachEventIsSerializedOnceAndFilteredPerStream() throws Exception {
+		RecordingEmitter all = new RecordingEmitter();
+		RecordingEmitter one = new RecordingEmitter();
+		RecordingEmitter other = new RecordingEmitter();
+		assertTrue(broadcaster.register(all, null));
+		assertTrue(broadcaster.register(one, Set.of("USR-001")));
+		assertTrue(broadcaster.register(other, Set.of("USR-002")));
+		assertTrue(broadcaster.register(new RecordingEmitter(), Set.of("USR-003")));
+		assertFalse(broadcaster.register(new RecordingEmitter(), null)); // over the limit of 4
+
+		broadcaster.publishAlerts(List.of(alert("USR-001")));
+
+		String frame = all.next();
+		assertTrue(frame.contains("event:alert"), frame);
+		assertTrue(frame.contains("\"message\":\"Missed EMI payment\""), frame);
+		assertEquals(frame, one.next());
+		verify(objectMapper, times(1)).writeValueAsString(any());
+
+		broadcaster.publishRiskChanges(List.of(new RiskScore("USR-002", 72, "High", "High Stress")));
+		assertTrue(all.next().contains("event:risk"));
+		assertTrue(other.next().contains("\"riskPercentage\":72"));
+		assertNull(one.sent.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void slowStreamIsDroppedWithoutBlockingPublisherOrOthers() throws Exception {
+		BlockedEmitter slow = new BlockedEmitter();
+		RecordingEmitter fast = new RecordingEmitter();
+		broadcaster.register(slow, null);
+		broadcaster.register(fast, null);
+
+		// One frame stuck in send, four buffered, the sixth overflows. complete() would wait for
+		// the stuck send, so this only finishes if the publisher never calls it
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 6; i++) {
+				broadcaster.publishAlerts(List.of(alert("USR-00" + i)));
+				assertNotNull(fast.next());
+			}
+		});
+
+		assertEquals(1, broadcaster.dropped());
+		assertEquals(1, broadcaster.subscribers());
+		assertFalse(slow.completed);
+
+		slow.release.countDown();
+		assertTrue(slow.completedLatch.await(5, TimeUnit.SECONDS), "dropped stream completed by its sender");
+
+		broadcaster.publishRefresh();
+		assertTrue(fast.next().contains("event:refresh"));
+	}
+
+	@Test
+	void stuckStreamsDoNotStopFanOut() throws Exception {
+		List<BlockedEmitter> stuck = List.of(new BlockedEmitter(), new BlockedEmitter(), new BlockedEmitter());
+		stuck.forEach(emitter -> broadcaster.register(emitter, null));
+		RecordingEmitter fast = new RecordingEmitter();
+		broadcaster.register(fast, null);
+
+		broadcaster.publishRefresh();
+		assertTrue(fast.next().contains("event:refresh"));
+		broadcaster.publishAlerts(List.of(alert("USR-001")));
+		assertTrue(fast.next().contains("event:alert"));
+		stuck.forEach(emitter -> emitter.release.countDown());
+	}
+
+	@Test
+	void sendPastTimeoutIsDroppedOnHeartbeat() throws Exception {
+		BlockedEmitter stuck = new BlockedEmitter();
+		RecordingEmitter fast = new RecordingEmitter();
+		broadcaster.register(stuck, null);
+		broadcaster.register(fast, null);
+		broadcaster.publishRefresh();
+		fast.next();
+		Thread.sleep(100); // past the 50 ms send timeout
+
+		broadcaster.heartbeat();
+
+		assertEquals(1, broadcaster.dropped());
+		assertEquals(1, broadcaster.subscribers());
+		assertTrue(fast.next().contains("keep-alive"));
+		assertEquals(5, broadcaster.senderThreads(), "stuck sender replaced");
+		stuck.release.countDown();
+		assertTrue(stuck.completedLatch.await(5, TimeUnit.SECONDS));
+		awaitSenders(broadcaster, 4);
+	}
+
+	@Test
+	void manyStreamsShareAFixedSetOfSenders() throws Exception {
+		PushBroadcaster shared = new PushBroadcaster(objectMapper, 8, 1000, 2, 60_000, 10_000);
+		try {
+			List<RecordingEmitter> streams = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				RecordingEmitter stream = new RecordingEmitter();
+				assertTrue(shared.register(stream, null));
+				streams.add(stream);
+			}
+
+			for (int i = 0; i < 3; i++) {
+				shared.publishAlerts(List.of(alert("USR-00" + i)));
+			}
+
+			for (RecordingEmitter stream : streams) {
+				for (int i = 0; i < 3; i++) {
+					assertTrue(stream.next().contains("USR-00" + i));
+				}
+			}
+			assertEquals(2, shared.senderThreads());
+			assertEquals(0, shared.dropped());
+		} finally {
+			shared.shutdown();
+		}
+	}
+
+	@Test
+	void largeScoreBatchesBecomeOneRefresh() throws Exception {
+		RecordingEmitter stream = new RecordingEmitter();
+		broadcaster.register(stream, null);
+
+		broadcaster.publishRiskChanges(List.of(
+				new RiskScore("USR-001", 10, "Low", "Low Stress"), new RiskScore("USR-002", 20, "Low", "Low Stress")));
+
+		assertTrue(stream.next().contains("event:refresh"));
+		assertNull(stream.sent.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	private static void awaitSenders(PushBroadcaster broadcaster, int expected) throws InterruptedException {
+		for (int i = 0; i < 50 && broadcaster.senderThreads() != expected; i++) {
+			Thread.sleep(100);
+		}
+		assertEquals(expected, broadcaster.senderThreads());
+	}
+
+	private static Alert alert(String customerId) {
+		return new Alert(null, customerId, "critical", "Missed EMI payment", LocalDateTime.of(2025, 6, 5, 10, 0));
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+
+		final LinkedBlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		volatile boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			String frame = builder.build().stream()
+					.map(part -> String.valueOf(part.getData()))
+					.collect(Collectors.joining());
+			sent.add(frame);
+		}
+
+		@Override
+		public synchronized void complete() {
+			completed = true;
+		}
+
+		String next() throws InterruptedException {
+			String frame = sent.poll(5, TimeUnit.SECONDS);
+			assertNotNull(frame, "no frame sent");
+			return frame;
+		}
+	}
+
+	// A client whose socket stopped draining: send blocks, and complete waits for it like SseEmitter's lock
+	private static class BlockedEmitter extends RecordingEmitter {
+
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch completedLatch = new CountDownLatch(1);
+
+		@Override
+		public synchronized void send(SseEventBuilder builder) throws IOException {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IOException("closed");
+		}
+
+		@Override
+		public synchronized void complete() {
+			super.complete();
+			completedLatch.countDown();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.riskmonitor.app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() {
+		encoder.shutdown();
+	}
+
+	@Test
+	void hashesAtConfiguredCostAndFlagsWeakerHashesForUpgrade() {
+		encoder = new BoundedPasswordEncoder(5, 1, 4);
+		String hash = encoder.encode("s3cret");
+
+		assertTrue(hash.startsWith("$2a$05$"));
+		assertTrue(encoder.matches("s3cret", hash));
+		assertFalse(encoder.matches("wrong", hash));
+		assertFalse(encoder.upgradeEncoding(hash));
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("s3cret")));
+	}
+
+	@Test
+	void rejectsImmediatelyWhenPoolAndQueueAreFull() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		encoder = new BoundedPasswordEncoder(12, 1, 1, registry);
+		List<CompletableFuture<String>> calls = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			calls.add(CompletableFuture.supplyAsync(() -> encoder.encode("s3cret")));
+		}
+
+		long rejected = calls.stream().filter(call -> {
+			try {
+				call.join();
+				return false;
+			} catch (CompletionException e) {
+				return e.getCause() instanceof RejectedExecutionException;
+			}
+		}).count();
+		assertTrue(rejected > 0, "expected saturation to reject some calls");
+		assertEquals(rejected, registry.get("auth.bcrypt.rejected").counter().count());
+		assertEquals(6 - rejected, registry.get("auth.bcrypt").tag("operation", "encode").timer().count());
+	}
+}
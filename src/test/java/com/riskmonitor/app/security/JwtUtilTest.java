@@ -0,0 +1,39 @@
+package com.riskmonitor.app.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+	private static final String SECRET = "riskmonitor-secret-key-must-be-long-enough-2024-barclays";
+
+	private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+
+	@Test
+	void validateTokenReturnsClaimsFromSingleParse() {
+		String token = jwtUtil.generateToken("analyst@riskmonitor.com", "ANALYST");
+
+		TokenClaims claims = jwtUtil.validateToken(token);
+
+		assertEquals("analyst@riskmonitor.com", claims.username());
+		assertEquals("ANALYST", claims.role());
+		assertTrue(claims.expiresAt().after(claims.issuedAt()));
+		assertTrue(jwtUtil.isTokenValid(token, "analyst@riskmonitor.com"));
+		assertFalse(jwtUtil.isTokenValid(token, "someone-else@riskmonitor.com"));
+	}
+
+	@Test
+	void validateTokenRejectsTamperedAndExpiredTokens() {
+		String token = jwtUtil.generateToken("analyst@riskmonitor.com", "ANALYST");
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+		assertThrows(JwtException.class, () -> jwtUtil.validateToken(tampered));
+
+		JwtUtil expiring = new JwtUtil(SECRET, -1_000);
+		String expired = expiring.generateToken("analyst@riskmonitor.com", "ANALYST");
+		assertThrows(ExpiredJwtException.class, () -> expiring.validateToken(expired));
+		assertFalse(expiring.isTokenValid(expired, "analyst@riskmonitor.com"));
+	}
+}
@@ -0,0 +1,80 @@
+package com.riskmonitor.app.security;
+
+import com.riskmonitor.app.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenDenyListTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TokenDenyList denyList = new TokenDenyList(userRepository, 60_000);
+
+	@Test
+	void refreshReplacesInactiveUsersFromDatabase() {
+		when(userRepository.findInactiveUsernames()).thenReturn(List.of("former.analyst"));
+		denyList.refresh();
+		assertTrue(denyList.isDenied(claims("former.analyst", new Date())));
+		assertFalse(denyList.isDenied(claims("analyst", new Date())));
+
+		when(userRepository.findInactiveUsernames()).thenReturn(List.of());
+		denyList.refresh();
+		assertFalse(denyList.isDenied(claims("former.analyst", new Date())));
+	}
+
+	@Test
+	void revokeTokensOnlyRejectsTokensIssuedBeforeRevocation() {
+		Date old = new Date(System.currentTimeMillis() - 5_000);
+		denyList.revokeTokens("analyst", Instant.now());
+		Date fresh = new Date(System.currentTimeMillis() + 1_000);
+
+		assertTrue(denyList.isDenied(claims("analyst", old)));
+		assertFalse(denyList.isDenied(claims("analyst", fresh)));
+	}
+
+	@Test
+	void tokenIssuedInTheRevocationSecondIsRejected() {
+		Instant revokedAt = Instant.parse("2026-10-18T09:00:00.750Z");
+		denyList.revokeTokens("analyst", revokedAt);
+
+		// iat is truncated to whole seconds, so this token may predate the revocation
+		assertTrue(denyList.isDenied(claims("analyst", Date.from(Instant.parse("2026-10-18T09:00:00Z")))));
+		assertFalse(denyList.isDenied(claims("analyst", Date.from(Instant.parse("2026-10-18T09:00:01Z")))));
+	}
+
+	@Test
+	void refreshLoadsPersistedRevocations() {
+		Instant revokedAt = Instant.now();
+		when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.of(revocation("analyst", revokedAt)));
+
+		denyList.refresh();
+
+		assertTrue(denyList.isDenied(claims("analyst", new Date(revokedAt.toEpochMilli() - 5_000))));
+		assertFalse(denyList.isDenied(claims("analyst", new Date(revokedAt.toEpochMilli() + 1_000))));
+		assertFalse(denyList.isDenied(claims("other", new Date(revokedAt.toEpochMilli() - 5_000))));
+	}
+
+	private static UserRepository.TokenRevocation revocation(String username, Instant validAfter) {
+		return new UserRepository.TokenRevocation() {
+			@Override
+			public String getUsername() {
+				return username;
+			}
+
+			@Override
+			public Instant getTokensValidAfter() {
+				return validAfter;
+			}
+		};
+	}
+
+	private static TokenClaims claims(String username, Date issuedAt) {
+		return new TokenClaims(username, "RISK_ANALYST", issuedAt, new Date(issuedAt.getTime() + 60_000));
+	}
+}
@@ -0,0 +1,68 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.riskmonitor.app.dto.RegisterRequest;
+import com.riskmonitor.app.model.User;
+import com.riskmonitor.app.repository.UserRepository;
+import com.riskmonitor.app.security.JwtUtil;
+import com.riskmonitor.app.security.TokenDenyList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+	@Mock private UserRepository userRepository;
+	@Mock private PasswordEncoder passwordEncoder;
+	@Mock private JwtUtil jwtUtil;
+	@Mock private AuthenticationManager authenticationManager;
+	@Mock private UserCache userCache;
+	@Mock private TokenDenyList tokenDenyList;
+
+	@InjectMocks
+	private AuthService authService;
+
+	@Test
+	void registrationIgnoresClientSuppliedRole() throws Exception {
+		// Same unknown-property handling as Spring Boot's mapper for the /register body
+		ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		RegisterRequest request = mapper.readValue("""
+				{"firstName":"Eve","lastName":"Mallory","email":"eve@example.com",
+				 "username":"eve","password":"s3cret","role":"ADMIN"}""", RegisterRequest.class);
+		when(passwordEncoder.encode("s3cret")).thenReturn("hash");
+
+		authService.register(request);
+
+		ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+		verify(userRepository).save(saved.capture());
+		assertEquals("RISK_ANALYST", saved.getValue().getRole());
+		assertTrue(saved.getValue().isActive());
+	}
+
+	@Test
+	void changeRolePersistsTokenRevocation() {
+		User user = new User();
+		user.setUsername("analyst");
+		user.setRole("RISK_ANALYST");
+		when(userRepository.findByUsername("analyst")).thenReturn(Optional.of(user));
+
+		authService.changeRole("analyst", "ADMIN");
+
+		assertEquals("ADMIN", user.getRole());
+		assertNotNull(user.getTokensValidAfter());
+		verify(userRepository).save(user);
+		verify(tokenDenyList).revokeTokens("analyst", user.getTokensValidAfter());
+	}
+}
@@ -0,0 +1,131 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BulkReportServiceTest {
+
+	private final ReportService reportService = spy(new ReportService(new ChartImageCache(8),
+			new ChartRenderer(true), TransactionFlagger.defaults(), true));
+	private final BulkReportService bulkReportService = new BulkReportService(reportService, 2);
+
+	@AfterEach
+	void tearDown() {
+		bulkReportService.shutdown();
+	}
+
+	@Test
+	void sectionsFollowRequestOrderWhateverOrderTheyFinishIn() throws Exception {
+		// The first section is the slowest to render, so it finishes after the others
+		doAnswer(call -> {
+			Thread.sleep(300);
+			return call.callRealMethod();
+		}).when(reportService).generateBulkSection(eq("USR-003"), any());
+
+		Map<String, JsonNode> data = new LinkedHashMap<>();
+		for (String id : List.of("USR-001", "USR-002", "USR-003")) {
+			data.put(id, SampleCustomers.get(id));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		bulkReportService.writeBulkReport(List.of("USR-003", "USR-001", "USR-002"), "Critical Customers",
+				"analyst", data, out);
+
+		String text = text(out.toByteArray());
+		int karan = text.indexOf("Customer: Karan Patel");
+		int aryan = text.indexOf("Customer: Aryan Mehta");
+		int priya = text.indexOf("Customer: Priya Nair");
+		assertTrue(karan >= 0 && aryan >= 0 && priya >= 0, "every section is present");
+		assertTrue(karan < aryan && aryan < priya, "sections in request order");
+	}
+
+	@Test
+	void sectionsAreNotRecordedAsCustomerReports() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ReportService metered = new ReportService(new ChartImageCache(8), new ChartRenderer(true),
+				TransactionFlagger.defaults(), true, new ReportMetrics(registry));
+		BulkReportService bulk = new BulkReportService(metered, 2);
+		try {
+			Map<String, JsonNode> data = new LinkedHashMap<>();
+			for (String id : List.of("USR-001", "USR-002", "USR-003")) {
+				data.put(id, SampleCustomers.get(id));
+			}
+			bulk.writeBulkReport(List.copyOf(data.keySet()), "Critical Customers", "analyst", data,
+					new ByteArrayOutputStream());
+		} finally {
+			bulk.shutdown();
+		}
+
+		assertNull(registry.find("report.pdf.size").tag("type", "customer").summary());
+		DistributionSummary sections = registry.find("report.pdf.size").tag("type", "bulk-section").summary();
+		assertNotNull(sections);
+		assertEquals(3, sections.count());
+		for (Timer phase : registry.find("report.render.phase").timers()) {
+			assertEquals(0, phase.count(), phase.getId().toString());
+		}
+	}
+
+	@Test
+	void sectionsBorrowOnlyFreeRenderTurns() throws Exception {
+		RenderLimiter limiter = new RenderLimiter(2, 0);
+		assertTrue(limiter.tryAcquire(), "the request's own turn");
+		BulkReportService bulk = new BulkReportService(reportService, limiter, 4);
+		AtomicInteger rendering = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		doAnswer(call -> {
+			peak.accumulateAndGet(rendering.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(100);
+				return call.callRealMethod();
+			} finally {
+				rendering.decrementAndGet();
+			}
+		}).when(reportService).generateBulkSection(any(), any());
+
+		Map<String, JsonNode> data = new LinkedHashMap<>();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			String id = List.of("USR-001", "USR-002", "USR-003").get(i % 3);
+			data.put(id, SampleCustomers.get(id));
+			ids.add(id);
+		}
+		try {
+			bulk.writeBulkReport(ids, "Critical Customers", "analyst", data, new ByteArrayOutputStream());
+		} finally {
+			bulk.shutdown();
+		}
+
+		// The request's own turn plus the one free turn, not the pool's four threads
+		assertEquals(2, peak.get());
+		assertEquals(1, limiter.available(), "borrowed turns are handed back");
+	}
+
+	private static String text(byte[] pdf) throws Exception {
+		StringBuilder text = new StringBuilder();
+		try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+			for (int page = 1; page <= document.getNumberOfPages(); page++) {
+				text.append(PdfTextExtractor.getTextFromPage(document.getPage(page))).append('\n');
+			}
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,85 @@
+package com.riskmonitor.app.service;
+
+import com.itextpdf.io.image.ImageData;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartImageCacheTest {
+
+	private final ChartImageCache cache = new ChartImageCache(2);
+
+	@Test
+	void repeatedPayloadIsAHit() throws Exception {
+		String chart = png(3, 2);
+
+		ImageData first = cache.get(chart);
+		ImageData second = cache.get(chart);
+
+		assertSame(first, second);
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(3, first.getWidth());
+		assertEquals(2, first.getHeight());
+	}
+
+	@Test
+	void dataUrlPrefixIsNotPartOfTheKey() throws Exception {
+		String chart = png(4, 4);
+
+		ImageData fromUrl = cache.get("data:image/png;base64," + chart);
+		ImageData bare = cache.get(chart);
+
+		assertSame(fromUrl, bare);
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() throws Exception {
+		String a = png(1, 1);
+		String b = png(2, 1);
+		String c = png(3, 1);
+
+		ImageData first = cache.get(a);
+		cache.get(b);
+		cache.get(a); // b is now the eldest
+		cache.get(c);
+
+		assertEquals(2, cache.size());
+		assertSame(first, cache.get(a));
+		cache.get(b);
+		assertEquals(4, cache.getMisses());
+	}
+
+	@Test
+	void unpaddedPayloadDecodes() throws Exception {
+		int stripped = 0;
+		for (int width = 1; width <= 6; width++) {
+			String padded = png(width, 1);
+			String unpadded = padded.replaceAll("=+$", "");
+			stripped += padded.length() - unpadded.length();
+			ImageData image = new ChartImageCache(2).get("data:image/png;base64," + unpadded);
+			assertEquals(width, image.getWidth());
+		}
+		assertTrue(stripped > 0, "no sample needed padding");
+	}
+
+	@Test
+	void invalidPayloadIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> cache.get("data:image/png;base64,not*base64"));
+		assertThrows(IllegalArgumentException.class, () -> cache.get("data:image/png;base64,AAAAA"));
+	}
+
+	private static String png(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			ImageIO.write(image, "png", out);
+			return Base64.getEncoder().encodeToString(out.toByteArray());
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Image;
+import com.riskmonitor.app.dto.CustomerProfile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartRendererTest {
+
+	private static final List<String> CHARTS = List.of("cashFlow", "creditScore", "paymentHistory", "liquidity");
+
+	private final ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	private final ChartRenderer renderer = new ChartRenderer(true);
+
+	@Test
+	void drawsEveryChartForTheSampleCustomers() throws Exception {
+		for (String customerId : List.of("USR-001", "USR-002", "USR-003")) {
+			CustomerProfile customer = mapper.treeToValue(SampleCustomers.get(customerId), CustomerProfile.class);
+
+			String text = render(customer);
+
+			assertTrue(text.contains("Income"), customerId);
+			assertTrue(text.contains("Credit Score"), customerId);
+			assertTrue(text.contains("On-time"), customerId);
+			assertTrue(text.contains("Healthy"), customerId);
+			assertTrue(text.contains(customer.getCashFlowData().get(0).getMonth()), customerId);
+		}
+	}
+
+	@Test
+	void flatCreditScoreAtTheTopOfTheScaleStillHasAnAxis() throws Exception {
+		CustomerProfile customer = mapper.treeToValue(SampleCustomers.get("USR-001"), CustomerProfile.class);
+		customer.getCreditScoreHistory().forEach(point -> point.setScore(920));
+
+		String text = render(customer);
+
+		assertTrue(text.contains("900"), text);
+		assertTrue(text.contains("950"), text);
+	}
+
+	@Test
+	void chartsInOneDocumentShareTheirFont() throws Exception {
+		CustomerProfile customer = mapper.treeToValue(SampleCustomers.get("USR-002"), CustomerProfile.class);
+		try (PdfDocument pdf = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()))) {
+			PdfObject first = font(renderer.render("cashFlow", customer, pdf));
+			PdfObject second = font(renderer.render("liquidity", customer, pdf));
+
+			assertSame(first, second);
+		}
+	}
+
+	private String render(CustomerProfile customer) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+			for (String chart : CHARTS) {
+				assertTrue(renderer.canRender(chart, customer), chart);
+				document.add(renderer.render(chart, customer, document.getPdfDocument()));
+			}
+		}
+
+		StringBuilder text = new StringBuilder();
+		try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+			for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+				text.append(PdfTextExtractor.getTextFromPage(pdf.getPage(page))).append('\n');
+			}
+		}
+		return text.toString();
+	}
+
+	private static PdfObject font(Image chart) {
+		PdfFormXObject form = (PdfFormXObject) chart.getXObject();
+		PdfName name = form.getResources().getResourceNames(PdfName.Font).iterator().next();
+		return form.getResources().getResourceObject(PdfName.Font, name);
+	}
+}
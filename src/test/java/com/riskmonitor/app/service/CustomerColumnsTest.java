@@ -0,0 +1,69 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.PortfolioStats;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerColumnsTest {
+
+	@Test
+	void unfilteredAndFilteredScansAgree() {
+		CustomerColumns columns = new CustomerColumns(2);
+		columns = append(columns, row("USR-001", 620, 85, "Critical"));
+		columns = append(columns, row("USR-002", 0, 65, "High"));
+		columns = append(columns, row("USR-003", 790, 20, "Low"));
+
+		columns.publish();
+		PortfolioStats all = columns.summarize(CustomerColumns.ALL_STATUSES, 0, 100);
+		assertEquals(3, all.getCustomers());
+		assertEquals(56.7, all.getAverageRiskPercentage());
+		assertEquals(705.0, all.getAverageCreditScore()); // USR-002 has no score
+		assertEquals(new BigDecimal("150000.30"), all.getTotalMonthlyIncome());
+		assertEquals(Map.of("Critical", 1L, "High", 1L, "Medium", 0L, "Low", 1L), all.getRiskBandCounts());
+
+		// Running totals and a scan that excludes nobody must agree
+		PortfolioStats viaFilter = columns.summarize(CustomerColumns.ALL_STATUSES, 0, 99);
+		assertEquals(all, viaFilter);
+
+		PortfolioStats atRisk = columns.summarize(1 << CustomerColumns.STATUSES.indexOf("Critical")
+				| 1 << CustomerColumns.STATUSES.indexOf("High"), 70, 100);
+		assertEquals(1, atRisk.getCustomers());
+		assertEquals(Map.of("Critical", 1L), atRisk.getStatusCounts());
+	}
+
+	@Test
+	void updatesKeepTotalsInStep() {
+		CustomerColumns columns = new CustomerColumns(4);
+		int row = columns.append(row("USR-004", 700, 40, "Medium"));
+		columns.append(row("USR-005", 710, 45, "Medium"));
+
+		columns.setRiskPercentage(row, 82);
+		columns.set(1, row("USR-005", 0, 61, "High"));
+		columns.publish();
+
+		PortfolioStats totals = columns.summarize(CustomerColumns.ALL_STATUSES, 0, 100);
+		assertEquals(columns.summarize(CustomerColumns.ALL_STATUSES, 0, 99), totals);
+		assertEquals(Map.of("Critical", 1L, "High", 1L, "Medium", 0L, "Low", 0L), totals.getRiskBandCounts());
+		assertEquals(700.0, totals.getAverageCreditScore());
+		assertEquals(1, columns.summarize(CustomerColumns.ALL_STATUSES, 80, 100).getCustomers());
+		assertEquals(0, CustomerColumns.statusCode("Dormant"));
+		assertEquals(-1250, CustomerColumns.toCents(new BigDecimal("-12.499")));
+	}
+
+	private static CustomerColumns append(CustomerColumns columns, CustomerColumns.Row row) {
+		if (columns.size() == columns.capacity()) {
+			columns = columns.withCapacity(columns.capacity() * 2);
+		}
+		columns.append(row);
+		return columns;
+	}
+
+	private static CustomerColumns.Row row(String userId, int creditScore, int risk, String status) {
+		return new CustomerColumns.Row(userId, creditScore, risk, 5_000_010, 4_000_000, 10_000_000,
+				CustomerColumns.statusCode(status));
+	}
+}
@@ -0,0 +1,74 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.CustomerFilter;
+import com.riskmonitor.app.dto.CustomerPage;
+import com.riskmonitor.app.dto.CustomerSummary;
+import com.riskmonitor.app.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerListServiceTest {
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@InjectMocks
+	private CustomerListService service;
+
+	private final CustomerFilter filter = new CustomerFilter();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "defaultSize", 2);
+		ReflectionTestUtils.setField(service, "maxSize", 10);
+	}
+
+	@Test
+	void cursorFromLastRowSeeksToNextPage() {
+		when(customerRepository.findPage(eq(filter), anyInt(), isNull(), eq(3)))
+				.thenReturn(List.of(summary("USR-009", 90), summary("USR-004", 85), summary("USR-001", 85)));
+
+		CustomerPage first = service.listCustomers(filter, null, null);
+
+		assertEquals(List.of("USR-009", "USR-004"), first.getCustomers().stream().map(CustomerSummary::getId).toList());
+		assertNotNull(first.getNextCursor());
+
+		when(customerRepository.findPage(filter, 85, "USR-004", 3)).thenReturn(List.of(summary("USR-001", 85)));
+
+		CustomerPage second = service.listCustomers(filter, first.getNextCursor(), null);
+
+		assertEquals(1, second.getCustomers().size());
+		assertNull(second.getNextCursor());
+	}
+
+	@Test
+	void pageSizeIsCappedAndBadCursorsRejected() {
+		when(customerRepository.findPage(any(), anyInt(), any(), anyInt())).thenReturn(List.of());
+
+		service.listCustomers(filter, null, 500);
+		verify(customerRepository).findPage(filter, 0, null, 11);
+
+		assertThrows(IllegalArgumentException.class, () -> service.listCustomers(filter, "not a cursor!", null));
+		assertThrows(IllegalArgumentException.class,
+				() -> service.listCustomers(filter, CustomerListService.encode(5, "").substring(0, 1), null));
+	}
+
+	private static CustomerSummary summary(String id, int risk) {
+		return new CustomerSummary(id, "Customer " + id, "High", "High", risk, 700, "Good");
+	}
+}
@@ -0,0 +1,82 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.CustomerProfile;
+import com.riskmonitor.app.model.CashFlowRecord;
+import com.riskmonitor.app.model.Customer;
+import com.riskmonitor.app.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerProfileServiceTest {
+
+	@Mock private CustomerRepository customerRepository;
+	@Mock private TransactionRepository transactionRepository;
+	@Mock private CashFlowRecordRepository cashFlowRecordRepository;
+	@Mock private CreditScoreRecordRepository creditScoreRecordRepository;
+	@Mock private PaymentRecordRepository paymentRecordRepository;
+	@Mock private SpendingCategoryRepository spendingCategoryRepository;
+	@Mock private AlertRepository alertRepository;
+	@Mock private LiquidityRecordRepository liquidityRecordRepository;
+
+	@InjectMocks
+	private CustomerProfileService service;
+
+	@Test
+	void loadsManyProfilesWithOneQueryPerTable() {
+		when(customerRepository.findByUserIdIn(anyCollection()))
+				.thenReturn(List.of(customer("USR-002"), customer("USR-001")));
+		when(cashFlowRecordRepository.findByCustomerUserIdIn(anyCollection())).thenReturn(List.of(
+				cashFlow("USR-001", "Jan", 2026), cashFlow("USR-001", "Dec", 2025), cashFlow("USR-002", "Nov", 2025)));
+
+		Map<String, CustomerProfile> profiles = service.getProfiles(List.of("USR-001", "USR-002", "USR-404"));
+
+		assertEquals(List.of("USR-001", "USR-002"), List.copyOf(profiles.keySet()));
+		assertEquals(List.of("Dec", "Jan"), profiles.get("USR-001").getCashFlowData().stream()
+				.map(CustomerProfile.CashFlowPoint::getMonth).toList());
+		assertEquals(1, profiles.get("USR-002").getCashFlowData().size());
+
+		verify(customerRepository, times(1)).findByUserIdIn(anyCollection());
+		verify(cashFlowRecordRepository, times(1)).findByCustomerUserIdIn(anyCollection());
+		verify(transactionRepository, times(1)).findRecentByCustomerUserIdIn(anyCollection(), anyInt());
+		verify(alertRepository, times(1)).findByCustomerUserIdInOrderByCreatedAtDesc(anyCollection());
+	}
+
+	@Test
+	void unknownCustomerSkipsChildQueries() {
+		when(customerRepository.findByUserIdIn(any())).thenReturn(List.of());
+
+		assertTrue(service.getProfile("USR-404").isEmpty());
+		verifyNoInteractions(transactionRepository, cashFlowRecordRepository, alertRepository);
+	}
+
+	private static Customer customer(String userId) {
+		Customer customer = new Customer();
+		customer.setUserId(userId);
+		customer.setName("Customer " + userId);
+		return customer;
+	}
+
+	private static CashFlowRecord cashFlow(String userId, String month, int year) {
+		CashFlowRecord record = new CashFlowRecord();
+		record.setCustomerUserId(userId);
+		record.setMonth(month);
+		record.setYear(year);
+		record.setTotalIncome(BigDecimal.valueOf(45000));
+		record.setTotalExpenses(BigDecimal.valueOf(52000));
+		return record;
+	}
+}
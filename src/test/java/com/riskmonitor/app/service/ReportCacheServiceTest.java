@@ -0,0 +1,102 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheServiceTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private ReportCacheService cache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new ReportCacheService();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "memoryMaxBytes", 100L);
+		ReflectionTestUtils.setField(cache, "maxEntryBytes", 60);
+		ReflectionTestUtils.setField(cache, "ttlMinutes", 30L);
+		ReflectionTestUtils.setField(cache, "diskDir", "");
+		cache.init();
+	}
+
+	@Test
+	void keyIgnoresChartOrderButNotContent() throws Exception {
+		JsonNode data = mapper.readTree("{\"profile\":{\"name\":\"Aryan Mehta\"}}");
+		Map<String, String> charts = new LinkedHashMap<>();
+		charts.put("cashFlow", "AAAA");
+		charts.put("liquidity", "BBBB");
+		Map<String, String> reordered = new LinkedHashMap<>();
+		reordered.put("liquidity", "BBBB");
+		reordered.put("cashFlow", "AAAA");
+
+		assertEquals(cache.keyFor("USR-001", data, charts), cache.keyFor("USR-001", data, reordered));
+		assertNotEquals(cache.keyFor("USR-001", data, charts), cache.keyFor("USR-002", data, charts));
+		assertNotEquals(cache.keyFor("USR-001", data, charts),
+				cache.keyFor("USR-001", data, Map.of("cashFlow", "AAAB", "liquidity", "BBBB")));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedWhenOverBudget() {
+		cache.put("a", new byte[40]);
+		cache.put("b", new byte[40]);
+		assertNotNull(cache.get("a"));
+		cache.put("c", new byte[40]);
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1, cache.stats().getEvictions());
+		assertEquals(80, cache.stats().getMemoryBytes());
+	}
+
+	@Test
+	void writeThroughSkipsEntriesOverTheSizeLimit() throws Exception {
+		ByteArrayOutputStream response = new ByteArrayOutputStream();
+		cache.writeThrough("big", response, out -> out.write(new byte[70]));
+
+		assertEquals(70, response.size());
+		assertNull(cache.get("big"));
+		assertEquals(1, cache.stats().getMisses());
+	}
+
+	@Test
+	void diskSweepDropsExpiredThenOldestOverTheBound(@TempDir Path dir) throws Exception {
+		ReflectionTestUtils.setField(cache, "diskDir", dir.toString());
+		ReflectionTestUtils.setField(cache, "diskMaxBytes", 50L);
+		cache.init();
+		cache.put("old", new byte[30]);
+		cache.put("older", new byte[30]);
+		cache.put("newest", new byte[30]);
+		cache.put("expired", new byte[10]);
+		long now = System.currentTimeMillis();
+		touch(dir, "expired", now - Duration.ofHours(1).toMillis());
+		touch(dir, "older", now - 3_000);
+		touch(dir, "old", now - 2_000);
+
+		cache.sweepDisk();
+
+		assertFalse(Files.exists(dir.resolve("expired.pdf")));
+		assertFalse(Files.exists(dir.resolve("older.pdf")));
+		assertFalse(Files.exists(dir.resolve("old.pdf")));
+		assertTrue(Files.exists(dir.resolve("newest.pdf")));
+		assertEquals(1, cache.stats().getExpirations());
+		assertEquals(2, cache.stats().getEvictions()); // old and older; newest fits the bound
+	}
+
+	private static void touch(Path dir, String key, long millis) throws Exception {
+		Files.setLastModifiedTime(dir.resolve(key + ".pdf"), FileTime.fromMillis(millis));
+	}
+}
@@ -0,0 +1,132 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+	private static final Map<String, JsonNode> DATA = Map.of("USR-001", JsonNodeFactory.instance.objectNode());
+
+	@TempDir
+	Path dir;
+
+	private final BulkReportService bulkReportService = mock(BulkReportService.class);
+	private ReportStore store;
+	private ReportJobService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new ReportStore();
+		ReflectionTestUtils.setField(store, "storeDir", dir.toString());
+		ReflectionTestUtils.setField(store, "segmentBytes", 1L << 20);
+		ReflectionTestUtils.setField(store, "retentionDays", 30L);
+		ReflectionTestUtils.setField(store, "maxBytes", 1L << 30);
+		store.init();
+
+		service = new ReportJobService();
+		ReflectionTestUtils.setField(service, "bulkReportService", bulkReportService);
+		ReflectionTestUtils.setField(service, "reportStore", store);
+		ReflectionTestUtils.setField(service, "concurrency", 1);
+		ReflectionTestUtils.setField(service, "queueCapacity", 1);
+		ReflectionTestUtils.setField(service, "retentionMinutes", 60L);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		service.shutdown();
+		store.close();
+	}
+
+	@Test
+	void completedJobIsStoredAndDropsItsPayload() throws Exception {
+		doAnswer(call -> {
+			call.<OutputStream>getArgument(4).write("%PDF".getBytes(StandardCharsets.US_ASCII));
+			return null;
+		}).when(bulkReportService).writeBulkReport(any(), any(), any(), any(), any());
+
+		ReportJob job = awaitFinished(service.submitBulkReport(List.of("USR-001"), "Critical", "analyst", DATA));
+
+		assertEquals(ReportJob.Status.COMPLETED, job.getStatus());
+		assertNotNull(job.getCompletedAt());
+		assertEquals(4, job.getSizeBytes());
+		assertNull(job.getCustomerData());
+		assertTrue(store.find(job.getReportId()).isPresent());
+	}
+
+	@Test
+	void failedJobRecordsTheError() throws Exception {
+		doThrow(new IllegalStateException("render failed"))
+				.when(bulkReportService).writeBulkReport(any(), any(), any(), any(), any());
+
+		ReportJob job = awaitFinished(service.submitBulkReport(List.of("USR-001"), "Critical", "analyst", DATA));
+
+		assertEquals(ReportJob.Status.FAILED, job.getStatus());
+		assertEquals("render failed", job.getError());
+		assertNull(job.getCustomerData());
+	}
+
+	@Test
+	void rejectsWhenWorkerAndQueueAreBusy() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(call -> release.await(5, TimeUnit.SECONDS))
+				.when(bulkReportService).writeBulkReport(any(), any(), any(), any(), any());
+
+		ReportJob running = service.submitBulkReport(List.of("USR-001"), "Critical", "analyst", DATA);
+		while (running.getStatus() == ReportJob.Status.QUEUED) {
+			Thread.sleep(5);
+		}
+		service.submitBulkReport(List.of("USR-002"), "Critical", "analyst", DATA);
+		try {
+			assertThrows(RejectedExecutionException.class,
+					() -> service.submitBulkReport(List.of("USR-003"), "Critical", "analyst", DATA));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void pruneDropsOnlyExpiredFinishedJobs() throws Exception {
+		ReflectionTestUtils.setField(service, "retentionMinutes", -1L);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(call -> release.await(5, TimeUnit.SECONDS))
+				.when(bulkReportService).writeBulkReport(any(), any(), any(), any(), any());
+		ReportJob running = service.submitBulkReport(List.of("USR-001"), "Critical", "analyst", DATA);
+
+		service.pruneExpiredJobs();
+		assertTrue(service.getJob(running.getReportId()).isPresent());
+
+		release.countDown();
+		awaitFinished(running);
+		service.pruneExpiredJobs();
+		assertTrue(service.getJob(running.getReportId()).isEmpty());
+	}
+
+	private static ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+		Instant deadline = Instant.now().plusSeconds(5);
+		while (!job.isFinished() && Instant.now().isBefore(deadline)) {
+			Thread.sleep(10);
+		}
+		assertTrue(job.isFinished(), "job did not finish");
+		return job;
+	}
+}
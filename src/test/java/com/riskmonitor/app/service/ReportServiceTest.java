@@ -0,0 +1,28 @@
+package com.riskmonitor.app.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportServiceTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ReportService service = new ReportService(new ChartImageCache(8), new ChartRenderer(true),
+			TransactionFlagger.defaults(), true, new ReportMetrics(registry));
+
+	@Test
+	void recordsTheSizeOfEveryClosedDocument() throws Exception {
+		byte[] stored = service.getStoredReport("R-1");
+		byte[] bulk = service.generateBulkReport(List.of("USR-001", "USR-002"), "Critical Customers", "admin");
+
+		DistributionSummary storedSize = registry.get("report.pdf.size").tag("type", "stored").summary();
+		DistributionSummary bulkSize = registry.get("report.pdf.size").tag("type", "bulk").summary();
+		assertEquals(1, storedSize.count());
+		assertEquals(stored.length, storedSize.totalAmount());
+		assertEquals(bulk.length, bulkSize.totalAmount());
+	}
+}
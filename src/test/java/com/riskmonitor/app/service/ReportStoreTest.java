@@ -0,0 +1,193 @@
+package com.riskmonitor.app.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportStoreTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<ReportStore> opened = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (ReportStore store : opened) {
+			store.close();
+		}
+	}
+
+	@Test
+	void identicalReportsShareOneRegionAndReadBack() throws Exception {
+		ReportStore store = open(1024, 30, 1 << 20);
+		StoredReport first = store(store, "r1", "same pdf bytes");
+		StoredReport second = store(store, "r2", "same pdf bytes");
+
+		assertEquals(first.getOffset(), second.getOffset());
+		assertEquals(first.getETag(), second.getETag());
+		assertEquals("pdf b", read(store, second, 5, 5));
+	}
+
+	@Test
+	void onlyFlushedReportsSurviveRestart() throws Exception {
+		ReportStore store = open(1024, 30, 1 << 20);
+		store(store, "flushed", "first");
+		store.flush();
+		store(store, "unflushed", "second");
+
+		ReportStore reopened = reopen(store);
+		assertTrue(reopened.find("flushed").isPresent());
+		assertTrue(reopened.find("unflushed").isEmpty());
+		assertEquals("first", read(reopened, reopened.find("flushed").orElseThrow(), 0, 5));
+	}
+
+	@Test
+	void sizeCapDropsOldestSegmentsButNeverTheActiveOne() throws Exception {
+		ReportStore store = open(10, 30, 20);
+		store(store, "r1", "0123456789");
+		store(store, "r2", "abcdefghij");
+		store(store, "r3", "ABCDEFGHIJ");
+		store.flush();
+
+		store.enforceRetention();
+
+		assertTrue(store.find("r1").isEmpty());
+		assertTrue(store.find("r2").isPresent());
+		assertTrue(store.find("r3").isPresent());
+		assertFalse(Files.exists(dir.resolve("segment-000001.blob")));
+		assertFalse(Files.exists(dir.resolve("segment-000001.jsonl")));
+	}
+
+	@Test
+	void expiredSegmentsAreDropped() throws Exception {
+		ReportStore store = open(10, -1, 1 << 20);
+		store(store, "r1", "0123456789");
+		store(store, "r2", "abcdefghij");
+
+		store.enforceRetention();
+
+		assertTrue(store.find("r1").isEmpty());
+		assertTrue(store.find("r2").isPresent(), "active segment is kept");
+	}
+
+	@Test
+	void truncatedBlobFailsInsteadOfSpinning() throws Exception {
+		ReportStore store = open(1024, 30, 1 << 20);
+		StoredReport report = store(store, "r1", "0123456789");
+		try (FileChannel blob = FileChannel.open(dir.resolve("segment-000001.blob"), StandardOpenOption.WRITE)) {
+			blob.truncate(4);
+		}
+
+		assertThrows(EOFException.class, () -> read(store, report, 0, 10));
+	}
+
+	@Test
+	void segmentWithAReportInFlightIsKept() throws Exception {
+		ReportStore store = open(10, -1, 1 << 20);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		CompletableFuture<StoredReport> slow = CompletableFuture.supplyAsync(() -> {
+			try {
+				return store.writeThrough("slow", "USR-001", "Customer Risk Report", "analyst",
+						new ByteArrayOutputStream(), out -> {
+							out.write("0123456789".getBytes(StandardCharsets.US_ASCII));
+							out.flush();
+							started.countDown();
+							finish.await();
+							out.write("!".getBytes(StandardCharsets.US_ASCII));
+						});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		started.await();
+		store(store, "r2", "abcdefghij");
+
+		store.enforceRetention();
+		finish.countDown();
+		StoredReport report = slow.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1, report.getSegment());
+		assertTrue(Files.exists(dir.resolve("segment-000001.blob")));
+		assertEquals("0123456789!", read(store, report, 0, 11));
+	}
+
+	@Test
+	void reportOvertakenMidWriteMovesToTheTail() throws Exception {
+		ReportStore store = open(1024, 30, 1 << 20);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		CompletableFuture<StoredReport> slow = CompletableFuture.supplyAsync(() -> {
+			try {
+				return store.writeThrough("slow", "USR-001", "Customer Risk Report", "analyst",
+						new ByteArrayOutputStream(), out -> {
+							out.write("012".getBytes(StandardCharsets.US_ASCII));
+							out.flush();
+							started.countDown();
+							finish.await();
+							out.write("3456789".getBytes(StandardCharsets.US_ASCII));
+						});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		started.await();
+		StoredReport quick = store(store, "quick", "xy");
+		finish.countDown();
+		StoredReport report = slow.get(5, TimeUnit.SECONDS);
+
+		assertEquals(4, quick.getOffset(), "placed after the slow report's first extent");
+		assertEquals(6, report.getOffset());
+		assertEquals("0123456789", read(store, report, 0, 10));
+		assertEquals("xy", read(store, quick, 0, 2));
+	}
+
+	private ReportStore open(long segmentBytes, long retentionDays, long maxBytes) throws Exception {
+		ReportStore store = new ReportStore();
+		ReflectionTestUtils.setField(store, "storeDir", dir.toString());
+		ReflectionTestUtils.setField(store, "segmentBytes", segmentBytes);
+		ReflectionTestUtils.setField(store, "retentionDays", retentionDays);
+		ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+		ReflectionTestUtils.setField(store, "extentBytes", 4L);
+		store.init();
+		opened.add(store);
+		return store;
+	}
+
+	private ReportStore reopen(ReportStore store) throws Exception {
+		// Simulates a crash: nothing is flushed on the way down
+		ReflectionTestUtils.setField(store, "pending", new ArrayList<StoredReport>());
+		store.close();
+		opened.remove(store);
+		return open(1024, 30, 1 << 20);
+	}
+
+	private static StoredReport store(ReportStore store, String reportId, String content) throws Exception {
+		return store.writeThrough(reportId, "USR-001", "Customer Risk Report", "analyst",
+				new ByteArrayOutputStream(), out -> out.write(content.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	private static String read(ReportStore store, StoredReport report, long start, long length) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		store.transferTo(report, start, length, Channels.newChannel(out));
+		return out.toString(StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,55 @@
+package com.riskmonitor.app.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportTemplatesTest {
+
+	private final ReportService withTemplates = new ReportService(new ChartImageCache(8), new ChartRenderer(true),
+			TransactionFlagger.defaults(), true);
+	private final ReportService withoutTemplates = new ReportService(new ChartImageCache(8), new ChartRenderer(true),
+			TransactionFlagger.defaults(), false);
+
+	@Test
+	void templatedBlocksRenderTheSameAsLaidOutOnes() throws Exception {
+		for (String customerId : List.of("USR-001", "USR-002", "USR-003")) {
+			List<String> templated = pages(withTemplates.generateCustomerReport(customerId,
+					SampleCustomers.get(customerId), null));
+			List<String> laidOut = pages(withoutTemplates.generateCustomerReport(customerId,
+					SampleCustomers.get(customerId), null));
+
+			assertEquals(laidOut.size(), templated.size(), customerId + " page count");
+			// A stamped block cannot split, so compare the text across page breaks
+			assertEquals(String.join("\n", laidOut), String.join("\n", templated), customerId);
+		}
+	}
+
+	@Test
+	void staticTextIsPresent() throws Exception {
+		String text = String.join("\n", pages(withTemplates.generateCustomerReport("USR-001",
+				SampleCustomers.get("USR-001"), null)));
+
+		assertTrue(text.contains("What This Means:"), text);
+		assertTrue(text.contains("Report Generated By: RiskAvert AI Platform v2.1"), text);
+	}
+
+	// Extracted text per page, without the render timestamp
+	private static List<String> pages(byte[] pdf) throws Exception {
+		List<String> pages = new ArrayList<>();
+		try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+			for (int page = 1; page <= document.getNumberOfPages(); page++) {
+				pages.add(PdfTextExtractor.getTextFromPage(document.getPage(page))
+						.replaceAll("Generated: .*", "Generated:"));
+			}
+		}
+		return pages;
+	}
+}
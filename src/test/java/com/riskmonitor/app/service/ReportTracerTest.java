@@ -0,0 +1,47 @@
+package com.riskmonitor.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportTracerTest {
+
+	private final ReportTracer tracer = new ReportTracer(0, 2);
+
+	@Test
+	void recordsSectionsOnTheRenderingThreadAndKeepsTheNewestTraces() throws Exception {
+		assertTrue(tracer.select(false).isEmpty());
+
+		for (String customerId : List.of("USR-001", "USR-002", "USR-003")) {
+			String traceId = tracer.select(true).orElseThrow();
+			tracer.traced(traceId, customerId, out -> {
+				ReportTrace.mark("cover");
+				ReportTrace.imageDecoded(100);
+				ReportTrace.mark("charts");
+			}).write(new ByteArrayOutputStream());
+		}
+		ReportTrace.mark("ignored"); // no trace bound once the render is done
+
+		List<ReportTrace> recent = tracer.recent(null, false, 10);
+		assertEquals(List.of("USR-003", "USR-002"), recent.stream().map(ReportTrace::getCustomerId).toList());
+		ReportTrace trace = recent.get(0);
+		assertEquals(List.of("cover", "charts"), trace.getSections().stream().map(ReportTrace.Section::name).toList());
+		assertEquals(100, trace.getImageBytesDecoded());
+		assertNull(trace.getError());
+		assertSame(trace, tracer.find(trace.getTraceId()).orElseThrow());
+	}
+
+	@Test
+	void failedRenderIsStillRecorded() {
+		ReportWriter failing = tracer.traced("t-1", "USR-001", out -> {
+			throw new IOException("client went away");
+		});
+
+		assertThrows(IOException.class, () -> failing.write(new ByteArrayOutputStream()));
+		assertEquals("IOException: client went away", tracer.find("t-1").orElseThrow().getError());
+	}
+}
@@ -0,0 +1,65 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.RiskScore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskAggregatesTest {
+
+	@Test
+	void distressedCustomerScoresAboveHealthyOne() {
+		RiskAggregates distressed = new RiskAggregates();
+		RiskAggregates healthy = new RiskAggregates();
+		for (int m = 1; m <= 6; m++) {
+			int month = RiskAggregates.monthKey(2025, m);
+			distressed.putCashFlow(month, 50_000, 60_000);
+			distressed.putPayment(month, 80 - m * 5, 20 + m * 5);
+			distressed.putCreditScore(month, 680 - m * 10);
+			distressed.putLiquidity(month, 40_000 - m * 5_000);
+
+			healthy.putCashFlow(month, 150_000, 90_000);
+			healthy.putPayment(month, 100, 0);
+			healthy.putCreditScore(month, 790);
+			healthy.putLiquidity(month, 500_000);
+		}
+
+		RiskScore high = distressed.score("USR-001");
+		RiskScore low = healthy.score("USR-003");
+
+		assertTrue(high.getRiskPercentage() >= 80, "was " + high.getRiskPercentage());
+		assertEquals("Critical", high.getRiskScore());
+		assertEquals("High Stress", high.getStressLevel());
+		assertTrue(low.getRiskPercentage() < 35, "was " + low.getRiskPercentage());
+		assertEquals("Low", low.getRiskScore());
+	}
+
+	@Test
+	void windowKeepsNewestMonthsAndTransactionsMoveTheScore() {
+		RiskAggregates customer = new RiskAggregates();
+		// A bad year, then six clean months: only the clean months stay in the window
+		customer.putPayment(RiskAggregates.monthKey(2024, "Jan"), 10, 90);
+		for (int m = 1; m <= 6; m++) {
+			customer.putPayment(RiskAggregates.monthKey(2025, m), 100, 0);
+		}
+		int clean = customer.score("USR-002").getRiskPercentage();
+		assertEquals(clean, scoreOfCleanPayments());
+
+		int month = RiskAggregates.monthKey(2025, 6);
+		customer.addTransaction(month, "credit", "Salary", 100_000);
+		customer.addTransaction(month, "debit", "Lending", -40_000);
+		customer.addTransaction(month, "debit", "EMI", -45_000);
+		RiskScore after = customer.score("USR-002");
+
+		assertTrue(after.getRiskPercentage() > clean, clean + " -> " + after.getRiskPercentage());
+		assertEquals(after, customer.lastScore());
+	}
+
+	private static int scoreOfCleanPayments() {
+		RiskAggregates customer = new RiskAggregates();
+		for (int m = 1; m <= 6; m++) {
+			customer.putPayment(RiskAggregates.monthKey(2025, m), 100, 0);
+		}
+		return customer.score("USR-002").getRiskPercentage();
+	}
+}
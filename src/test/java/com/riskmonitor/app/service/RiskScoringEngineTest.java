@@ -0,0 +1,112 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.alert.CustomerEvent;
+import com.riskmonitor.app.dto.RiskScore;
+import com.riskmonitor.app.push.PushBroadcaster;
+import com.riskmonitor.app.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class RiskScoringEngineTest {
+
+	private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 14, 10, 0);
+
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final CashFlowRecordRepository cashFlowRecordRepository = mock(CashFlowRecordRepository.class);
+	private final PushBroadcaster pushBroadcaster = mock(PushBroadcaster.class);
+	private RiskScoringEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		engine = new RiskScoringEngine(2, 500);
+		ReflectionTestUtils.setField(engine, "customerRepository", customerRepository);
+		ReflectionTestUtils.setField(engine, "transactionRepository", mock(TransactionRepository.class));
+		ReflectionTestUtils.setField(engine, "cashFlowRecordRepository", cashFlowRecordRepository);
+		ReflectionTestUtils.setField(engine, "creditScoreRecordRepository", mock(CreditScoreRecordRepository.class));
+		ReflectionTestUtils.setField(engine, "paymentRecordRepository", mock(PaymentRecordRepository.class));
+		ReflectionTestUtils.setField(engine, "liquidityRecordRepository", mock(LiquidityRecordRepository.class));
+		ReflectionTestUtils.setField(engine, "customerColumnStore", mock(CustomerColumnStore.class));
+		ReflectionTestUtils.setField(engine, "pushBroadcaster", pushBroadcaster);
+		when(customerRepository.findUserIdsIn(anyCollection())).thenAnswer(call -> List.copyOf(call.getArgument(0)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		engine.shutdown();
+	}
+
+	@Test
+	void eventsUpdateAggregatesWithoutReloadingHistory() {
+		List<RiskScore> first = engine.onEvents(List.of(salary(), spend("emi", 3000)));
+		List<RiskScore> second = engine.onEvents(List.of(spend("lending", 2000)));
+		List<RiskScore> unchanged = engine.onEvents(List.of(new CustomerEvent.Payment("USR-001", AT, "EMI", "LATE",
+				BigDecimal.valueOf(3000))));
+
+		assertEquals(List.of(expected(salary(), spend("emi", 3000))), first);
+		assertEquals(List.of(expected(salary(), spend("emi", 3000), spend("lending", 2000))), second);
+		assertTrue(unchanged.isEmpty());
+		verify(customerRepository, times(1)).findUserIdsIn(anyCollection());
+		verify(cashFlowRecordRepository, times(1)).findByCustomerUserIdIn(anyCollection());
+		verify(customerRepository, times(2)).updateRiskScores(anyCollection());
+		verify(pushBroadcaster, times(2)).publishRiskChanges(anyCollection());
+	}
+
+	@Test
+	void eventsForUnknownCustomersAreIgnored() {
+		when(customerRepository.findUserIdsIn(anyCollection())).thenReturn(List.of());
+
+		assertTrue(engine.onEvents(List.of(salary())).isEmpty());
+		verifyNoInteractions(cashFlowRecordRepository, pushBroadcaster);
+	}
+
+	@Test
+	void firstTouchRaceKeepsBothUpdates() throws Exception {
+		// Both callers are inside the first-touch load before either publishes its copy
+		CyclicBarrier bothLoading = new CyclicBarrier(2);
+		when(cashFlowRecordRepository.findByCustomerUserIdIn(anyCollection())).thenAnswer(call -> {
+			bothLoading.await(5, TimeUnit.SECONDS);
+			return List.of();
+		});
+
+		CompletableFuture<List<RiskScore>> a = CompletableFuture.supplyAsync(() -> engine.onEvents(List.of(salary())));
+		CompletableFuture<List<RiskScore>> b = CompletableFuture.supplyAsync(
+				() -> engine.onEvents(List.of(spend("emi", 3000))));
+		a.get(10, TimeUnit.SECONDS);
+		b.get(10, TimeUnit.SECONDS);
+
+		List<RiskScore> after = engine.onEvents(List.of(spend("lending", 2000)));
+		assertEquals(List.of(expected(salary(), spend("emi", 3000), spend("lending", 2000))), after);
+	}
+
+	private static RiskScore expected(CustomerEvent.Transaction... transactions) {
+		RiskAggregates aggregates = new RiskAggregates();
+		for (CustomerEvent.Transaction tx : transactions) {
+			aggregates.addTransaction(RiskAggregates.monthKey(tx.at().getYear(), tx.at().getMonthValue()),
+					tx.type(), tx.category(), tx.amount().doubleValue());
+		}
+		return aggregates.score("USR-001");
+	}
+
+	private static CustomerEvent.Transaction salary() {
+		return new CustomerEvent.Transaction("USR-001", AT, "SALARY CREDIT", BigDecimal.valueOf(10000), "credit",
+				"salary");
+	}
+
+	private static CustomerEvent.Transaction spend(String category, int amount) {
+		return new CustomerEvent.Transaction("USR-001", AT, category.toUpperCase() + " DEBIT",
+				BigDecimal.valueOf(-amount), "debit", category);
+	}
+}
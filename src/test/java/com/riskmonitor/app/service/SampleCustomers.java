@@ -0,0 +1,32 @@
+package com.riskmonitor.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The first sample customers from src/data/usersData.js, as the frontend
+ * posts them to /api/reports/generate.
+ */
+final class SampleCustomers {
+
+	private static final JsonNode CUSTOMERS = load();
+
+	private SampleCustomers() {
+	}
+
+	static JsonNode get(String customerId) {
+		return CUSTOMERS.get(customerId).deepCopy();
+	}
+
+	private static JsonNode load() {
+		try (InputStream in = SampleCustomers.class.getResourceAsStream("/sample-customers.json")) {
+			return new ObjectMapper().readTree(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.riskmonitor.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionFlaggerTest {
+
+	private final TransactionFlagger flagger = TransactionFlagger.defaults();
+
+	@Test
+	void agreesWithSequentialContainsChecks() {
+		List<String> descriptions = List.of(
+				"Salary Credit", "EMI Payment - Home Loan", "ATM Withdrawal", "Missed EMI - Car Loan",
+				"Late fee charged", "Payment FAILED - insufficient funds", "Quick Lending App Disbursal",
+				"Delayed rent", "Chocolate store", "Translated documents", "Grocery", "", "atmosphere",
+				"LOANLATEMISSED", "Failedloan");
+
+		for (String description : descriptions) {
+			assertEquals(legacyFlag(description), flagger.flag(description), description);
+		}
+	}
+
+	@Test
+	void mostSevereOverlappingKeywordWins() {
+		TransactionFlagger custom = new TransactionFlagger(new String[] { "bounce", "she" },
+				new String[] { "he", "hers" }, new String[] { "his" }, new String[] {});
+
+		assertEquals("Critical", custom.flag("ushers")); // "she" ends inside "hers"
+		assertEquals("High", custom.flag("her"));
+		assertEquals("Medium", custom.flag("this"));
+		assertEquals(TransactionFlagger.NORMAL, custom.flag("ABOUNC"));
+		assertEquals("Critical", custom.flag("ABOUNCE"));
+		assertEquals(TransactionFlagger.NORMAL, custom.flag(null));
+	}
+
+	private static String legacyFlag(String description) {
+		String lower = description.toLowerCase();
+		if (lower.contains("missed") || lower.contains("failed"))
+			return "Critical";
+		if (lower.contains("late") || lower.contains("delayed"))
+			return "High";
+		if (lower.contains("loan") || lower.contains("lending"))
+			return "Medium";
+		if (lower.contains("atm") || lower.contains("withdrawal"))
+			return "Watch";
+		return TransactionFlagger.NORMAL;
+	}
+}
@@ -0,0 +1,49 @@
+package com.riskmonitor.app.service;
+
+import com.riskmonitor.app.dto.UserCacheStats;
+import com.riskmonitor.app.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondMaxEntries() {
+		UserCache cache = new UserCache(2, 300);
+		cache.put(user("alice"));
+		cache.put(user("bob"));
+		assertNotNull(cache.get("alice"));
+		cache.put(user("carol"));
+
+		assertNotNull(cache.get("alice"));
+		assertNull(cache.get("bob"));
+		assertNotNull(cache.get("carol"));
+		assertEquals(1, cache.stats().getEvictions());
+	}
+
+	@Test
+	void expiredAndInvalidatedEntriesAreMisses() {
+		UserCache expiring = new UserCache(10, -1);
+		expiring.put(user("alice"));
+		assertNull(expiring.get("alice"));
+		assertEquals(1, expiring.stats().getExpirations());
+
+		UserCache cache = new UserCache(10, 300);
+		cache.put(user("alice"));
+		cache.invalidate("alice");
+		assertNull(cache.get("alice"));
+
+		UserCacheStats stats = cache.stats();
+		assertEquals(1, stats.getInvalidations());
+		assertEquals(0, stats.getHits());
+		assertEquals(1, stats.getMisses());
+	}
+
+	private static User user(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setRole("RISK_ANALYST");
+		return user;
+	}
+}
@@ -0,0 +1,54 @@
+package com.riskmonitor.app.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+	@Test
+	void requestOverTheCapIsTurnedAwayAfterWaiting() throws Exception {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+			try {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/customers"), new MockHttpServletResponse(),
+						(req, res) -> {
+							entered.countDown();
+							try {
+								release.await();
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+							}
+						});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/customers"), rejected,
+				(req, res) -> fail("should not reach the handler"));
+		assertEquals(503, rejected.getStatus());
+		assertEquals("1", rejected.getHeader("Retry-After"));
+		assertTrue(rejected.getContentAsString().contains("Server busy"));
+
+		release.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		assertEquals(1, filter.available());
+
+		MockHttpServletResponse accepted = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/customers"), accepted, (req, res) -> {
+		});
+		assertEquals(200, accepted.getStatus());
+	}
+}